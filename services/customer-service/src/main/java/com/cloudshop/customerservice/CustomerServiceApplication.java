@@ -6,10 +6,12 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing
 @EnableCaching
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.cloudshop.customerservice.repository")
 @EnableElasticsearchRepositories(basePackages = "com.cloudshop.customerservice.repository.elasticsearch")
 public class CustomerServiceApplication {
@@ -8,7 +8,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -21,12 +20,18 @@ public class CacheConfig {
     @Value("${app.cache.customer.ttl:3600}")
     private long customerCacheTtl;
 
+    @Value("${app.cache.serializer.format:COMPACT}")
+    private CompactRedisSerializer.Format serializerFormat;
+
+    @Value("${app.cache.serializer.compression-threshold:1024}")
+    private int compressionThreshold;
+
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(customerCacheTtl))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new CompactRedisSerializer(serializerFormat, compressionThreshold)))
                 .disableCachingNullValues();
 
         RedisCacheConfiguration customerConfig = defaultConfig.entryTtl(Duration.ofSeconds(customerCacheTtl));
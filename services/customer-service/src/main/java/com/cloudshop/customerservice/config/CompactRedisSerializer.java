@@ -0,0 +1,142 @@
+package com.cloudshop.customerservice.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Redis value serializer writing Smile (binary JSON) with optional LZ4
+ * compression behind a small versioned header:
+ *
+ * <pre>
+ * [magic 0xCB][version][flags][original length, if compressed][payload]
+ * </pre>
+ *
+ * Values without the magic byte are read as the JSON written by
+ * {@code GenericJackson2JsonRedisSerializer}, and values with an unknown
+ * version are treated as a cache miss, so nodes on different versions can
+ * share a cache during a rolling upgrade. With {@link Format#JSON} the
+ * serializer still reads both formats but keeps writing JSON, which lets the
+ * reader change roll out before the writer change.
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    public enum Format { COMPACT, JSON }
+
+    static final byte MAGIC = (byte) 0xCB;
+    static final byte VERSION = 1;
+    static final byte FLAG_LZ4 = 0x01;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int LENGTH_FIELD = 4;
+
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper jsonMapper;
+    private final Format format;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public CompactRedisSerializer(Format format, int compressionThreshold) {
+        this.smileMapper = configure(new ObjectMapper(new SmileFactory()));
+        this.jsonMapper = configure(new ObjectMapper());
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            if (format == Format.JSON) {
+                return jsonMapper.writeValueAsBytes(value);
+            }
+            return encode(smileMapper.writeValueAsBytes(value));
+        } catch (Exception e) {
+            throw new SerializationException("Could not write cache value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes[0] != MAGIC) {
+                return jsonMapper.readValue(bytes, Object.class);
+            }
+            if (bytes.length < HEADER_LENGTH || bytes[1] != VERSION) {
+                log.debug("Ignoring cache value with unsupported format version {}", bytes.length > 1 ? bytes[1] : -1);
+                return null;
+            }
+            return smileMapper.readValue(decode(bytes), Object.class);
+        } catch (Exception e) {
+            throw new SerializationException("Could not read cache value: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] encode(byte[] payload) {
+        if (payload.length >= compressionThreshold) {
+            byte[] compressed = new byte[HEADER_LENGTH + LENGTH_FIELD + compressor.maxCompressedLength(payload.length)];
+            int compressedLength = compressor.compress(payload, 0, payload.length,
+                    compressed, HEADER_LENGTH + LENGTH_FIELD, compressed.length - HEADER_LENGTH - LENGTH_FIELD);
+            if (compressedLength < payload.length) {
+                compressed[0] = MAGIC;
+                compressed[1] = VERSION;
+                compressed[2] = FLAG_LZ4;
+                ByteBuffer.wrap(compressed, HEADER_LENGTH, LENGTH_FIELD).putInt(payload.length);
+                return Arrays.copyOf(compressed, HEADER_LENGTH + LENGTH_FIELD + compressedLength);
+            }
+        }
+
+        byte[] encoded = new byte[HEADER_LENGTH + payload.length];
+        encoded[0] = MAGIC;
+        encoded[1] = VERSION;
+        encoded[2] = 0;
+        System.arraycopy(payload, 0, encoded, HEADER_LENGTH, payload.length);
+        return encoded;
+    }
+
+    private byte[] decode(byte[] bytes) {
+        if ((bytes[2] & FLAG_LZ4) == 0) {
+            return Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+        }
+        int originalLength = ByteBuffer.wrap(bytes, HEADER_LENGTH, LENGTH_FIELD).getInt();
+        byte[] payload = new byte[originalLength];
+        decompressor.decompress(bytes, HEADER_LENGTH + LENGTH_FIELD, payload, 0, originalLength);
+        return payload;
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        PolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.cloudshop.")
+                .allowIfSubType("java.")
+                .build();
+        return mapper
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .activateDefaultTyping(typeValidator, ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+    }
+}
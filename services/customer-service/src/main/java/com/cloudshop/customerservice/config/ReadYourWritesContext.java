@@ -0,0 +1,25 @@
+package com.cloudshop.customerservice.config;
+
+/**
+ * Marks the current request as needing primary reads, because the same client
+ * wrote recently and the replicas may not have caught up yet.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,116 @@
+package com.cloudshop.customerservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the
+ * primary. A replica is eligible while its last measured lag is within
+ * {@code maxLag}; eligible replicas are used round-robin. Requests flagged by
+ * {@link ReadYourWritesContext} always go to the primary.
+ *
+ * <p>Must be wrapped in a {@code LazyConnectionDataSourceProxy}: the
+ * transaction manager fetches its connection before the read-only flag is
+ * bound to the thread.
+ *
+ * <p>Owns the replica pools and closes them in {@link #close()}; the primary
+ * is a bean of its own.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final Map<String, Long> replicaLagMillis = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Duration maxLag, String lagQuery) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // Replicas start eligible; the first lag check corrects this within one interval
+        replicaNames.forEach(name -> replicaLagMillis.put(name, 0L));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadYourWritesContext.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        return selectReplica();
+    }
+
+    /**
+     * Measures the lag of every replica. A replica that cannot be reached is
+     * treated as infinitely behind.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:5000}")
+    public void refreshReplicaLag() {
+        replicas.forEach((name, dataSource) -> {
+            long lag;
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                lag = resultSet.next() ? resultSet.getLong(1) : Long.MAX_VALUE;
+            } catch (Exception e) {
+                log.warn("Replica lag check failed for {}: {}", name, e.getMessage());
+                lag = Long.MAX_VALUE;
+            }
+            Long previous = replicaLagMillis.put(name, lag);
+            if (previous != null && (previous > maxLagMillis) != (lag > maxLagMillis)) {
+                log.info("Replica {} is now {} (lag {} ms)", name, lag > maxLagMillis ? "excluded" : "eligible", lag);
+            }
+        });
+    }
+
+    public Map<String, Long> getReplicaLagMillis() {
+        return Map.copyOf(replicaLagMillis);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private String selectReplica() {
+        int size = replicaNames.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get((start + i) % size);
+            if (replicaLagMillis.getOrDefault(name, Long.MAX_VALUE) <= maxLagMillis) {
+                return name;
+            }
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,40 @@
+package com.cloudshop.customerservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** Replicas lagging further than this are skipped until they catch up. */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** Requests from a client that wrote within this window read from the primary. */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /** Request header identifying the client for read-your-writes tracking. */
+    private String clientHeader = "X-User-Id";
+
+    /** Returns the replica lag in milliseconds; 0 when the replica has replayed all received WAL. */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    @Data
+    public static class Replica {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 20;
+    }
+}
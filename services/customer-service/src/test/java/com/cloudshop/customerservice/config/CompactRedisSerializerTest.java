@@ -0,0 +1,106 @@
+package com.cloudshop.customerservice.config;
+
+import com.cloudshop.customerservice.dto.CustomerResponse;
+import com.cloudshop.customerservice.dto.PageResponse;
+import com.cloudshop.customerservice.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRedisSerializerTest {
+
+    private final CompactRedisSerializer compact = new CompactRedisSerializer(CompactRedisSerializer.Format.COMPACT, 1024);
+    private final CompactRedisSerializer json = new CompactRedisSerializer(CompactRedisSerializer.Format.JSON, 1024);
+
+    @Test
+    void testRoundTripsCustomerResponse() {
+        CustomerResponse customer = customer(0);
+
+        byte[] bytes = compact.serialize(customer);
+
+        assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(CompactRedisSerializer.VERSION, bytes[1]);
+        assertEquals(customer, compact.deserialize(bytes));
+    }
+
+    @Test
+    void testLargeValuesAreCompressed() {
+        PageResponse<CustomerResponse> page = largePage();
+
+        byte[] bytes = compact.serialize(page);
+        int jsonSize = json.serialize(page).length;
+
+        assertEquals(CompactRedisSerializer.FLAG_LZ4, bytes[2]);
+        assertEquals(page, compact.deserialize(bytes));
+        assertTrue(bytes.length * 2 < jsonSize,
+                "expected compact (" + bytes.length + " bytes) to be under half of JSON (" + jsonSize + " bytes)");
+    }
+
+    @Test
+    void testValuesBelowThresholdAreNotCompressed() {
+        CompactRedisSerializer neverCompress = new CompactRedisSerializer(CompactRedisSerializer.Format.COMPACT,
+                Integer.MAX_VALUE);
+        PageResponse<CustomerResponse> page = largePage();
+
+        byte[] small = compact.serialize(customer(0));
+        byte[] uncompressed = neverCompress.serialize(page);
+
+        assertEquals(0, small[2]);
+        assertEquals(0, uncompressed[2]);
+        assertEquals(page, compact.deserialize(uncompressed));
+    }
+
+    @Test
+    void testReadsLegacyJsonEntries() {
+        CustomerResponse customer = customer(0);
+        PageResponse<CustomerResponse> page = largePage();
+
+        assertEquals(customer, compact.deserialize(json.serialize(customer)));
+        assertEquals(page, compact.deserialize(json.serialize(page)));
+        assertEquals(page, json.deserialize(compact.serialize(page)));
+    }
+
+    @Test
+    void testUnknownVersionIsTreatedAsMiss() {
+        byte[] bytes = compact.serialize(largePage());
+        bytes[1] = 99;
+
+        assertNull(compact.deserialize(bytes));
+    }
+
+    private PageResponse<CustomerResponse> largePage() {
+        List<CustomerResponse> customers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            customers.add(customer(i));
+        }
+        return PageResponse.<CustomerResponse>builder()
+                .content(customers)
+                .page(0)
+                .size(40)
+                .totalElements(400)
+                .totalPages(10)
+                .first(true)
+                .last(false)
+                .build();
+    }
+
+    private CustomerResponse customer(int i) {
+        return CustomerResponse.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .email("customer" + i + "@example.com")
+                .firstName("Jane")
+                .lastName("Doe")
+                .phone("+1-555-0100")
+                .status(Customer.CustomerStatus.ACTIVE)
+                .lifecycleStage(Customer.LifecycleStage.ACTIVE)
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(Instant.parse("2024-01-02T00:00:00Z"))
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.cloudshop.customerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uses two in-memory H2 databases as stand-ins for the primary and a replica;
+ * each holds a single row naming itself.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(h2("primary"));
+        replica = new JdbcTemplate(h2("replica"));
+        for (JdbcTemplate db : new JdbcTemplate[]{primary, replica}) {
+            db.execute("CREATE TABLE node (name VARCHAR(20))");
+        }
+        primary.update("INSERT INTO node VALUES ('primary')");
+        replica.update("INSERT INTO node VALUES ('replica')");
+        replica.execute("CREATE TABLE replication_lag (millis BIGINT)");
+        replica.update("INSERT INTO replication_lag VALUES (0)");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary.getDataSource(),
+                Map.of("replica-1", replica.getDataSource()), Duration.ofSeconds(5),
+                "SELECT millis FROM replication_lag");
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+        primary.execute("DROP ALL OBJECTS");
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadYourWritesUsesPrimary() {
+        ReadYourWritesContext.requirePrimary();
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testLaggingReplicaIsSkippedUntilItCatchesUp() {
+        replica.update("UPDATE replication_lag SET millis = 60000");
+        routingDataSource.refreshReplicaLag();
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        replica.update("UPDATE replication_lag SET millis = 100");
+        routingDataSource.refreshReplicaLag();
+
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+        assertEquals(100L, routingDataSource.getReplicaLagMillis().get("replica-1"));
+    }
+
+    @Test
+    void testCloseShutsDownReplicaPools() throws Exception {
+        HikariDataSource first = hikari("replica-first");
+        HikariDataSource second = hikari("replica-second");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("first", first);
+        replicas.put("second", second);
+        ReplicaRoutingDataSource closing = new ReplicaRoutingDataSource(primary.getDataSource(), replicas,
+                Duration.ofSeconds(5), "SELECT 0");
+
+        closing.close();
+
+        assertTrue(first.isClosed());
+        assertTrue(second.isClosed());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource hikari(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name);
+        dataSource.setUsername("sa");
+        return dataSource;
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,104 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files.
+
+Prints the change in score (ns/op) and normalised allocation (B/op) for
+every benchmark present in both files, and exits with status 1 when any
+benchmark got slower or allocates more than the threshold allows.
+
+    ./compare.py results/main.json results/current.json
+    ./compare.py results/main.json results/current.json --threshold 10 --alloc-threshold 5
+"""
+import argparse
+import json
+import math
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for entry in json.load(f):
+            params = entry.get("params") or {}
+            key = entry["benchmark"]
+            if params:
+                key += "(" + ",".join(f"{k}={v}" for k, v in sorted(params.items())) + ")"
+            alloc = entry.get("secondaryMetrics", {}).get("gc.alloc.rate.norm")
+            results[key] = {
+                "score": entry["primaryMetric"]["score"],
+                "error": error(entry["primaryMetric"].get("scoreError")),
+                "unit": entry["primaryMetric"]["scoreUnit"],
+                "alloc": alloc["score"] if alloc else None,
+            }
+        return results
+
+
+def error(value):
+    # JMH reports "NaN" when there were too few iterations to estimate it
+    try:
+        value = float(value)
+    except (TypeError, ValueError):
+        return 0.0
+    return 0.0 if math.isnan(value) else value
+
+
+def change(before, after):
+    if before == 0:
+        return 0.0 if after == 0 else float("inf")
+    return (after - before) / before * 100.0
+
+
+def short_name(key):
+    name, _, params = key.partition("(")
+    parts = name.split(".")
+    return ".".join(parts[-2:]) + (f"({params}" if params else "")
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="allowed slowdown in percent (default 10)")
+    parser.add_argument("--alloc-threshold", type=float, default=5.0,
+                        help="allowed allocation increase in percent (default 5)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+
+    regressions = []
+    print(f"{'benchmark':<75} {'baseline':>12} {'current':>12} {'change':>8} {'B/op':>10} {'change':>8}")
+    for key in sorted(baseline.keys() & current.keys()):
+        before, after = baseline[key], current[key]
+        score_change = change(before["score"], after["score"])
+        # A slowdown inside the combined error bars is noise, not a regression
+        significant = after["score"] - before["score"] > before["error"] + after["error"]
+        slower = significant and score_change > args.threshold
+
+        alloc_change = None
+        more_alloc = False
+        if before["alloc"] is not None and after["alloc"] is not None:
+            alloc_change = change(before["alloc"], after["alloc"])
+            # Ignore a few bytes of profiler noise on allocation-free benchmarks
+            more_alloc = after["alloc"] - before["alloc"] > 16 and alloc_change > args.alloc_threshold
+
+        flag = " <-- REGRESSION" if slower or more_alloc else ""
+        alloc = f"{after['alloc']:>10.0f} {alloc_change:>+7.1f}%" if alloc_change is not None else f"{'-':>10} {'-':>8}"
+        print(f"{short_name(key):<75} {before['score']:>12.1f} {after['score']:>12.1f} "
+              f"{score_change:>+7.1f}% {alloc}{flag}")
+        if flag:
+            regressions.append(key)
+
+    for key in sorted(baseline.keys() - current.keys()):
+        print(f"{short_name(key):<75} missing from {args.current}")
+    for key in sorted(current.keys() - baseline.keys()):
+        print(f"{short_name(key):<75} new, no baseline")
+
+    if regressions:
+        print(f"\n{len(regressions)} regression(s) beyond {args.threshold}% time / {args.alloc_threshold}% allocation")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
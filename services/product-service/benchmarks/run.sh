@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+# Builds product-service and the benchmarks, then runs JMH with the GC
+# profiler and writes JSON results.
+#
+#   ./run.sh                              all benchmarks -> results/current.json
+#   ./run.sh results/main.json            all benchmarks -> results/main.json
+#   ./run.sh results/main.json Mapper -f 3  extra arguments are passed to JMH
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+OUTPUT="${1:-results/current.json}"
+shift || true
+
+mvn -B -q -f ../pom.xml install -DskipTests
+mvn -B -q package
+
+mkdir -p "$(dirname "$OUTPUT")"
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$OUTPUT" "$@"
+echo "Results written to $OUTPUT"
@@ -0,0 +1,58 @@
+package com.cloudshop.productservice.config;
+
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.service.BenchmarkData;
+import com.cloudshop.productservice.service.ProductMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value encoding of a cached product in each supported format, with
+ * LZ4 applied above the production threshold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializationBenchmark {
+
+    @Param({"COMPACT", "JSON"})
+    private CompactRedisSerializer.Format format;
+
+    @Param({"1024"})
+    private int compressionThreshold;
+
+    private CompactRedisSerializer serializer;
+    private ProductResponse response;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        serializer = new CompactRedisSerializer(format, compressionThreshold);
+        response = new ProductMapperImpl().toProductResponseWithStats(BenchmarkData.product(), 4.3, 127L);
+        serialized = serializer.serialize(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(response);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+}
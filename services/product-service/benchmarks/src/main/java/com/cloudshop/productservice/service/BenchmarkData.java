@@ -0,0 +1,75 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.model.Category;
+import com.cloudshop.productservice.model.Product;
+import com.cloudshop.productservice.model.ProductVariant;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Representative catalogue data: a product with a category, several images
+ * and a colour/size variant matrix, as returned by the detail endpoint.
+ */
+public final class BenchmarkData {
+
+    private static final String[] COLORS = {"Black", "White", "Navy", "Red"};
+    private static final String[] SIZES = {"S", "M", "L"};
+
+    private BenchmarkData() {
+    }
+
+    public static Product product() {
+        Instant now = Instant.parse("2026-06-01T12:00:00Z");
+        Category category = Category.builder()
+                .id(UUID.randomUUID())
+                .name("Outerwear")
+                .slug("outerwear")
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        Product product = Product.builder()
+                .id(UUID.randomUUID())
+                .merchantId(UUID.randomUUID())
+                .name("Waterproof Hiking Jacket")
+                .description("Lightweight three-layer shell with taped seams, pit zips and an adjustable hood.")
+                .sku("JKT-HIKE-001")
+                .price(new BigDecimal("149.99"))
+                .categoryId(category.getId())
+                .category(category)
+                .imageUrl("https://cdn.example.com/images/originals/ab/jacket.jpg")
+                .imageUrls(new ArrayList<>(List.of(
+                        "https://cdn.example.com/images/originals/ab/jacket.jpg",
+                        "https://cdn.example.com/images/originals/cd/jacket-back.jpg",
+                        "https://cdn.example.com/images/originals/ef/jacket-hood.jpg")))
+                .isActive(true)
+                .popularityScore(1234.5)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        List<ProductVariant> variants = new ArrayList<>();
+        for (int i = 0; i < COLORS.length; i++) {
+            for (int j = 0; j < SIZES.length; j++) {
+                variants.add(ProductVariant.builder()
+                        .id(UUID.randomUUID())
+                        .product(product)
+                        .sku("JKT-HIKE-001-" + COLORS[i].toUpperCase() + "-" + SIZES[j])
+                        .name(COLORS[i] + " / " + SIZES[j])
+                        .color(COLORS[i])
+                        .size(SIZES[j])
+                        .priceAdjustment(j == 2 ? new BigDecimal("10.00") : BigDecimal.ZERO)
+                        .stockQuantity((i * SIZES.length + j) % 5)
+                        .isAvailable(i != 3)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build());
+            }
+        }
+        product.setVariants(variants);
+        return product;
+    }
+}
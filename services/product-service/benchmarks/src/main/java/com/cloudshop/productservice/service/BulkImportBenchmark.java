@@ -0,0 +1,49 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.ProductRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing one CSV row of a bulk import into a product request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkImportBenchmark {
+
+    private BulkImportService bulkImportService;
+    private String[] row;
+
+    @Setup
+    public void setUp() {
+        bulkImportService = new BulkImportService(null, null, null, null, null, null, null);
+        row = new String[]{
+                "Waterproof Hiking Jacket",
+                "Lightweight three-layer shell with taped seams",
+                "JKT-HIKE-001",
+                "149.99",
+                UUID.randomUUID().toString(),
+                "https://cdn.example.com/images/originals/ab/jacket.jpg"
+        };
+    }
+
+    @Benchmark
+    public ProductRequest parseProductRow() {
+        return bulkImportService.parseProductRow(row);
+    }
+}
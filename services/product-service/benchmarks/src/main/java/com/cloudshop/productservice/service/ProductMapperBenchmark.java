@@ -0,0 +1,48 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping, run for every product on the read path that
+ * misses the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private ProductMapper productMapper;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        productMapper = new ProductMapperImpl();
+        product = BenchmarkData.product();
+    }
+
+    @Benchmark
+    public ProductResponse toProductResponse() {
+        return productMapper.toProductResponse(product);
+    }
+
+    @Benchmark
+    public ProductResponse toProductResponseWithStats() {
+        return productMapper.toProductResponseWithStats(product, 4.3, 127L);
+    }
+}
@@ -0,0 +1,81 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.model.elasticsearch.ProductDocument;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductSearchRequest;
+import com.cloudshop.productservice.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU-bound parts of search and indexing: building the query criteria,
+ * flattening a product into its search document, and mapping a hit back to
+ * a response. None of them touch the service's collaborators, so they run
+ * against a service with no dependencies wired.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchServiceBenchmark {
+
+    private SearchService searchService;
+    private ProductSearchRequest searchRequest;
+    private Product product;
+    private Object[] ratingStats;
+    private Map<UUID, List<UUID>> categoryPaths;
+    private ProductDocument document;
+
+    @Setup
+    public void setUp() {
+        searchService = new SearchService(null, null, null, null, null, null, null, null);
+        searchRequest = ProductSearchRequest.builder()
+                .query("jacket")
+                .categoryIds(List.of(UUID.randomUUID(), UUID.randomUUID()))
+                .minPrice(new BigDecimal("50"))
+                .maxPrice(new BigDecimal("200"))
+                .minRating(4.0)
+                .isActive(true)
+                .variantColor("navy")
+                .variantSize("M")
+                .inStock(true)
+                .build();
+        product = BenchmarkData.product();
+        ratingStats = new Object[]{product.getId(), 4.3, 127L};
+        UUID parentId = UUID.randomUUID();
+        categoryPaths = Map.of(product.getCategoryId(), List.of(parentId, product.getCategoryId()));
+        document = searchService.toProductDocument(product, ratingStats, categoryPaths);
+    }
+
+    @Benchmark
+    public Criteria buildCriteria() {
+        return searchService.buildCriteria(searchRequest);
+    }
+
+    @Benchmark
+    public ProductDocument toProductDocument() {
+        return searchService.toProductDocument(product, ratingStats, categoryPaths);
+    }
+
+    @Benchmark
+    public ProductResponse toProductResponse() {
+        return searchService.toProductResponse(document);
+    }
+}
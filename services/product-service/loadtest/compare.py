@@ -0,0 +1,91 @@
+#!/usr/bin/env python3
+"""Compares two load-test reports of the same scenario.
+
+Prints the p50, p99 and p99.9 latency of every operation in both reports,
+and exits with status 1 when an operation's p99 got worse than the
+threshold allows or more of its requests were shed or failed.
+
+    ./compare.py results/main.json results/browse-servlet.json
+    ./compare.py results/browse-servlet.json results/browse-reactive.json --threshold 5
+"""
+import argparse
+import json
+import sys
+
+UNSUCCESSFUL = ("shed", "errors", "failed", "dropped")
+
+
+def load(path):
+    with open(path) as f:
+        return json.load(f)
+
+
+def unsuccessful(counts):
+    requests = counts["requests"]
+    return sum(counts[key] for key in UNSUCCESSFUL) / requests if requests else 0.0
+
+
+def describe(report):
+    label = report.get("label")
+    return f"{report['target']} ({label})" if label else report["target"]
+
+
+def change(before, after):
+    if before == 0:
+        return 0.0 if after == 0 else float("inf")
+    return (after - before) / before * 100.0
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="allowed p99 increase in percent (default 10)")
+    parser.add_argument("--unsuccessful-threshold", type=float, default=0.5,
+                        help="allowed increase in shed, error, failed and dropped requests,"
+                             " in percentage points (default 0.5)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    # Different versions of a scenario are different workloads
+    for key in ("scenario", "version"):
+        if baseline[key] != current[key]:
+            print(f"Cannot compare {key} {baseline[key]!r} with {current[key]!r}", file=sys.stderr)
+            return 2
+    for key in ("rate", "processors"):
+        if baseline[key] != current[key]:
+            print(f"Warning: {key} differs, {baseline[key]} vs {current[key]}", file=sys.stderr)
+
+    print(f"{baseline['scenario']} v{baseline['version']}: {describe(baseline)} -> {describe(current)}")
+    print(f"{'operation':<10} {'p50 ms':>17} {'p99 ms':>17} {'change':>8} {'p99.9 ms':>17} {'unsuccessful':>15}")
+    regressions = []
+    before_ops, after_ops = baseline["operations"], current["operations"]
+    for name in [name for name in before_ops if name in after_ops]:
+        before, after = before_ops[name], after_ops[name]
+        b, a = before["latencyMillis"], after["latencyMillis"]
+        p99_change = change(b["p99"], a["p99"])
+        unsuccessful_change = (unsuccessful(after) - unsuccessful(before)) * 100.0
+        flag = ""
+        if p99_change > args.threshold or unsuccessful_change > args.unsuccessful_threshold:
+            flag = " <-- REGRESSION"
+            regressions.append(name)
+        print(f"{name:<10} {b['p50']:>8.2f} {a['p50']:>8.2f} {b['p99']:>8.2f} {a['p99']:>8.2f} "
+              f"{p99_change:>+7.1f}% {b['p999']:>8.2f} {a['p999']:>8.2f} "
+              f"{unsuccessful(before) * 100:>6.2f}% {unsuccessful(after) * 100:>6.2f}%{flag}")
+
+    for name in before_ops.keys() - after_ops.keys():
+        print(f"{name:<10} missing from {args.current}")
+    for name in after_ops.keys() - before_ops.keys():
+        print(f"{name:<10} new, no baseline")
+
+    if regressions:
+        print(f"\n{len(regressions)} regression(s) beyond {args.threshold}% p99"
+              f" / {args.unsuccessful_threshold} points unsuccessful")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Builds product-service and the load-test harness, then runs one scenario
+# and writes its latency report.
+#
+#   ./run.sh browse                                    -> results/browse-servlet.json
+#   ./run.sh browse --target reactive                  -> results/browse-reactive.json
+#   ./run.sh search-heavy --out results/main.json      extra arguments are passed to LoadTest
+#   ./run.sh --list                                    prints the scenarios
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+if [ $# -eq 0 ]; then
+    echo "usage: $0 <scenario> [--target servlet|reactive] [--out PATH] [--rate-scale F] [--duration 20s]" \
+        "[--label TEXT] [--set NAME=VALUE] | --list" >&2
+    exit 2
+fi
+
+mvn -B -q -f ../pom.xml install -DskipTests
+mvn -B -q package
+
+java -jar target/loadtest.jar "$@"
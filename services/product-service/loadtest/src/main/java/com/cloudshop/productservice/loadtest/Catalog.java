@@ -0,0 +1,214 @@
+package com.cloudshop.productservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The products, categories and merchants a run's requests refer to. Seeding
+ * is deterministic for a scenario: categories and reviews are inserted
+ * directly, as the service has no API for them, while products are created
+ * through {@code POST /products} so that they are indexed and counted by the
+ * SKU filter as in production.
+ */
+public record Catalog(List<UUID> productIds, List<UUID> categoryIds, List<UUID> merchantIds, List<String> words) {
+
+    private static final String[] ADJECTIVES = {
+            "Classic", "Vintage", "Modern", "Rugged", "Slim", "Cozy", "Premium", "Everyday", "Compact", "Deluxe",
+            "Lightweight", "Organic", "Heritage", "Urban", "Coastal", "Alpine"};
+    private static final String[] MATERIALS = {
+            "Cotton", "Leather", "Wool", "Linen", "Denim", "Bamboo", "Ceramic", "Steel", "Oak", "Canvas",
+            "Silk", "Suede"};
+    private static final String[] NOUNS = {
+            "Shirt", "Jacket", "Backpack", "Wallet", "Mug", "Lamp", "Sneakers", "Scarf", "Watch", "Blanket",
+            "Notebook", "Bottle", "Chair", "Hoodie", "Belt", "Tote", "Kettle", "Pillow", "Sunglasses", "Boots"};
+    private static final String[] COLORS = {"Black", "White", "Navy", "Olive", "Sand", "Burgundy"};
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL"};
+
+    private static final int SEED_CONCURRENCY = 16;
+
+    /**
+     * Picks with a power-law skew: with {@code skew} 3 the first tenth of the
+     * list gets close to half of the picks, as popular products do.
+     */
+    public static <T> T pick(List<T> values, Random random, double skew) {
+        return values.get((int) (values.size() * Math.pow(random.nextDouble(), skew)));
+    }
+
+    public static Catalog seed(Scenario scenario, JdbcTemplate jdbcTemplate, HttpClient client, URI servletUri)
+            throws IOException, InterruptedException {
+        Random random = new Random(scenario.name().hashCode());
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        List<UUID> categoryIds = new ArrayList<>();
+        List<Object[]> categoryRows = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 0; i < scenario.categories(); i++) {
+            UUID id = uuid(random);
+            categoryIds.add(id);
+            String name = NOUNS[i % NOUNS.length] + (i < NOUNS.length ? "" : " " + (i / NOUNS.length + 1));
+            categoryRows.add(new Object[]{id, name, "category-" + i, now, now, true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name, slug, created_at, updated_at, is_active) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", categoryRows);
+
+        List<UUID> merchantIds = new ArrayList<>();
+        for (int i = 0; i < scenario.merchants(); i++) {
+            merchantIds.add(uuid(random));
+        }
+
+        List<Map<String, Object>> requests = new ArrayList<>();
+        List<UUID> owners = new ArrayList<>();
+        for (int i = 0; i < scenario.products(); i++) {
+            requests.add(productRequest(random, "LT-" + i, categoryIds, i));
+            // A few large merchants own most of the catalog
+            owners.add(pick(merchantIds, random, 2));
+        }
+        List<UUID> productIds = createProducts(requests, owners, objectMapper, client, servletUri);
+
+        List<Object[]> reviewRows = new ArrayList<>();
+        for (UUID productId : productIds) {
+            if (random.nextDouble() < 0.6) {
+                int reviews = 1 + random.nextInt(8);
+                for (int i = 0; i < reviews; i++) {
+                    reviewRows.add(new Object[]{uuid(random), productId, uuid(random), 1 + random.nextInt(5),
+                            random.nextBoolean(), now, now, random.nextDouble() < 0.95});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (id, product_id, user_id, rating, is_verified_purchase, "
+                + "created_at, updated_at, is_visible) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", reviewRows);
+
+        List<String> words = new ArrayList<>();
+        for (String[] group : List.of(ADJECTIVES, MATERIALS, NOUNS)) {
+            Collections.addAll(words, group);
+        }
+        return new Catalog(List.copyOf(productIds), List.copyOf(categoryIds), List.copyOf(merchantIds), List.copyOf(words));
+    }
+
+    /**
+     * A CSV for {@code POST /products/bulk-import}, in the column order of
+     * {@code BulkImportService}: name, description, sku, price, categoryId, imageUrl.
+     */
+    public String importFile(Random random, int rows, long batch) {
+        StringBuilder csv = new StringBuilder("name,description,sku,price,categoryId,imageUrl\n");
+        for (int i = 0; i < rows; i++) {
+            String name = name(random);
+            csv.append(name).append(',')
+                    .append('"').append(description(name)).append('"').append(',')
+                    .append("LT-IMPORT-").append(batch).append('-').append(i).append(',')
+                    .append(price(random)).append(',')
+                    .append(categoryIds.get(random.nextInt(categoryIds.size()))).append(',')
+                    .append("https://cdn.example.com/products/import-").append(batch).append('-').append(i).append(".jpg")
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static List<UUID> createProducts(List<Map<String, Object>> requests, List<UUID> owners,
+                                             ObjectMapper objectMapper, HttpClient client, URI servletUri)
+            throws IOException, InterruptedException {
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        List<Future<UUID>> created = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests.size(); i++) {
+                byte[] body = objectMapper.writeValueAsBytes(requests.get(i));
+                UUID merchantId = owners.get(i);
+                permits.acquire();
+                created.add(executor.submit(() -> {
+                    try {
+                        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(servletUri.resolve("/api/v1/products"))
+                                        .header("Content-Type", "application/json")
+                                        .header("X-Merchant-Id", merchantId.toString())
+                                        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                                        .build(),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 201) {
+                            throw new IllegalStateException("Creating a product returned " + response.statusCode()
+                                    + ": " + new String(response.body()));
+                        }
+                        JsonNode product = objectMapper.readTree(response.body());
+                        return UUID.fromString(product.get("id").asText());
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (Future<UUID> future : created) {
+            try {
+                ids.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding products failed", e.getCause());
+            }
+        }
+        return ids;
+    }
+
+    private static Map<String, Object> productRequest(Random random, String sku, List<UUID> categoryIds, int index) {
+        String name = name(random);
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("name", name);
+        request.put("description", description(name));
+        request.put("sku", sku);
+        request.put("price", price(random));
+        request.put("categoryId", pick(categoryIds, random, 1.5));
+        request.put("imageUrl", "https://cdn.example.com/products/" + sku + ".jpg");
+        request.put("imageUrls", List.of(
+                "https://cdn.example.com/products/" + sku + "-1.jpg",
+                "https://cdn.example.com/products/" + sku + "-2.jpg"));
+        List<Map<String, Object>> variants = new ArrayList<>();
+        int count = index % 4;
+        for (int i = 0; i < count; i++) {
+            variants.add(Map.of(
+                    "sku", sku + "-V" + i,
+                    "name", name + " " + SIZES[i % SIZES.length],
+                    "size", SIZES[i % SIZES.length],
+                    "color", COLORS[random.nextInt(COLORS.length)],
+                    "priceAdjustment", BigDecimal.valueOf(i * 2),
+                    "stockQuantity", random.nextInt(5) == 0 ? 0 : random.nextInt(200)));
+        }
+        request.put("variants", variants);
+        return request;
+    }
+
+    private static String name(Random random) {
+        return ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                + MATERIALS[random.nextInt(MATERIALS.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)];
+    }
+
+    private static String description(String name) {
+        return name + ", made to last. Pairs with the rest of the collection and ships in recycled packaging.";
+    }
+
+    private static BigDecimal price(Random random) {
+        return BigDecimal.valueOf(499 + random.nextInt(25_000), 2);
+    }
+
+    private static UUID uuid(Random random) {
+        return new UUID(random.nextLong() & ~0xF000L | 0x4000L, random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L);
+    }
+}
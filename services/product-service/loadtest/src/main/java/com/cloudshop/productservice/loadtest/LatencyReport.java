@@ -0,0 +1,183 @@
+package com.cloudshop.productservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and outcome counts of one run.
+ * Latencies are in microseconds from each request's scheduled start, so a
+ * request that waited behind a slow one is charged for the wait.
+ */
+public class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    public LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    /**
+     * A response: 2xx and 3xx count as ok, 503 as shed by admission control
+     * and anything else as an error.
+     */
+    public void recordResponse(Operation operation, long latencyNanos, int status) {
+        Stats operationStats = stats.get(operation);
+        operationStats.recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, latencyNanos / 1000));
+        if (status < 400) {
+            operationStats.ok.increment();
+        } else if (status == 503) {
+            operationStats.shed.increment();
+        } else {
+            operationStats.errors.increment();
+        }
+    }
+
+    /**
+     * A request that got no response: a timeout or connection error.
+     */
+    public void recordFailure(Operation operation) {
+        stats.get(operation).failed.increment();
+    }
+
+    /**
+     * A request that was not sent because too many were outstanding.
+     */
+    public void recordDropped(Operation operation) {
+        stats.get(operation).dropped.increment();
+    }
+
+    public Result result(Scenario scenario, String target, String label, Instant startedAt) {
+        Map<Operation, OperationResult> operations = new EnumMap<>(Operation.class);
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        OperationResult total = new OperationResult(all, 0, 0, 0, 0, 0);
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            Histogram histogram = operationStats.recorder.getIntervalHistogram();
+            OperationResult result = new OperationResult(histogram, operationStats.ok.sum(), operationStats.shed.sum(),
+                    operationStats.errors.sum(), operationStats.failed.sum(), operationStats.dropped.sum());
+            if (result.requests() > 0) {
+                operations.put(entry.getKey(), result);
+                all.add(histogram);
+                total = total.plus(result);
+            }
+        }
+        return new Result(scenario, target, label, startedAt, operations, total);
+    }
+
+    private static final class Stats {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+    }
+
+    public record OperationResult(Histogram histogram, long ok, long shed, long errors, long failed, long dropped) {
+
+        public long requests() {
+            return ok + shed + errors + failed + dropped;
+        }
+
+        OperationResult plus(OperationResult other) {
+            return new OperationResult(histogram, ok + other.ok, shed + other.shed, errors + other.errors,
+                    failed + other.failed, dropped + other.dropped);
+        }
+
+        double millis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    public record Result(Scenario scenario, String target, String label, Instant startedAt,
+                         Map<Operation, OperationResult> operations, OperationResult total) {
+
+        public void print(PrintStream out) {
+            out.printf("%n%s v%d against the %s port, %.0f req/s for %ds%n", scenario.name(), scenario.version(),
+                    target, scenario.rate(), scenario.duration().toSeconds());
+            out.printf("%-10s %9s %9s %7s %7s %7s %8s %10s %10s %10s %10s %10s%n", "operation", "requests", "ok",
+                    "shed", "errors", "failed", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            operations.forEach((operation, result) -> printRow(out, operation.name(), result));
+            printRow(out, "ALL", total);
+        }
+
+        private static void printRow(PrintStream out, String name, OperationResult result) {
+            out.printf("%-10s %9d %9d %7d %7d %7d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n", name, result.requests(),
+                    result.ok(), result.shed(), result.errors(), result.failed(), result.dropped(),
+                    result.millis(50), result.millis(90), result.millis(99), result.millis(99.9),
+                    result.histogram().getMaxValue() / 1000.0);
+        }
+
+        /**
+         * Writes the summary as JSON, with each histogram in HdrHistogram's
+         * compressed Base64 form so that later tooling can recompute any
+         * percentile.
+         */
+        public void write(Path path) throws IOException {
+            ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            ObjectNode root = objectMapper.createObjectNode()
+                    .put("scenario", scenario.name())
+                    .put("version", scenario.version())
+                    .put("description", scenario.description())
+                    .put("target", target)
+                    .put("label", label)
+                    .put("startedAt", startedAt.toString())
+                    .put("java", System.getProperty("java.version"))
+                    .put("processors", Runtime.getRuntime().availableProcessors())
+                    .put("rate", scenario.rate())
+                    .put("warmupSeconds", scenario.warmup().toSeconds())
+                    .put("durationSeconds", scenario.duration().toSeconds())
+                    .put("achievedRate", (total.requests() - total.dropped()) / (scenario.duration().toMillis() / 1000.0));
+            ObjectNode operationsNode = root.putObject("operations");
+            operations.forEach((operation, result) -> write(operationsNode.putObject(operation.name()), result));
+            write(operationsNode.putObject("ALL"), total);
+
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            objectMapper.writeValue(path.toFile(), root);
+        }
+
+        private static void write(ObjectNode node, OperationResult result) {
+            node.put("requests", result.requests())
+                    .put("ok", result.ok())
+                    .put("shed", result.shed())
+                    .put("errors", result.errors())
+                    .put("failed", result.failed())
+                    .put("dropped", result.dropped());
+            ObjectNode latency = node.putObject("latencyMillis");
+            latency.put("mean", result.histogram().getMean() / 1000.0);
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + (percentile == Math.rint(percentile)
+                        ? String.valueOf((long) percentile)
+                        : String.valueOf(percentile).replace(".", "")), result.millis(percentile));
+            }
+            latency.put("max", result.histogram().getMaxValue() / 1000.0);
+            ByteBuffer buffer = ByteBuffer.allocate(result.histogram().getNeededByteBufferCapacity());
+            int length = result.histogram().encodeIntoCompressedByteBuffer(buffer);
+            node.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        }
+    }
+}
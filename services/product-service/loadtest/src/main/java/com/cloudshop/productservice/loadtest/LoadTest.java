@@ -0,0 +1,102 @@
+package com.cloudshop.productservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs one scenario: starts product-service against local stand-ins, seeds
+ * the catalog, applies the load and writes the latency report.
+ *
+ * <pre>
+ *   java -jar target/loadtest.jar browse
+ *   java -jar target/loadtest.jar search-heavy --target reactive --out results/search-heavy-reactive.json
+ *   java -jar target/loadtest.jar browse --rate-scale 2 --set app.admission.capacity=400
+ * </pre>
+ *
+ * Options:
+ * <ul>
+ *   <li>{@code --target servlet|reactive}: where reads are sent; imports always use the servlet port</li>
+ *   <li>{@code --out PATH}: JSON report, by default {@code results/<scenario>-<target>.json}</li>
+ *   <li>{@code --rate-scale FACTOR}: multiplies the scenario's rate</li>
+ *   <li>{@code --duration 20s}: shortens the run, for checking the harness rather than the service</li>
+ *   <li>{@code --label TEXT}: recorded in the report, e.g. the release being tested</li>
+ *   <li>{@code --set NAME=VALUE}: a service property, repeatable</li>
+ *   <li>{@code --list}: prints the scenarios</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || args[0].equals("--list")) {
+            Scenarios.ALL.forEach(scenario -> System.out.printf("%-22s v%d  %.0f req/s  %s%n", scenario.name(),
+                    scenario.version(), scenario.rate(), scenario.description()));
+            return;
+        }
+
+        Scenario scenario = Scenarios.named(args[0]);
+        String target = "servlet";
+        String label = null;
+        Path out = null;
+        List<String> properties = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--target" -> target = value;
+                case "--out" -> out = Path.of(value);
+                case "--rate-scale" -> scenario = scenario.scaled(Double.parseDouble(value));
+                case "--duration" -> scenario = scenario.shortened(Duration.parse("PT" + value.toUpperCase(Locale.ROOT)));
+                case "--label" -> label = value;
+                case "--set" -> properties.add(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            i++;
+        }
+        if (!target.equals("servlet") && !target.equals("reactive")) {
+            throw new IllegalArgumentException("--target must be servlet or reactive: " + target);
+        }
+        if (out == null) {
+            out = Path.of("results", scenario.name() + "-" + target + ".json");
+        }
+
+        System.out.printf("Starting product-service for %s v%d%n", scenario.name(), scenario.version());
+        boolean reactive = target.equals("reactive");
+        try (ProductServiceStack stack = ProductServiceStack.start(scenario.searchLatency(), reactive, properties);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+
+            long seedStart = System.nanoTime();
+            Catalog catalog = Catalog.seed(scenario, stack.getJdbcTemplate(), client, stack.getServletUri());
+            System.out.printf("Seeded %d products in %d categories in %ds%n", catalog.productIds().size(),
+                    catalog.categoryIds().size(), Duration.ofNanos(System.nanoTime() - seedStart).toSeconds());
+
+            URI readUri = reactive ? stack.getReactiveUri() : stack.getServletUri();
+            Workload workload = new Workload(scenario, catalog, stack.getServletUri(), readUri);
+            System.out.printf("Warming up for %ds, then recording for %ds at %.0f req/s%n",
+                    scenario.warmup().toSeconds(), scenario.duration().toSeconds(), scenario.rate());
+            Instant startedAt = Instant.now();
+            LatencyReport report = new OpenLoopDriver(client, workload, scenario).run();
+
+            LatencyReport.Result result = report.result(scenario, target, label, startedAt);
+            result.print(System.out);
+            result.write(out);
+            System.out.println("Results written to " + out);
+        }
+        // Spring and client threads may still be winding down
+        System.exit(0);
+    }
+}
@@ -0,0 +1,82 @@
+package com.cloudshop.productservice.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts requests on a fixed schedule, {@code 1 / rate} apart, whether or
+ * not earlier ones have completed. A closed loop that waits for each
+ * response slows down with the service and hides its worst latencies;
+ * measuring from the scheduled start instead of the actual send also
+ * charges the driver's own hiccups to the request that suffered them.
+ */
+public class OpenLoopDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final Scenario scenario;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public OpenLoopDriver(HttpClient client, Workload workload, Scenario scenario) {
+        this.client = client;
+        this.workload = workload;
+        this.scenario = scenario;
+    }
+
+    /**
+     * Runs the warmup, whose requests are sent but not recorded, then the
+     * recorded load, and waits for outstanding requests to finish.
+     */
+    public LatencyReport run() throws InterruptedException {
+        LatencyReport report = new LatencyReport();
+        double intervalNanos = 1e9 / scenario.rate();
+        long start = System.nanoTime();
+        long recordFrom = start + scenario.warmup().toNanos();
+        long end = recordFrom + scenario.duration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + (long) (i * intervalNanos);
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Workload.Request request = workload.next();
+            boolean recorded = scheduled >= recordFrom;
+            if (inFlight.get() >= scenario.maxInFlight()) {
+                if (recorded) {
+                    report.recordDropped(request.operation());
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(request.httpRequest(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - scheduled;
+                        inFlight.decrementAndGet();
+                        if (!recorded) {
+                            return;
+                        }
+                        if (response != null) {
+                            report.recordResponse(request.operation(), latency, response.statusCode());
+                        } else {
+                            report.recordFailure(request.operation());
+                        }
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cloudshop.productservice.loadtest;
+
+/**
+ * The kinds of request a scenario mixes. Reads can be sent to the reactive
+ * read port; imports always go to the servlet port.
+ */
+public enum Operation {
+
+    /** {@code GET /products/{id}}, skewed towards a small set of popular products. */
+    DETAIL(true),
+
+    /** {@code GET /products}, mostly the first few pages, some sorted by price or popularity. */
+    LISTING(true),
+
+    /** {@code GET /products/category/{id}}. */
+    CATEGORY(true),
+
+    /** {@code GET /products/search} for a word of product names, some with filters. */
+    SEARCH(true),
+
+    /** {@code POST /products/bulk-import} of a CSV of new products. */
+    IMPORT(false);
+
+    private final boolean read;
+
+    Operation(boolean read) {
+        this.read = read;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+}
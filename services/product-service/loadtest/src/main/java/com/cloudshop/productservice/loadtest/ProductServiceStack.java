@@ -0,0 +1,127 @@
+package com.cloudshop.productservice.loadtest;
+
+import com.cloudshop.productservice.ProductServiceApplication;
+import com.cloudshop.productservice.config.ReactiveReadServer;
+import com.cloudshop.productservice.loadtest.standin.InMemoryRedis;
+import com.cloudshop.productservice.loadtest.standin.StubElasticsearch;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * product-service running in this JVM against local stand-ins: an in-memory
+ * H2 database in PostgreSQL mode (shared by the JDBC pool and, when enabled,
+ * the reactive port's R2DBC pool), {@link InMemoryRedis} and
+ * {@link StubElasticsearch}. There is no Kafka stand-in, so product view
+ * events and the popularity consumer are switched off. Beyond pointing it at
+ * the stand-ins, the service runs with its own packaged configuration, so a
+ * startup defect in the jar fails the load test too.
+ */
+public class ProductServiceStack implements AutoCloseable {
+
+    private static final String H2_OPTIONS = "MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;"
+            + "DB_CLOSE_DELAY=-1";
+
+    private final InMemoryRedis redis;
+    private final StubElasticsearch elasticsearch;
+    private final ConfigurableApplicationContext context;
+    private final URI servletUri;
+    private final URI reactiveUri;
+
+    private ProductServiceStack(InMemoryRedis redis, StubElasticsearch elasticsearch,
+                                ConfigurableApplicationContext context, boolean reactiveReads) {
+        this.redis = redis;
+        this.elasticsearch = elasticsearch;
+        this.context = context;
+        this.servletUri = URI.create("http://localhost:"
+                + ((WebServerApplicationContext) context).getWebServer().getPort());
+        this.reactiveUri = reactiveReads
+                ? URI.create("http://localhost:" + context.getBean(ReactiveReadServer.class).getPort())
+                : null;
+    }
+
+    /**
+     * @param reactiveReads also start the reactive read port
+     * @param properties    extra {@code name=value} service properties, which take precedence
+     */
+    public static ProductServiceStack start(Duration searchLatency, boolean reactiveReads, List<String> properties)
+            throws IOException {
+        InMemoryRedis redis = new InMemoryRedis();
+        StubElasticsearch elasticsearch = new StubElasticsearch(searchLatency);
+        Path images = Files.createTempDirectory("loadtest-images");
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;" + H2_OPTIONS
+                        + ";INIT=CREATE DOMAIN IF NOT EXISTS jsonb AS JSON",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                // Overrides application.yml's PostgreSQLDialect, which binds jsonb as text
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.data.redis.host=localhost",
+                "--spring.data.redis.port=" + redis.getPort(),
+                "--spring.elasticsearch.uris=" + elasticsearch.getUri(),
+                "--app.kafka.view-events.enabled=false",
+                "--app.popularity.enabled=false",
+                // Its bucket checksums are a PostgreSQL query
+                "--app.search.reconcile.enabled=false",
+                "--app.images.local.root=" + images,
+                "--app.reactive-reads.enabled=" + reactiveReads,
+                "--app.reactive-reads.port=0",
+                "--app.reactive-reads.url=r2dbc:h2:mem:///loadtest?options=" + H2_OPTIONS,
+                "--app.reactive-reads.username=sa",
+                "--app.reactive-reads.password=",
+                "--logging.level.root=WARN",
+                "--logging.level.com.cloudshop.productservice=WARN"));
+        properties.forEach(property -> args.add("--" + property));
+
+        ConfigurableApplicationContext context;
+        try {
+            context = SpringApplication.run(ProductServiceApplication.class, args.toArray(String[]::new));
+        } catch (RuntimeException e) {
+            redis.close();
+            elasticsearch.close();
+            throw e;
+        }
+        return new ProductServiceStack(redis, elasticsearch, context, reactiveReads);
+    }
+
+    public URI getServletUri() {
+        return servletUri;
+    }
+
+    /**
+     * The reactive read port, or null when it was not started.
+     */
+    public URI getReactiveUri() {
+        return reactiveUri;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return new JdbcTemplate(context.getBean(DataSource.class));
+    }
+
+    public StubElasticsearch getElasticsearch() {
+        return elasticsearch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        elasticsearch.close();
+        redis.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.cloudshop.productservice.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A repeatable load pattern. Requests start at a fixed rate whatever the
+ * service's response times (open loop), and each one picks its operation by
+ * the weights of {@code mix}. Results carry the scenario's name and version,
+ * and runs are only compared at the same version: change anything here and
+ * the version is bumped.
+ *
+ * @param products      products created before the run, over {@code categories} categories and {@code merchants} merchants
+ * @param rate          requests started per second
+ * @param warmup        load applied before recording, to warm caches, pools and the JIT
+ * @param duration      recorded load
+ * @param maxInFlight   outstanding requests beyond which new ones are counted as dropped instead of sent
+ * @param searchLatency time the Elasticsearch stand-in takes to answer each search
+ * @param importRows    rows per bulk import file
+ * @param fields        sparse fieldset on listing and search requests, or null for full documents
+ */
+public record Scenario(String name,
+                       int version,
+                       String description,
+                       int products,
+                       int categories,
+                       int merchants,
+                       double rate,
+                       Duration warmup,
+                       Duration duration,
+                       int maxInFlight,
+                       Duration searchLatency,
+                       int importRows,
+                       String fields,
+                       Map<Operation, Integer> mix) {
+
+    public Scenario {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+        if (mix.isEmpty() || mix.values().stream().anyMatch(weight -> weight < 0)) {
+            throw new IllegalArgumentException("Mix needs at least one operation and no negative weights: " + mix);
+        }
+        mix = new EnumMap<>(mix);
+    }
+
+    /**
+     * The same scenario at {@code factor} times the rate, e.g. to find where
+     * latency degrades. Results record the rate, so scaled runs are not
+     * mistaken for the scenario's own.
+     */
+    public Scenario scaled(double factor) {
+        return new Scenario(name, version, description, products, categories, merchants, rate * factor,
+                warmup, duration, maxInFlight, searchLatency, importRows, fields, mix);
+    }
+
+    /**
+     * The same scenario with its warmup and recorded load shortened to
+     * {@code duration}, for a quick check of the harness itself.
+     */
+    public Scenario shortened(Duration duration) {
+        return new Scenario(name, version, description, products, categories, merchants, rate,
+                duration.dividedBy(2), duration, maxInFlight, searchLatency, importRows, fields, mix);
+    }
+}
@@ -0,0 +1,68 @@
+package com.cloudshop.productservice.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.cloudshop.productservice.loadtest.Operation.CATEGORY;
+import static com.cloudshop.productservice.loadtest.Operation.DETAIL;
+import static com.cloudshop.productservice.loadtest.Operation.IMPORT;
+import static com.cloudshop.productservice.loadtest.Operation.LISTING;
+import static com.cloudshop.productservice.loadtest.Operation.SEARCH;
+
+/**
+ * The scenarios run before each release. Bump a scenario's version whenever
+ * any of its values change, so that results from before and after are never
+ * compared as if they were the same load.
+ */
+public final class Scenarios {
+
+    /**
+     * Storefront browsing: mostly product pages, the rest listings and
+     * searches, all returning full documents.
+     */
+    public static final Scenario BROWSE = new Scenario(
+            "browse", 1,
+            "Storefront browsing with full documents",
+            5_000, 40, 50,
+            200, Duration.ofSeconds(30), Duration.ofMinutes(2), 2_000,
+            Duration.ofMillis(8), 100, null,
+            Map.of(DETAIL, 55, LISTING, 15, CATEGORY, 15, SEARCH, 15));
+
+    /**
+     * Search-driven traffic rendering product cards, so listings and searches
+     * ask for the card fieldset.
+     */
+    public static final Scenario SEARCH_HEAVY = new Scenario(
+            "search-heavy", 1,
+            "Search results and listings as product cards",
+            5_000, 40, 50,
+            200, Duration.ofSeconds(30), Duration.ofMinutes(2), 2_000,
+            Duration.ofMillis(8), 100, "card",
+            Map.of(SEARCH, 60, DETAIL, 25, LISTING, 10, CATEGORY, 5));
+
+    /**
+     * Browsing while merchants upload catalogs: about one 100-row import a
+     * second, whose writes evict the product caches the reads depend on.
+     */
+    public static final Scenario IMPORT_DURING_BROWSE = new Scenario(
+            "import-during-browse", 1,
+            "Storefront browsing alongside merchant bulk imports",
+            5_000, 40, 50,
+            200, Duration.ofSeconds(30), Duration.ofMinutes(2), 2_000,
+            Duration.ofMillis(8), 100, null,
+            Map.of(DETAIL, 110, LISTING, 30, CATEGORY, 30, SEARCH, 29, IMPORT, 1));
+
+    public static final List<Scenario> ALL = List.of(BROWSE, SEARCH_HEAVY, IMPORT_DURING_BROWSE);
+
+    private Scenarios() {
+    }
+
+    public static Scenario named(String name) {
+        return ALL.stream()
+                .filter(scenario -> scenario.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario " + name + ", expected one of "
+                        + ALL.stream().map(Scenario::name).toList()));
+    }
+}
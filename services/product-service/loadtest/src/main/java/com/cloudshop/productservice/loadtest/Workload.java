@@ -0,0 +1,142 @@
+package com.cloudshop.productservice.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Turns a scenario's mix into requests. Only the driver thread calls
+ * {@link #next()}, so one seeded {@link Random} makes the sequence of
+ * requests the same on every run of a scenario.
+ */
+public class Workload {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final Scenario scenario;
+    private final Catalog catalog;
+    private final URI servletUri;
+    private final URI readUri;
+    private final Random random;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private long imports;
+
+    /**
+     * @param readUri where reads are sent: the servlet port or the reactive read port
+     */
+    public Workload(Scenario scenario, Catalog catalog, URI servletUri, URI readUri) {
+        this.scenario = scenario;
+        this.catalog = catalog;
+        this.servletUri = servletUri;
+        this.readUri = readUri;
+        this.random = new Random(scenario.name().hashCode() * 31L + scenario.version());
+
+        List<Map.Entry<Operation, Integer>> weighted = new ArrayList<>(scenario.mix().entrySet());
+        weighted.removeIf(entry -> entry.getValue() == 0);
+        this.operations = new Operation[weighted.size()];
+        this.cumulativeWeights = new int[weighted.size()];
+        int total = 0;
+        for (int i = 0; i < weighted.size(); i++) {
+            operations[i] = weighted.get(i).getKey();
+            total += weighted.get(i).getValue();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public record Request(Operation operation, HttpRequest httpRequest) {
+    }
+
+    public Request next() {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (roll >= cumulativeWeights[i]) {
+            i++;
+        }
+        Operation operation = operations[i];
+        return new Request(operation, switch (operation) {
+            case DETAIL -> read("/api/v1/products/" + Catalog.pick(catalog.productIds(), random, 3));
+            case LISTING -> listing();
+            case CATEGORY -> read("/api/v1/products/category/" + Catalog.pick(catalog.categoryIds(), random, 1.5)
+                    + "?page=" + (int) (5 * Math.pow(random.nextDouble(), 3)) + "&size=20" + fields("&"));
+            case SEARCH -> search();
+            case IMPORT -> bulkImport();
+        });
+    }
+
+    /**
+     * Most visitors stay on the first pages; a few sort by price or popularity.
+     */
+    private HttpRequest listing() {
+        StringBuilder path = new StringBuilder("/api/v1/products?page=")
+                .append((int) (10 * Math.pow(random.nextDouble(), 3)))
+                .append("&size=20");
+        double sort = random.nextDouble();
+        if (sort < 0.15) {
+            path.append("&sortBy=price&sortDirection=ASC");
+        } else if (sort < 0.3) {
+            path.append("&sortBy=popularity&sortDirection=DESC");
+        }
+        return read(path.append(fields("&")).toString());
+    }
+
+    /**
+     * A word of product names; some searches narrowed by category or price.
+     * Single words only: the search criteria reject text with whitespace and
+     * the database fallback then fails too, so multi-word queries would
+     * measure that error path.
+     */
+    private HttpRequest search() {
+        List<String> words = catalog.words();
+        String query = words.get(random.nextInt(words.size()));
+        StringBuilder path = new StringBuilder("/api/v1/products/search?query=")
+                .append(URLEncoder.encode(query, StandardCharsets.UTF_8));
+        double filter = random.nextDouble();
+        if (filter < 0.25) {
+            path.append("&categoryId=").append(Catalog.pick(catalog.categoryIds(), random, 1.5));
+        } else if (filter < 0.4) {
+            int min = 10 * random.nextInt(10);
+            path.append("&minPrice=").append(min).append("&maxPrice=").append(min + 50);
+        }
+        path.append("&page=").append(random.nextDouble() < 0.85 ? 0 : 1 + random.nextInt(3)).append("&size=20");
+        return read(path.append(fields("&")).toString());
+    }
+
+    private HttpRequest bulkImport() {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        long batch = imports++;
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"import-" + batch + ".csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + catalog.importFile(random, scenario.importRows(), batch) + "\r\n"
+                + "--" + boundary + "--\r\n";
+        return HttpRequest.newBuilder(servletUri.resolve("/api/v1/products/bulk-import"))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .header("X-Merchant-Id", Catalog.pick(catalog.merchantIds(), random, 2).toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private HttpRequest read(String path) {
+        return HttpRequest.newBuilder(readUri.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .header("X-Session-Id", "loadtest-" + random.nextInt(10_000))
+                .GET()
+                .build();
+    }
+
+    private String fields(String separator) {
+        return scenario.fields() != null
+                ? separator + "fields=" + URLEncoder.encode(scenario.fields(), StandardCharsets.UTF_8)
+                : "";
+    }
+}
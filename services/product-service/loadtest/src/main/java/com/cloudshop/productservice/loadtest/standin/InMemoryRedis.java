@@ -0,0 +1,491 @@
+package com.cloudshop.productservice.loadtest.standin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * A single-node, in-memory server speaking the RESP2 subset product-service
+ * sends through Lettuce: strings with expiry for the Spring caches, hashes
+ * for the product read model, key scans for cache clears and pub/sub for the
+ * second-level cache and SKU filter broadcasts. Anything else is answered
+ * with an error, which shows up in the service log rather than silently
+ * skewing a run.
+ */
+public class InMemoryRedis implements AutoCloseable {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final ServerSocket serverSocket;
+
+    public InMemoryRedis() throws IOException {
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread.ofPlatform().name("redis-standin-accept").daemon().start(this::accept);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                connections.execute(() -> serve(connection));
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+
+    private void serve(Connection connection) {
+        try (connection) {
+            while (true) {
+                List<byte[]> command = connection.readCommand();
+                if (command.isEmpty()) {
+                    continue;
+                }
+                try {
+                    execute(connection, command);
+                } catch (RuntimeException e) {
+                    // Wrong number or format of arguments
+                    connection.error("ERR " + e);
+                }
+                connection.flush();
+            }
+        } catch (EOFException e) {
+            // Client disconnected
+        } catch (IOException e) {
+            // Connection reset or server closed
+        } finally {
+            subscribers.values().forEach(channel -> channel.remove(connection));
+        }
+    }
+
+    private void execute(Connection out, List<byte[]> command) throws IOException {
+        String name = string(command.get(0)).toUpperCase(Locale.ROOT);
+        List<byte[]> args = command.subList(1, command.size());
+        switch (name) {
+            case "PING" -> out.simple("PONG");
+            case "HELLO" -> out.error("ERR unknown command 'HELLO'");
+            case "CLIENT", "SELECT", "AUTH", "READONLY" -> out.simple("OK");
+            case "INFO" -> out.bulk("# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            case "GET" -> out.bulk(bytes(args.get(0)));
+            case "MGET" -> {
+                out.arrayHeader(args.size());
+                for (byte[] key : args) {
+                    out.bulk(bytes(key));
+                }
+            }
+            case "SET" -> set(out, args);
+            case "SETEX", "PSETEX" -> {
+                long ttl = Long.parseLong(string(args.get(1)));
+                put(args.get(0), new Entry(args.get(2), deadline(name.equals("SETEX") ? ttl * 1000 : ttl)));
+                out.simple("OK");
+            }
+            case "DEL", "UNLINK" -> {
+                int removed = 0;
+                for (byte[] key : args) {
+                    removed += data.remove(string(key)) != null ? 1 : 0;
+                }
+                out.integer(removed);
+            }
+            case "EXISTS" -> out.integer(args.stream().filter(key -> entry(key) != null).count());
+            case "EXPIRE", "PEXPIRE" -> {
+                long ttl = Long.parseLong(string(args.get(1)));
+                Entry entry = entry(args.get(0));
+                if (entry != null) {
+                    data.put(string(args.get(0)), entry.withDeadline(deadline(name.equals("EXPIRE") ? ttl * 1000 : ttl)));
+                }
+                out.integer(entry != null ? 1 : 0);
+            }
+            case "TTL", "PTTL" -> {
+                Entry entry = entry(args.get(0));
+                if (entry == null) {
+                    out.integer(-2);
+                } else if (entry.deadline() == 0) {
+                    out.integer(-1);
+                } else {
+                    long millis = Math.max(0, entry.deadline() - System.currentTimeMillis());
+                    out.integer(name.equals("TTL") ? millis / 1000 : millis);
+                }
+            }
+            case "HSET", "HMSET" -> {
+                Map<String, byte[]> hash = hash(args.get(0), true);
+                int added = 0;
+                for (int i = 1; i + 1 < args.size(); i += 2) {
+                    added += hash.put(string(args.get(i)), args.get(i + 1)) == null ? 1 : 0;
+                }
+                if (name.equals("HSET")) {
+                    out.integer(added);
+                } else {
+                    out.simple("OK");
+                }
+            }
+            case "HGET" -> {
+                Map<String, byte[]> hash = hash(args.get(0), false);
+                out.bulk(hash != null ? hash.get(string(args.get(1))) : null);
+            }
+            case "HMGET" -> {
+                Map<String, byte[]> hash = hash(args.get(0), false);
+                out.arrayHeader(args.size() - 1);
+                for (byte[] field : args.subList(1, args.size())) {
+                    out.bulk(hash != null ? hash.get(string(field)) : null);
+                }
+            }
+            case "HGETALL" -> {
+                Map<String, byte[]> hash = hash(args.get(0), false);
+                Map<String, byte[]> fields = hash != null ? Map.copyOf(hash) : Map.of();
+                out.arrayHeader(fields.size() * 2);
+                for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+                    out.bulk(field.getKey().getBytes(StandardCharsets.ISO_8859_1));
+                    out.bulk(field.getValue());
+                }
+            }
+            case "HDEL" -> {
+                Map<String, byte[]> hash = hash(args.get(0), false);
+                int removed = 0;
+                for (byte[] field : args.subList(1, args.size())) {
+                    removed += hash != null && hash.remove(string(field)) != null ? 1 : 0;
+                }
+                out.integer(removed);
+            }
+            case "KEYS" -> {
+                List<String> keys = keys(string(args.get(0)));
+                out.arrayHeader(keys.size());
+                for (String key : keys) {
+                    out.bulk(key.getBytes(StandardCharsets.ISO_8859_1));
+                }
+            }
+            case "SCAN" -> scan(out, args);
+            case "PUBLISH" -> {
+                Set<Connection> receivers = subscribers.getOrDefault(string(args.get(0)), Set.of());
+                for (Connection receiver : receivers) {
+                    receiver.push(args.get(0), args.get(1));
+                }
+                out.integer(receivers.size());
+            }
+            case "SUBSCRIBE" -> {
+                for (byte[] channel : args) {
+                    Set<Connection> channelSubscribers = subscribers.computeIfAbsent(string(channel),
+                            key -> new CopyOnWriteArraySet<>());
+                    channelSubscribers.add(out);
+                    out.subscription("subscribe", channel, out.subscriptions.incrementAndGet());
+                }
+            }
+            case "UNSUBSCRIBE" -> {
+                List<byte[]> channels = args.isEmpty()
+                        ? subscribers.entrySet().stream()
+                                .filter(entry -> entry.getValue().contains(out))
+                                .map(entry -> entry.getKey().getBytes(StandardCharsets.ISO_8859_1))
+                                .toList()
+                        : args;
+                for (byte[] channel : channels) {
+                    subscribers.getOrDefault(string(channel), Set.of()).remove(out);
+                    out.subscription("unsubscribe", channel, Math.max(0, out.subscriptions.decrementAndGet()));
+                }
+            }
+            case "FLUSHALL", "FLUSHDB" -> {
+                data.clear();
+                out.simple("OK");
+            }
+            default -> out.error("ERR unknown command '" + name + "'");
+        }
+    }
+
+    private void set(Connection out, List<byte[]> args) throws IOException {
+        long deadline = 0;
+        boolean ifAbsent = false;
+        boolean ifPresent = false;
+        for (int i = 2; i < args.size(); i++) {
+            switch (string(args.get(i)).toUpperCase(Locale.ROOT)) {
+                case "EX" -> deadline = deadline(Long.parseLong(string(args.get(++i))) * 1000);
+                case "PX" -> deadline = deadline(Long.parseLong(string(args.get(++i))));
+                case "NX" -> ifAbsent = true;
+                case "XX" -> ifPresent = true;
+                default -> {
+                    out.error("ERR syntax error");
+                    return;
+                }
+            }
+        }
+        boolean exists = entry(args.get(0)) != null;
+        if ((ifAbsent && exists) || (ifPresent && !exists)) {
+            out.bulk(null);
+            return;
+        }
+        put(args.get(0), new Entry(args.get(1), deadline));
+        out.simple("OK");
+    }
+
+    /**
+     * Returns every match in one batch with a terminal cursor.
+     */
+    private void scan(Connection out, List<byte[]> args) throws IOException {
+        String pattern = "*";
+        for (int i = 1; i + 1 < args.size(); i += 2) {
+            if (string(args.get(i)).equalsIgnoreCase("MATCH")) {
+                pattern = string(args.get(i + 1));
+            }
+        }
+        List<String> keys = keys(pattern);
+        out.arrayHeader(2);
+        out.bulk("0".getBytes(StandardCharsets.US_ASCII));
+        out.arrayHeader(keys.size());
+        for (String key : keys) {
+            out.bulk(key.getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    private List<String> keys(String glob) {
+        Pattern pattern = globPattern(glob);
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : data.entrySet()) {
+            if (!entry.getValue().isExpired() && pattern.matcher(entry.getKey()).matches()) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    private void put(byte[] key, Entry entry) {
+        data.put(string(key), entry);
+    }
+
+    private Entry entry(byte[] key) {
+        String name = string(key);
+        Entry entry = data.get(name);
+        if (entry != null && entry.isExpired()) {
+            data.remove(name, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private byte[] bytes(byte[] key) {
+        Entry entry = entry(key);
+        return entry != null && entry.value() instanceof byte[] value ? value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, byte[]> hash(byte[] key, boolean create) {
+        Entry entry = entry(key);
+        if (entry != null && entry.value() instanceof Map<?, ?> hash) {
+            return (Map<String, byte[]>) hash;
+        }
+        if (!create) {
+            return null;
+        }
+        Map<String, byte[]> hash = new ConcurrentHashMap<>();
+        Entry created = new Entry(hash, 0);
+        Entry existing = data.putIfAbsent(string(key), created);
+        return existing != null && existing.value() instanceof Map<?, ?> current
+                ? (Map<String, byte[]>) current
+                : hash;
+    }
+
+    private static long deadline(long ttlMillis) {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+
+    /**
+     * Keys and fields are compared as ISO-8859-1 text, which maps every byte
+     * to one character and back.
+     */
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.ISO_8859_1);
+    }
+
+    private static Pattern globPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * A string ({@code byte[]}) or hash ({@code Map}) value; a deadline of
+     * zero never expires.
+     */
+    private record Entry(Object value, long deadline) {
+
+        boolean isExpired() {
+            return deadline != 0 && deadline <= System.currentTimeMillis();
+        }
+
+        Entry withDeadline(long deadline) {
+            return new Entry(value, deadline);
+        }
+    }
+
+    /**
+     * One client connection. Replies are written by the connection's own
+     * thread, but published messages arrive from the publisher's, so writes
+     * are serialised by a lock.
+     */
+    private static final class Connection implements AutoCloseable {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final AtomicInteger subscriptions = new AtomicInteger();
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        List<byte[]> readCommand() throws IOException {
+            int type = in.read();
+            if (type == -1) {
+                throw new EOFException();
+            }
+            if (type != '*') {
+                // Inline command, e.g. from redis-cli over telnet
+                String line = (char) type + readLine();
+                return line.isBlank()
+                        ? List.of()
+                        : Arrays.stream(line.trim().split("\\s+"))
+                                .map(part -> part.getBytes(StandardCharsets.UTF_8))
+                                .toList();
+            }
+            int count = Integer.parseInt(readLine());
+            List<byte[]> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                if (in.read() != '$') {
+                    throw new IOException("Expected a bulk string");
+                }
+                int length = Integer.parseInt(readLine());
+                parts.add(in.readNBytes(length));
+                in.skipNBytes(2);
+            }
+            return parts;
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int c;
+            while ((c = in.read()) != '\r') {
+                if (c == -1) {
+                    throw new EOFException();
+                }
+                line.write(c);
+            }
+            in.read();
+            return line.toString(StandardCharsets.ISO_8859_1);
+        }
+
+        void simple(String value) throws IOException {
+            write(("+" + value).getBytes(StandardCharsets.US_ASCII), CRLF);
+        }
+
+        void error(String message) throws IOException {
+            write(("-" + message).getBytes(StandardCharsets.UTF_8), CRLF);
+        }
+
+        void integer(long value) throws IOException {
+            write((":" + value).getBytes(StandardCharsets.US_ASCII), CRLF);
+        }
+
+        void arrayHeader(int size) throws IOException {
+            write(("*" + size).getBytes(StandardCharsets.US_ASCII), CRLF);
+        }
+
+        void bulk(byte[] value) throws IOException {
+            if (value == null) {
+                write("$-1".getBytes(StandardCharsets.US_ASCII), CRLF);
+                return;
+            }
+            write(("$" + value.length).getBytes(StandardCharsets.US_ASCII), CRLF, value, CRLF);
+        }
+
+        void subscription(String kind, byte[] channel, int count) throws IOException {
+            writeLock.lock();
+            try {
+                arrayHeader(3);
+                bulk(kind.getBytes(StandardCharsets.US_ASCII));
+                bulk(channel);
+                integer(count);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void push(byte[] channel, byte[] message) throws IOException {
+            writeLock.lock();
+            try {
+                arrayHeader(3);
+                bulk("message".getBytes(StandardCharsets.US_ASCII));
+                bulk(channel);
+                bulk(message);
+                out.flush();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void flush() throws IOException {
+            writeLock.lock();
+            try {
+                out.flush();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void write(byte[]... parts) throws IOException {
+            writeLock.lock();
+            try {
+                for (byte[] part : parts) {
+                    out.write(part);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.cloudshop.productservice.loadtest.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers the Elasticsearch REST calls product-service makes: index
+ * existence and creation, bulk index, update and delete, ids
+ * delete-by-query and search. Documents are kept per index, but a search
+ * does not evaluate its query: it returns the requested page of everything
+ * in the index after {@code searchLatency}, which stands in for the
+ * cluster's own time. Runs therefore measure the service's search path
+ * around the client call, not Elasticsearch relevance or query cost.
+ */
+public class StubElasticsearch implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, NavigableMap<String, ObjectNode>> indices = new ConcurrentHashMap<>();
+    private final AtomicLong searches = new AtomicLong();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration searchLatency;
+    private final HttpServer server;
+
+    public StubElasticsearch(Duration searchLatency) throws IOException {
+        this.searchLatency = searchLatency;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String getUri() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getSearchCount() {
+        return searches.get();
+    }
+
+    public int getDocumentCount(String index) {
+        NavigableMap<String, ObjectNode> documents = indices.get(index);
+        return documents != null ? documents.size() : 0;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            try {
+                route(exchange, method, path.length == 1 && path[0].isEmpty() ? new String[0] : path, body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error(exchange, 500, "interrupted", e.getMessage());
+            } catch (RuntimeException e) {
+                error(exchange, 400, "parse_exception", e.toString());
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String[] path, byte[] body)
+            throws IOException, InterruptedException {
+        if (path.length == 0) {
+            respond(exchange, 200, objectMapper.createObjectNode()
+                    .put("name", "stub")
+                    .put("cluster_name", "loadtest")
+                    .put("tagline", "You Know, for Search")
+                    .set("version", objectMapper.createObjectNode().put("number", "8.11.0")));
+            return;
+        }
+        if (path[0].equals("_bulk")) {
+            bulk(exchange, null, body);
+            return;
+        }
+        if (path[0].equals("_cluster")) {
+            respond(exchange, 200, objectMapper.createObjectNode()
+                    .put("cluster_name", "loadtest")
+                    .put("status", "green")
+                    .put("timed_out", false)
+                    .put("number_of_nodes", 1)
+                    .put("number_of_data_nodes", 1)
+                    .put("active_primary_shards", indices.size())
+                    .put("active_shards", indices.size())
+                    .put("relocating_shards", 0)
+                    .put("initializing_shards", 0)
+                    .put("unassigned_shards", 0)
+                    .put("delayed_unassigned_shards", 0)
+                    .put("number_of_pending_tasks", 0)
+                    .put("number_of_in_flight_fetch", 0)
+                    .put("task_max_waiting_in_queue_millis", 0)
+                    .put("active_shards_percent_as_number", 100.0));
+            return;
+        }
+
+        String index = path[0];
+        String action = path.length > 1 ? path[1] : "";
+        switch (action) {
+            case "" -> index(exchange, method, index);
+            case "_bulk" -> bulk(exchange, index, body);
+            case "_search" -> search(exchange, index, body);
+            case "_count" -> {
+                if (missing(exchange, index)) {
+                    return;
+                }
+                respond(exchange, 200, objectMapper.createObjectNode()
+                        .put("count", documents(index).size())
+                        .set("_shards", shards()));
+            }
+            case "_delete_by_query" -> deleteByQuery(exchange, index, body);
+            case "_refresh", "_flush" -> respond(exchange, 200, objectMapper.createObjectNode().set("_shards", shards()));
+            case "_mapping", "_settings" -> respond(exchange, 200, method.equals("GET")
+                    ? objectMapper.createObjectNode().set(index, objectMapper.createObjectNode())
+                    : objectMapper.createObjectNode().put("acknowledged", true));
+            case "_doc", "_create" -> document(exchange, method, index, path[2], body);
+            case "_update" -> {
+                ObjectNode item = update(index, path[2], objectMapper.readTree(body));
+                respond(exchange, item.get("status").asInt(), item);
+            }
+            default -> error(exchange, 404, "invalid_index_name_exception", "Unsupported path " + String.join("/", path));
+        }
+    }
+
+    private void index(HttpExchange exchange, String method, String index) throws IOException {
+        switch (method) {
+            case "HEAD" -> {
+                exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+                exchange.sendResponseHeaders(indices.containsKey(index) ? 200 : 404, -1);
+            }
+            case "PUT" -> {
+                if (indices.putIfAbsent(index, new ConcurrentSkipListMap<>()) != null) {
+                    error(exchange, 400, "resource_already_exists_exception", "index [" + index + "] already exists");
+                    return;
+                }
+                respond(exchange, 200, objectMapper.createObjectNode()
+                        .put("acknowledged", true)
+                        .put("shards_acknowledged", true)
+                        .put("index", index));
+            }
+            case "DELETE" -> {
+                indices.remove(index);
+                respond(exchange, 200, objectMapper.createObjectNode().put("acknowledged", true));
+            }
+            default -> {
+                if (missing(exchange, index)) {
+                    return;
+                }
+                respond(exchange, 200, objectMapper.createObjectNode().set(index, objectMapper.createObjectNode()));
+            }
+        }
+    }
+
+    private void document(HttpExchange exchange, String method, String index, String id, byte[] body) throws IOException {
+        NavigableMap<String, ObjectNode> documents = documents(index);
+        switch (method) {
+            case "GET" -> {
+                ObjectNode source = documents.get(id);
+                ObjectNode response = objectMapper.createObjectNode()
+                        .put("_index", index)
+                        .put("_id", id)
+                        .put("found", source != null);
+                if (source != null) {
+                    response.put("_version", 1).put("_seq_no", 0).put("_primary_term", 1).set("_source", source);
+                }
+                respond(exchange, source != null ? 200 : 404, response);
+            }
+            case "DELETE" -> {
+                boolean found = documents.remove(id) != null;
+                respond(exchange, found ? 200 : 404, result(index, id, found ? "deleted" : "not_found", found ? 200 : 404));
+            }
+            default -> {
+                boolean created = documents.put(id, (ObjectNode) objectMapper.readTree(body)) == null;
+                respond(exchange, created ? 201 : 200, result(index, id, created ? "created" : "updated", created ? 201 : 200));
+            }
+        }
+    }
+
+    /**
+     * Bulk requests are newline-delimited action and source lines; delete
+     * actions have no source line.
+     */
+    private void bulk(HttpExchange exchange, String defaultIndex, byte[] body) throws IOException {
+        ArrayNode items = objectMapper.createArrayNode();
+        boolean errors = false;
+        List<String> lines = new String(body, StandardCharsets.UTF_8).lines().filter(line -> !line.isBlank()).toList();
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode actionLine = objectMapper.readTree(lines.get(i));
+            String action = actionLine.fieldNames().next();
+            JsonNode meta = actionLine.get(action);
+            String index = meta.has("_index") ? meta.get("_index").asText() : defaultIndex;
+            String id = meta.get("_id").asText();
+            ObjectNode item = switch (action) {
+                case "index", "create" -> {
+                    boolean created = documents(index).put(id, (ObjectNode) objectMapper.readTree(lines.get(++i))) == null;
+                    yield result(index, id, created ? "created" : "updated", created ? 201 : 200);
+                }
+                case "update" -> update(index, id, objectMapper.readTree(lines.get(++i)));
+                case "delete" -> {
+                    boolean found = documents(index).remove(id) != null;
+                    yield result(index, id, found ? "deleted" : "not_found", found ? 200 : 404);
+                }
+                default -> throw new IllegalArgumentException("Unknown bulk action " + action);
+            };
+            errors |= item.has("error");
+            items.add(objectMapper.createObjectNode().set(action, item));
+        }
+        ObjectNode response = objectMapper.createObjectNode().put("took", 1).put("errors", errors);
+        response.set("items", items);
+        respond(exchange, 200, response);
+    }
+
+    private ObjectNode update(String index, String id, JsonNode request) {
+        NavigableMap<String, ObjectNode> documents = documents(index);
+        ObjectNode existing = documents.get(id);
+        if (existing == null) {
+            ObjectNode item = result(index, id, "not_found", 404);
+            item.set("error", objectMapper.createObjectNode()
+                    .put("type", "document_missing_exception")
+                    .put("reason", "[" + id + "]: document missing")
+                    .put("index", index));
+            return item;
+        }
+        ObjectNode updated = existing.deepCopy();
+        if (request.has("doc")) {
+            updated.setAll((ObjectNode) request.get("doc"));
+        }
+        documents.put(id, updated);
+        return result(index, id, "updated", 200);
+    }
+
+    private void search(HttpExchange exchange, String index, byte[] body) throws IOException, InterruptedException {
+        searches.incrementAndGet();
+        Thread.sleep(searchLatency);
+        if (missing(exchange, index)) {
+            return;
+        }
+        JsonNode request = body.length > 0 ? objectMapper.readTree(body) : objectMapper.createObjectNode();
+        int from = request.path("from").asInt(0);
+        int size = request.path("size").asInt(10);
+        NavigableMap<String, ObjectNode> documents = documents(index);
+
+        ArrayNode hits = objectMapper.createArrayNode();
+        documents.entrySet().stream().skip(from).limit(size).forEach(document -> hits.add(objectMapper.createObjectNode()
+                .put("_index", index)
+                .put("_id", document.getKey())
+                .put("_score", 1.0)
+                .set("_source", document.getValue())));
+
+        ObjectNode hitsNode = objectMapper.createObjectNode();
+        hitsNode.set("total", objectMapper.createObjectNode().put("value", documents.size()).put("relation", "eq"));
+        hitsNode.put("max_score", 1.0);
+        hitsNode.set("hits", hits);
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("took", searchLatency.toMillis())
+                .put("timed_out", false);
+        response.set("_shards", shards().put("skipped", 0));
+        response.set("hits", hitsNode);
+        respond(exchange, 200, response);
+    }
+
+    /**
+     * Supports the ids query product-service deletes with.
+     */
+    private void deleteByQuery(HttpExchange exchange, String index, byte[] body) throws IOException {
+        if (missing(exchange, index)) {
+            return;
+        }
+        NavigableMap<String, ObjectNode> documents = documents(index);
+        long deleted = 0;
+        for (JsonNode id : objectMapper.readTree(body).path("query").path("ids").path("values")) {
+            deleted += documents.remove(id.asText()) != null ? 1 : 0;
+        }
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("took", 1)
+                .put("timed_out", false)
+                .put("total", deleted)
+                .put("deleted", deleted)
+                .put("batches", 1)
+                .put("version_conflicts", 0)
+                .put("noops", 0)
+                .put("throttled_millis", 0)
+                .put("requests_per_second", -1.0)
+                .put("throttled_until_millis", 0);
+        response.set("retries", objectMapper.createObjectNode().put("bulk", 0).put("search", 0));
+        response.set("failures", objectMapper.createArrayNode());
+        respond(exchange, 200, response);
+    }
+
+    private NavigableMap<String, ObjectNode> documents(String index) {
+        // Indexing into a missing index creates it, as with automatic index creation
+        return indices.computeIfAbsent(index, name -> new ConcurrentSkipListMap<>());
+    }
+
+    private boolean missing(HttpExchange exchange, String index) throws IOException {
+        if (indices.containsKey(index)) {
+            return false;
+        }
+        error(exchange, 404, "index_not_found_exception", "no such index [" + index + "]");
+        return true;
+    }
+
+    private ObjectNode result(String index, String id, String result, int status) {
+        ObjectNode node = objectMapper.createObjectNode()
+                .put("_index", index)
+                .put("_id", id)
+                .put("_version", 1)
+                .put("result", result)
+                .put("_seq_no", 0)
+                .put("_primary_term", 1)
+                .put("status", status);
+        node.set("_shards", shards());
+        return node;
+    }
+
+    private ObjectNode shards() {
+        return objectMapper.createObjectNode().put("total", 1).put("successful", 1).put("failed", 0);
+    }
+
+    private void error(HttpExchange exchange, int status, String type, String reason) throws IOException {
+        ObjectNode cause = objectMapper.createObjectNode().put("type", type).put("reason", reason);
+        ObjectNode error = cause.deepCopy();
+        error.set("root_cause", objectMapper.createArrayNode().add(cause));
+        ObjectNode response = objectMapper.createObjectNode();
+        response.set("error", error);
+        response.put("status", status);
+        respond(exchange, status, response);
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
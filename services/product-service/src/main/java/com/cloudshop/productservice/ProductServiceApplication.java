@@ -2,14 +2,19 @@ package com.cloudshop.productservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive read port, which builds its own pool; a
+// ConnectionFactory bean would make Spring Boot back off the JDBC DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableJpaAuditing
 @EnableCaching
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.cloudshop.productservice.repository")
 @EnableElasticsearchRepositories(basePackages = "com.cloudshop.productservice.repository.elasticsearch")
 public class ProductServiceApplication {
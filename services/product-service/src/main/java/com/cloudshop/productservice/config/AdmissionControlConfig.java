@@ -0,0 +1,36 @@
+package com.cloudshop.productservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Adaptive admission control for product reads, on by default; disabled
+ * with {@code app.admission.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(AdmissionControlProperties properties,
+                                                         ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new AdmissionControlFilter(properties, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(
+            AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/v1/products/*", "/api/v1/products");
+        // Shed before any other filter does work for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,162 @@
+package com.cloudshop.productservice.config;
+
+import com.cloudshop.productservice.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Sheds product reads before they queue on the database and Elasticsearch.
+ * Each priority has its own {@link GradientLimit}, so a slow search backlog
+ * lowers the search limit without touching product detail. Search and
+ * listings together may only use the capacity outside the critical reserve,
+ * which is kept for product detail, and low-priority reads (deep pages, the
+ * change feed) are turned away as soon as search is half way to its limit.
+ * Rejected requests get 503 with {@code Retry-After}; writes are not limited.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public enum Priority {
+        CRITICAL, STANDARD, LOW
+    }
+
+    private static final Pattern DETAIL = Pattern.compile("/api/v1/products/[0-9a-fA-F-]{36}");
+    private static final Pattern LISTING = Pattern.compile("/api/v1/products(/search|/category/[^/]+|/merchant/[^/]+)?/?");
+    private static final Pattern CHANGE_FEED = Pattern.compile("/api/v1/products/changes");
+
+    private final Map<Priority, GradientLimit> limits = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+    private final int sharedCapacity;
+    private final int deepPage;
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.sharedCapacity = Math.max(properties.getMinLimit(),
+                (int) (properties.getCapacity() * (1 - properties.getCriticalReserve())));
+        this.deepPage = properties.getDeepPage();
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.objectMapper = objectMapper;
+
+        limits.put(Priority.CRITICAL, limit(properties, properties.getCapacity()));
+        limits.put(Priority.STANDARD, limit(properties, sharedCapacity));
+        limits.put(Priority.LOW, limit(properties, (int) (sharedCapacity * properties.getLowPriorityShare())));
+        limits.forEach((priority, limit) -> {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("product.admission.limit", limit, GradientLimit::getLimit)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            Gauge.builder("product.admission.inflight", limit, GradientLimit::getInFlight)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            rejections.put(priority, Counter.builder("product.admission.rejected")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Priority priority = classify(request);
+        if (priority == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        GradientLimit limit = limits.get(priority);
+        if (!admits(priority) || !limit.tryAcquire()) {
+            reject(response, priority);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    public GradientLimit getLimit(Priority priority) {
+        return limits.get(priority);
+    }
+
+    /**
+     * The priority of a product read, or null for requests that are not
+     * limited.
+     */
+    Priority classify(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (DETAIL.matcher(path).matches()) {
+            return Priority.CRITICAL;
+        }
+        if (CHANGE_FEED.matcher(path).matches()) {
+            return Priority.LOW;
+        }
+        if (LISTING.matcher(path).matches()) {
+            return page(request) >= deepPage ? Priority.LOW : Priority.STANDARD;
+        }
+        return null;
+    }
+
+    private boolean admits(Priority priority) {
+        if (priority == Priority.CRITICAL) {
+            return true;
+        }
+        GradientLimit standard = limits.get(Priority.STANDARD);
+        int shared = standard.getInFlight() + limits.get(Priority.LOW).getInFlight();
+        if (shared >= sharedCapacity) {
+            return false;
+        }
+        return priority != Priority.LOW || standard.getInFlight() < standard.getLimit() / 2;
+    }
+
+    private void reject(HttpServletResponse response, Priority priority) throws IOException {
+        rejections.get(priority).increment();
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("Too many concurrent requests, retry after " + retryAfterSeconds + "s")
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static int page(HttpServletRequest request) {
+        try {
+            String page = request.getParameter("page");
+            return page != null ? Integer.parseInt(page) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static GradientLimit limit(AdmissionControlProperties properties, int maxLimit) {
+        int max = Math.max(properties.getMinLimit(), maxLimit);
+        return new GradientLimit(Math.min(properties.getInitialLimit(), max), properties.getMinLimit(), max,
+                properties.getSmoothing(), properties.getTolerance());
+    }
+}
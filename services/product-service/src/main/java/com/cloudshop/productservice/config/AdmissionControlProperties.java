@@ -0,0 +1,38 @@
+package com.cloudshop.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    /** Most product reads in flight at once, across all priorities. */
+    private int capacity = 200;
+
+    /** Share of the capacity only product detail requests may use. */
+    private double criticalReserve = 0.3;
+
+    /** Share of the non-reserved capacity low-priority requests may use. */
+    private double lowPriorityShare = 0.25;
+
+    /** Listing and search pages from this page number on are low priority. */
+    private int deepPage = 10;
+
+    /** Sent as {@code Retry-After} on rejected requests. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    /** Weight of each new limit estimate; lower reacts more slowly. */
+    private double smoothing = 0.2;
+
+    /** Latency may rise to this multiple of its baseline before the limit shrinks. */
+    private double tolerance = 1.5;
+}
@@ -1,6 +1,7 @@
 package com.cloudshop.productservice.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -8,14 +9,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(StaleWhileRevalidateProperties.class)
 public class CacheConfig {
 
     @Value("${app.cache.product.ttl:3600}")
@@ -24,24 +30,71 @@ public class CacheConfig {
     @Value("${app.cache.category.ttl:7200}")
     private long categoryCacheTtl;
 
+    @Value("${app.cache.serializer.format:COMPACT}")
+    private CompactRedisSerializer.Format serializerFormat;
+
+    @Value("${app.cache.serializer.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     StaleWhileRevalidateProperties staleWhileRevalidateProperties,
+                                     PlatformTransactionManager transactionManager) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(productCacheTtl))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new CompactRedisSerializer(serializerFormat, compressionThreshold)))
                 .disableCachingNullValues();
 
         RedisCacheConfiguration productConfig = defaultConfig.entryTtl(Duration.ofSeconds(productCacheTtl));
         RedisCacheConfiguration categoryConfig = defaultConfig.entryTtl(Duration.ofSeconds(categoryCacheTtl));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withCacheConfiguration("product", productConfig)
                 .withCacheConfiguration("products", productConfig)
                 .withCacheConfiguration("category", categoryConfig)
                 .withCacheConfiguration("categories", categoryConfig)
+                .withCacheConfiguration("categoryTree", categoryConfig)
+                // Hit, miss and removal counts for the cache metrics
+                .enableStatistics()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Background refreshes run outside the caller's transaction
+        TransactionTemplate refreshTransaction = new TransactionTemplate(transactionManager);
+        refreshTransaction.setReadOnly(true);
+
+        return new StaleWhileRevalidateCacheManager(redisCacheManager, staleWhileRevalidateProperties, refreshTransaction,
+                virtualThreads);
     }
-}
 
+    /**
+     * Shared by the Redis pub/sub listeners, which subscribe their own
+     * channels; it only opens a connection once one has.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * String keys and raw byte values, for data that is already serialized
+     * such as the product read model.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setHashKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+}
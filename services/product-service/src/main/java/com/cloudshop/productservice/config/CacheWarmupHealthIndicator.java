@@ -0,0 +1,24 @@
+package com.cloudshop.productservice.config;
+
+import com.cloudshop.productservice.service.CacheWarmupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component("cacheWarmup")
+@RequiredArgsConstructor
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmupService cacheWarmupService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = switch (cacheWarmupService.getStatus()) {
+            case PENDING, RUNNING -> Health.outOfService();
+            // A failed warm-up only means cold caches; don't keep the pod out of rotation
+            case COMPLETED, FAILED, DISABLED -> Health.up();
+        };
+        return builder.withDetails(cacheWarmupService.getProgress()).build();
+    }
+}
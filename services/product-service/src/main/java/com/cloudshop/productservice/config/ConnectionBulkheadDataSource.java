@@ -0,0 +1,138 @@
+package com.cloudshop.productservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of threads holding or waiting for a pooled connection.
+ * With virtual threads there is no request thread pool to limit concurrency,
+ * so thousands of requests could otherwise pile up inside the connection
+ * pool; here they wait on a fair semaphore and fail after the timeout.
+ */
+@Slf4j
+public class ConnectionBulkheadDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public ConnectionBulkheadDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * Wraps a Hikari pool using the {@code app.virtual-threads.bulkhead.*}
+     * settings, which default to the pool's own size and connection timeout.
+     */
+    public static ConnectionBulkheadDataSource forPool(HikariDataSource hikari, Environment environment) {
+        int maxConcurrent = environment.getProperty("app.virtual-threads.bulkhead.max-concurrent",
+                Integer.class, hikari.getMaximumPoolSize());
+        Duration acquireTimeout = environment.getProperty("app.virtual-threads.bulkhead.acquire-timeout",
+                Duration.class, Duration.ofMillis(hikari.getConnectionTimeout()));
+        log.info("Virtual threads enabled, limiting connection pool {} to {} concurrent borrowers",
+                hikari.getPoolName(), maxConcurrent);
+        return new ConnectionBulkheadDataSource(hikari, maxConcurrent, acquireTimeout);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the wrapped pool. Spring infers the destroy method from the
+     * wrapper once a pool bean has been replaced by it.
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable target) {
+            target.close();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Connection bulkhead full, timed out after " + acquireTimeout.toMillis() + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for connection bulkhead", e);
+        }
+    }
+
+    private Connection guard(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ReleasingHandler(connection));
+    }
+
+    private class ReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                } finally {
+                    permits.release();
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.cloudshop.productservice.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit in the style of Netflix's Gradient2. The limit
+ * follows the ratio of a long-term to a short-term latency average: while
+ * latency stays near its baseline the limit grows by about its square root
+ * per sample, and when requests start to queue downstream (latency rises
+ * above {@code tolerance} times the baseline) it shrinks by up to half.
+ * The limit only grows while at least half of it is in use, so an idle
+ * period does not inflate it.
+ */
+public class GradientLimit {
+
+    private static final double SHORT_WEIGHT = 0.2;
+    private static final double LONG_WEIGHT = 2.0 / 601;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+
+    private volatile double limit;
+    // Guarded by lock
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot if fewer than {@link #getLimit()} are in use; every
+     * successful call must be followed by {@link #release}.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Frees the slot and feeds the request's latency into the limit.
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            update(latencyNanos, inFlightBefore);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long latencyNanos, int inFlightBefore) {
+        if (longRtt == 0) {
+            shortRtt = latencyNanos;
+            longRtt = latencyNanos;
+            return;
+        }
+        shortRtt += (latencyNanos - shortRtt) * SHORT_WEIGHT;
+        longRtt += (latencyNanos - longRtt) * LONG_WEIGHT;
+        // After a slow spell the baseline would otherwise stay high and hide the next one
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double next = current * gradient + Math.sqrt(current);
+        if (next > current && inFlightBefore < current / 2) {
+            return;
+        }
+        next = current * (1 - smoothing) + next * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
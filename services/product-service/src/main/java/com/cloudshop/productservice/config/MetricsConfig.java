@@ -0,0 +1,41 @@
+package com.cloudshop.productservice.config;
+
+import com.cloudshop.productservice.service.SearchResultCache;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.List;
+
+/**
+ * Cache meters beyond what Spring Boot binds on its own. Boot publishes
+ * {@code cache.gets}, {@code cache.puts} and {@code cache.removals} for each
+ * Redis cache of the cache manager, but does not recognise the
+ * stale-while-revalidate wrapper or caches that are not Spring caches.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public CacheMeterBinderProvider<StaleWhileRevalidateCache> staleWhileRevalidateCacheMeterBinderProvider() {
+        return new CacheMeterBinderProvider<StaleWhileRevalidateCache>() {
+            @Override
+            public MeterBinder getMeterBinder(StaleWhileRevalidateCache cache, Iterable<Tag> tags) {
+                return cache.getDelegate() instanceof RedisCache redisCache
+                        ? new RedisCacheMetrics(redisCache, tags)
+                        : null;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder searchResultCacheMetrics(SearchResultCache searchResultCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, searchResultCache.getResults(), "searchResults",
+                List.of(Tag.of("cache.manager", "searchResultCache")));
+    }
+}
@@ -0,0 +1,123 @@
+package com.cloudshop.productservice.config;
+
+import co.elastic.clients.transport.ElasticsearchTransport;
+import com.cloudshop.productservice.controller.ReactiveProductHandler;
+import com.cloudshop.productservice.producer.ProductViewEventProducer;
+import com.cloudshop.productservice.repository.ReactiveProductRepository;
+import com.cloudshop.productservice.service.ProductFieldSets;
+import com.cloudshop.productservice.service.ProductIndexRouter;
+import com.cloudshop.productservice.service.ProductMapper;
+import com.cloudshop.productservice.service.ProductMetrics;
+import com.cloudshop.productservice.service.ProductService;
+import com.cloudshop.productservice.service.ProductViewService;
+import com.cloudshop.productservice.service.ReactiveCatalogService;
+import com.cloudshop.productservice.service.SearchResultCache;
+import com.cloudshop.productservice.service.SearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchClient;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Opt-in reactive read port ({@code app.reactive-reads.enabled=true}): the
+ * catalog {@code GET} endpoints served by Reactor Netty from R2DBC, reactive
+ * Lettuce and the reactive Elasticsearch client, alongside the servlet stack.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reactive-reads.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReactiveReadProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveReadConfig {
+
+    private final ReactiveReadProperties properties;
+
+    /**
+     * The pool is deliberately not a {@code ConnectionFactory} bean: Spring
+     * Boot backs off the JDBC DataSource as soon as one exists.
+     */
+    @Bean
+    public ReactiveProductRepository reactiveProductRepository(ObjectMapper objectMapper) {
+        if (properties.getUrl() == null || properties.getUrl().isBlank()) {
+            throw new IllegalStateException("app.reactive-reads.url is required when the reactive read port is enabled");
+        }
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate();
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("reactive-reads")
+                .initialSize(properties.getInitialPoolSize())
+                .maxSize(properties.getMaxPoolSize())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .build());
+        return new ReactiveProductRepository(pool, objectMapper);
+    }
+
+    @Bean
+    public ReactiveCatalogService reactiveCatalogService(ReactiveRedisConnectionFactory redisConnectionFactory,
+                                                         ReactiveProductRepository reactiveProductRepository,
+                                                         ObjectProvider<ReactiveElasticsearchOperations> elasticsearchOperations,
+                                                         ElasticsearchTransport elasticsearchTransport,
+                                                         ElasticsearchConverter elasticsearchConverter,
+                                                         ProductService productService,
+                                                         ProductViewService productViewService,
+                                                         SearchService searchService,
+                                                         SearchResultCache searchResultCache,
+                                                         ProductIndexRouter productIndexRouter,
+                                                         ProductFieldSets productFieldSets,
+                                                         ProductMapper productMapper,
+                                                         ProductMetrics productMetrics) {
+        // Same key and value encoding as the binaryRedisTemplate the read model is written with
+        ReactiveRedisTemplate<String, byte[]> redisTemplate = new ReactiveRedisTemplate<>(redisConnectionFactory,
+                RedisSerializationContext.<String, byte[]>newSerializationContext(StringRedisSerializer.UTF_8)
+                        .value(RedisSerializer.byteArray())
+                        .hashKey(StringRedisSerializer.UTF_8)
+                        .hashValue(RedisSerializer.byteArray())
+                        .build());
+        ReactiveElasticsearchOperations reactiveElasticsearchOperations = elasticsearchOperations.getIfAvailable(() ->
+                new ReactiveElasticsearchTemplate(new ReactiveElasticsearchClient(elasticsearchTransport),
+                        elasticsearchConverter));
+        // The servlet search fallback runs on Reactor's shared bounded scheduler, at most ten threads per core
+        return new ReactiveCatalogService(redisTemplate, reactiveProductRepository, reactiveElasticsearchOperations,
+                productService, productViewService, searchService, searchResultCache, productIndexRouter,
+                productFieldSets, productMapper, productMetrics, Schedulers.boundedElastic());
+    }
+
+    @Bean
+    public ReactiveProductHandler reactiveProductHandler(ReactiveCatalogService reactiveCatalogService,
+                                                         ProductFieldSets productFieldSets,
+                                                         ProductViewEventProducer productViewEventProducer,
+                                                         ObjectMapper objectMapper) {
+        return new ReactiveProductHandler(reactiveCatalogService, productFieldSets, productViewEventProducer,
+                objectMapper);
+    }
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(ReactiveProductHandler reactiveProductHandler) {
+        return new ReactiveReadServer(RouterFunctions.toHttpHandler(reactiveProductHandler.routes()), properties);
+    }
+}
@@ -0,0 +1,32 @@
+package com.cloudshop.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.reactive-reads")
+public class ReactiveReadProperties {
+
+    private boolean enabled = false;
+
+    /** Port of the reactive server; the servlet port keeps serving every endpoint. */
+    private int port = 3012;
+
+    /** Event-loop threads; 0 uses Reactor Netty's default of one per core. */
+    private int eventLoopThreads = 0;
+
+    /** R2DBC URL of the product database, e.g. {@code r2dbc:postgresql://localhost:5432/cloudshop}. */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private int initialPoolSize = 5;
+
+    private int maxPoolSize = 20;
+
+    private Duration maxIdleTime = Duration.ofMinutes(30);
+}
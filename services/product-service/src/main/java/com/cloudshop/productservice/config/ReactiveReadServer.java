@@ -0,0 +1,78 @@
+package com.cloudshop.productservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reactor Netty server for the reactive read port, started after the
+ * application context and stopped before the beans it serves from. It runs
+ * on its own event loops, next to Tomcat.
+ */
+@Slf4j
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private static final Pattern UUID_SEGMENT = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final HttpHandler httpHandler;
+    private final ReactiveReadProperties properties;
+    private volatile LoopResources loops;
+    private volatile DisposableServer server;
+
+    public ReactiveReadServer(HttpHandler httpHandler, ReactiveReadProperties properties) {
+        this.httpHandler = httpHandler;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        loops = properties.getEventLoopThreads() > 0
+                ? LoopResources.create("reactive-reads", properties.getEventLoopThreads(), true)
+                : LoopResources.create("reactive-reads");
+        server = HttpServer.create()
+                .port(properties.getPort())
+                .runOn(loops)
+                // reactor.netty.http.server.* metrics, with ids collapsed to keep the uri tag bounded
+                .metrics(true, ReactiveReadServer::uriTag)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive read port listening on {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current != null) {
+            current.disposeNow();
+            server = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block();
+            loops = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * The bound port, which differs from the configured one when that is 0.
+     */
+    public int getPort() {
+        DisposableServer current = server;
+        return current != null ? current.port() : properties.getPort();
+    }
+
+    static String uriTag(String uri) {
+        return UUID_SEGMENT.matcher(uri).replaceAll("{id}");
+    }
+}
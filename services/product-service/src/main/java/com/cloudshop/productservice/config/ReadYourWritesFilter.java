@@ -0,0 +1,67 @@
+package com.cloudshop.productservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each client (identified by a request header) last wrote
+ * successfully, and routes that client's reads to the primary for a short
+ * window afterwards.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final String clientHeader;
+    private final long windowMillis;
+    private final Map<String, Long> lastWriteMillis = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(String clientHeader, Duration window) {
+        this.clientHeader = clientHeader;
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String client = request.getHeader(clientHeader);
+        long now = System.currentTimeMillis();
+
+        if (client != null) {
+            Long lastWrite = lastWriteMillis.get(client);
+            if (lastWrite != null) {
+                if (now - lastWrite < windowMillis) {
+                    ReadYourWritesContext.requirePrimary();
+                } else {
+                    lastWriteMillis.remove(client, lastWrite);
+                }
+            }
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+            if (client != null && !READ_METHODS.contains(request.getMethod()) && response.getStatus() < 400) {
+                lastWriteMillis.put(client, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /** Drops clients whose window has passed; called periodically so idle clients don't accumulate. */
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:5000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWriteMillis.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
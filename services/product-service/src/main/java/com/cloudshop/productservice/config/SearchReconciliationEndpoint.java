@@ -0,0 +1,31 @@
+package com.cloudshop.productservice.config;
+
+import com.cloudshop.productservice.dto.ReconciliationReport;
+import com.cloudshop.productservice.service.SearchReconciler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/searchreconciliation} returns the last reconciliation
+ * report; {@code POST} runs one now.
+ */
+@Component
+@Endpoint(id = "searchreconciliation")
+@RequiredArgsConstructor
+public class SearchReconciliationEndpoint {
+
+    private final SearchReconciler searchReconciler;
+
+    @ReadOperation
+    public ReconciliationReport lastReport() {
+        return searchReconciler.getLastReport();
+    }
+
+    @WriteOperation
+    public ReconciliationReport reconcile() {
+        return searchReconciler.reconcile();
+    }
+}
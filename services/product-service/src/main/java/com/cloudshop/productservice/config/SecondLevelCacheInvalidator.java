@@ -0,0 +1,127 @@
+package com.cloudshop.productservice.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps the Hibernate second-level cache coherent across instances. Every
+ * instance caches in its own Caffeine regions, so when a write to a cached
+ * entity commits, the entity name is published on a Redis channel and each
+ * instance, this one included, evicts that entity's region, the collections
+ * it owns and the query cache. Eviction is per region rather than per id:
+ * the cached entities are small reference tables that rarely change, and a
+ * collection such as {@code Category.children} is not invalidated by
+ * Hibernate itself when only the child side of the association is written.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.second-level.broadcast.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SecondLevelCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, MessageListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.cache.second-level.broadcast.channel:product-service:l2-invalidation}")
+    private String channel = "product-service:l2-invalidation";
+
+    private SessionFactoryImplementor sessionFactory;
+
+    @PostConstruct
+    public void register() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was committed, so no instance has anything to evict
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        evict(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    void evict(String entityName) {
+        try {
+            Cache cache = sessionFactory.getCache();
+            cache.evictEntityData(entityName);
+            sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(collection -> {
+                if (collection.hasCache() && collection.getOwnerEntityPersister().getEntityName().equals(entityName)) {
+                    cache.evictCollectionData(collection.getRole());
+                }
+            });
+            cache.evictQueryRegions();
+            log.debug("Evicted second-level cache for {}", entityName);
+        } catch (Exception e) {
+            log.warn("Failed to evict second-level cache for {}", entityName, e);
+        }
+    }
+
+    private void publish(EntityPersister persister) {
+        try {
+            redisTemplate.convertAndSend(channel, persister.getEntityName());
+        } catch (Exception e) {
+            // Other instances catch up when their regions expire
+            log.warn("Failed to broadcast second-level cache eviction for {}", persister.getEntityName(), e);
+        }
+    }
+}
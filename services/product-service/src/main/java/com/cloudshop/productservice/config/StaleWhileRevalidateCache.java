@@ -0,0 +1,217 @@
+package com.cloudshop.productservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Cache decorator that keeps serving an entry after its soft TTL and reloads it
+ * on a background executor. Only {@link #get(Object, Callable)} can refresh, so
+ * callers need {@code @Cacheable(sync = true)}; plain lookups treat a stale entry
+ * as a miss. The delegate is only read and written directly, which bypasses
+ * its own {@code sync} locking, so concurrent misses for one key wait here for
+ * a single load.
+ */
+@Slf4j
+public class StaleWhileRevalidateCache implements Cache {
+
+    private final Cache delegate;
+    private final Duration softTtl;
+    private final Executor refreshExecutor;
+    private final TransactionOperations transactionOperations;
+    private final Clock clock;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    public StaleWhileRevalidateCache(Cache delegate, Duration softTtl, Executor refreshExecutor,
+                                     TransactionOperations transactionOperations, Clock clock) {
+        this.delegate = delegate;
+        this.softTtl = softTtl;
+        this.refreshExecutor = refreshExecutor;
+        this.transactionOperations = transactionOperations;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Entry entry = lookup(key);
+        if (entry == null || entry.isStale(clock.millis())) {
+            return null;
+        }
+        return new SimpleValueWrapper(entry.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = lookup(key);
+        if (entry != null) {
+            if (entry.isStale(clock.millis())) {
+                scheduleRefresh(key, valueLoader);
+            }
+            return (T) entry.getValue();
+        }
+
+        return loadOnce(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value != null) {
+            delegate.put(key, new Entry(value, clock.millis() + softTtl.toMillis()));
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, new Entry(value, clock.millis() + softTtl.toMillis()));
+        if (existing == null) {
+            return null;
+        }
+        Object existingValue = existing.get();
+        return new SimpleValueWrapper(existingValue instanceof Entry e ? e.getValue() : existingValue);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private Entry lookup(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        // Values written before this cache was enabled carry no soft expiry; refresh them
+        return wrapper.get() instanceof Entry entry ? entry : new Entry(wrapper.get(), 0L);
+    }
+
+    private <T> void scheduleRefresh(Object key, Callable<T> valueLoader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(key, transactionOperations.execute(status -> load(key, valueLoader)));
+                    log.debug("Refreshed stale entry {} in cache {}", key, getName());
+                } catch (Exception e) {
+                    log.warn("Background refresh of {} in cache {} failed: {}", key, getName(), e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("Refresh queue full, serving stale entry {} in cache {}", key, getName());
+        }
+    }
+
+    /**
+     * Loads a missing key once; concurrent callers for the same key wait for
+     * that load and share its value or exception.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T loadOnce(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // A load that finished just before this one started has already stored the value
+            Entry entry = lookup(key);
+            T value = entry != null ? (T) entry.getValue() : load(key, valueLoader);
+            if (entry == null) {
+                put(key, value);
+            }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        private Object value;
+        private long refreshAfter;
+
+        boolean isStale(long now) {
+            return now >= refreshAfter;
+        }
+    }
+}
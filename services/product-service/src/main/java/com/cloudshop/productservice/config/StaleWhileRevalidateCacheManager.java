@@ -0,0 +1,63 @@
+package com.cloudshop.productservice.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the caches named in {@link StaleWhileRevalidateProperties#getSoftTtl()}
+ * in a {@link StaleWhileRevalidateCache}; all other caches are returned as is.
+ */
+public class StaleWhileRevalidateCacheManager implements CacheManager, DisposableBean {
+
+    private final CacheManager delegate;
+    private final Map<String, Duration> softTtls;
+    private final TransactionOperations transactionOperations;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public StaleWhileRevalidateCacheManager(CacheManager delegate, StaleWhileRevalidateProperties properties,
+                                            TransactionOperations transactionOperations, boolean virtualThreads) {
+        this.delegate = delegate;
+        this.softTtls = properties.isEnabled() ? Map.copyOf(properties.getSoftTtl()) : Map.of();
+        this.transactionOperations = transactionOperations;
+
+        Thread.Builder threadBuilder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        this.refreshExecutor = new ThreadPoolExecutor(
+                properties.getRefreshThreads(), properties.getRefreshThreads(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getRefreshQueueCapacity()),
+                threadBuilder.name("cache-refresh-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        Duration softTtl = softTtls.get(name);
+        if (cache == null || softTtl == null) {
+            return cache;
+        }
+        return caches.computeIfAbsent(name, n ->
+                new StaleWhileRevalidateCache(cache, softTtl, refreshExecutor, transactionOperations, Clock.systemUTC()));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package com.cloudshop.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-cache soft TTLs for stale-while-revalidate caching. A cache listed here
+ * serves its value after the soft TTL while a background refresh runs; the
+ * Redis entry TTL configured in {@link CacheConfig} stays the hard limit.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache.stale-while-revalidate")
+public class StaleWhileRevalidateProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Duration> softTtl = new HashMap<>();
+
+    private int refreshThreads = 2;
+
+    private int refreshQueueCapacity = 100;
+}
@@ -0,0 +1,33 @@
+package com.cloudshop.productservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Extra wiring for {@code spring.threads.virtual.enabled=true}. Spring Boot
+ * already moves Tomcat request handling, the application task executor and
+ * the scheduler onto virtual threads; this adds a bulkhead in front of the
+ * Hikari pool so unbounded virtual threads cannot flood it. Replica pools are
+ * not beans and get theirs in {@link ReplicaRoutingConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                return ConnectionBulkheadDataSource.forPool(hikari, environment);
+            }
+        };
+    }
+}
@@ -1,11 +1,31 @@
 package com.cloudshop.productservice.config;
 
+import com.cloudshop.productservice.service.LocalImageStorage;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    // Additional web configuration if needed
-}
+    private final ObjectProvider<LocalImageStorage> localImageStorage;
 
+    public WebConfig(ObjectProvider<LocalImageStorage> localImageStorage) {
+        this.localImageStorage = localImageStorage;
+    }
+
+    /**
+     * Serves locally stored images under {@code /images/**}. Keys are content
+     * hashes, so responses can be cached indefinitely.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        localImageStorage.ifAvailable(storage -> registry.addResourceHandler("/images/**")
+                .addResourceLocations(storage.getRoot().toUri().toString())
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()));
+    }
+}
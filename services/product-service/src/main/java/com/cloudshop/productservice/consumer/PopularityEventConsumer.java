@@ -0,0 +1,61 @@
+package com.cloudshop.productservice.consumer;
+
+import com.cloudshop.productservice.dto.OrderCreatedEvent;
+import com.cloudshop.productservice.dto.ProductViewedEvent;
+import com.cloudshop.productservice.service.PopularityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Feeds order and view events into the popularity scores. Events are
+ * timestamped in UTC; events without a timestamp count as happening now.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PopularityEventConsumer {
+
+    private final PopularityService popularityService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "${app.kafka.topics.order-created}", groupId = "${app.popularity.group-id}",
+                   autoStartup = "${app.popularity.enabled:true}", concurrency = "${app.popularity.concurrency:1}")
+    public void consumeOrderCreated(String message) {
+        try {
+            OrderCreatedEvent event = objectMapper.readValue(message, OrderCreatedEvent.class);
+            if (event.getItems() == null) {
+                return;
+            }
+            Instant at = toInstant(event.getTimestamp());
+            for (OrderCreatedEvent.OrderItem item : event.getItems()) {
+                int quantity = item.getQuantity() != null ? item.getQuantity() : 1;
+                popularityService.recordOrder(UUID.fromString(item.getProductId()), quantity, at);
+            }
+        } catch (Exception e) {
+            log.warn("Skipping order_created event: {}", message, e);
+        }
+    }
+
+    @KafkaListener(topics = "${app.kafka.topics.product-viewed}", groupId = "${app.popularity.group-id}",
+                   autoStartup = "${app.popularity.enabled:true}", concurrency = "${app.popularity.concurrency:1}")
+    public void consumeProductViewed(String message) {
+        try {
+            ProductViewedEvent event = objectMapper.readValue(message, ProductViewedEvent.class);
+            popularityService.recordView(UUID.fromString(event.getProductId()), toInstant(event.getTimestamp()));
+        } catch (Exception e) {
+            log.warn("Skipping product_viewed event: {}", message, e);
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toInstant(ZoneOffset.UTC) : Instant.now();
+    }
+}
@@ -24,6 +24,12 @@ public class CategoryController {
         return ResponseEntity.ok(categories);
     }
 
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryResponse>> getCategoryTree() {
+        List<CategoryResponse> tree = categoryService.getCategoryTree();
+        return ResponseEntity.ok(tree);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable UUID id) {
         CategoryResponse category = categoryService.getCategoryById(id);
@@ -1,15 +1,21 @@
 package com.cloudshop.productservice.controller;
 
 import com.cloudshop.productservice.dto.*;
+import com.cloudshop.productservice.producer.ProductViewEventProducer;
 import com.cloudshop.productservice.service.*;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @RestController
@@ -21,23 +27,67 @@ public class ProductController {
     private final ProductService productService;
     private final CategoryService categoryService;
     private final BulkImportService bulkImportService;
+    private final BulkUpdateService bulkUpdateService;
     private final ImageService imageService;
+    private final ProductViewService productViewService;
+    private final ProductViewEventProducer productViewEventProducer;
+    private final ProductFieldSets productFieldSets;
 
     @GetMapping
-    public ResponseEntity<PageResponse<ProductResponse>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false, defaultValue = "DESC") String sortDirection) {
+            @RequestParam(required = false, defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String fields) {
         
-        PageResponse<ProductResponse> response = productService.getAllProducts(page, size, sortBy, sortDirection);
+        ProductFieldSet fieldSet = productFieldSets.parse(fields);
+        PageResponse<ProductResponse> response = productService.getAllProducts(page, size, sortBy, sortDirection, fieldSet);
+        return respond(response, fieldSet);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesResponse> getProductChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        ProductChangesResponse response = productService.getProductChanges(since, limit);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable UUID id) {
-        ProductResponse response = productService.getProductById(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getProductById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-Session-Id", required = false) String sessionId,
+            @RequestParam(required = false) String fields) {
+
+        ProductFieldSet fieldSet = productFieldSets.parse(fields);
+        // Pre-rendered bytes from the read model, written without going through Jackson; a selection is rendered per request
+        ProductViewService.ProductView view = fieldSet.isAll()
+                ? productViewService.getProductView(id, productService::loadProduct)
+                : ProductViewService.ProductView.of(productFieldSets.write(productService.getProductById(id), fieldSet));
+        productViewEventProducer.emit(id, userId, sessionId);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        String etag = gzip ? view.gzipEtag() : view.etag();
+
+        if (view.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(view.gzip());
+        }
+        return builder.body(view.json());
     }
 
     @PostMapping
@@ -69,7 +119,7 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<PageResponse<ProductResponse>> searchProducts(
+    public ResponseEntity<?> searchProducts(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) UUID categoryId,
             @RequestParam(required = false) java.math.BigDecimal minPrice,
@@ -77,11 +127,16 @@ public class ProductController {
             @RequestParam(required = false) Double minRating,
             @RequestParam(required = false) UUID merchantId,
             @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) String variantSize,
+            @RequestParam(required = false) Boolean inStock,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false, defaultValue = "DESC") String sortDirection) {
+            @RequestParam(required = false, defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String fields) {
         
+        ProductFieldSet fieldSet = productFieldSets.parse(fields);
         ProductSearchRequest searchRequest = ProductSearchRequest.builder()
                 .query(query)
                 .categoryId(categoryId)
@@ -90,34 +145,42 @@ public class ProductController {
                 .minRating(minRating)
                 .merchantId(merchantId)
                 .isActive(isActive)
+                .variantColor(color)
+                .variantSize(variantSize)
+                .inStock(inStock)
                 .page(page)
                 .size(size)
                 .sortBy(sortBy)
                 .sortDirection(sortDirection)
+                .fields(fieldSet)
                 .build();
         
         PageResponse<ProductResponse> response = productService.searchProducts(searchRequest);
-        return ResponseEntity.ok(response);
+        return respond(response, fieldSet);
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<PageResponse<ProductResponse>> getProductsByCategory(
+    public ResponseEntity<?> getProductsByCategory(
             @PathVariable UUID categoryId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
         
-        PageResponse<ProductResponse> response = productService.getProductsByCategory(categoryId, page, size);
-        return ResponseEntity.ok(response);
+        ProductFieldSet fieldSet = productFieldSets.parse(fields);
+        PageResponse<ProductResponse> response = productService.getProductsByCategory(categoryId, page, size, fieldSet);
+        return respond(response, fieldSet);
     }
 
     @GetMapping("/merchant/{merchantId}")
-    public ResponseEntity<PageResponse<ProductResponse>> getProductsByMerchant(
+    public ResponseEntity<?> getProductsByMerchant(
             @PathVariable UUID merchantId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
         
-        PageResponse<ProductResponse> response = productService.getProductsByMerchant(merchantId, page, size);
-        return ResponseEntity.ok(response);
+        ProductFieldSet fieldSet = productFieldSets.parse(fields);
+        PageResponse<ProductResponse> response = productService.getProductsByMerchant(merchantId, page, size, fieldSet);
+        return respond(response, fieldSet);
     }
 
     @PostMapping("/bulk-import")
@@ -129,29 +192,38 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkUpdateResponse> bulkUpdateProducts(
+            @Valid @RequestBody BulkUpdateRequest request,
+            @RequestHeader("X-Merchant-Id") UUID merchantId) {
+
+        BulkUpdateResponse response = bulkUpdateService.updateProducts(request, merchantId);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{id}/images")
     public ResponseEntity<ProductResponse> uploadProductImages(
             @PathVariable UUID id,
             @RequestParam("files") MultipartFile[] files,
             @RequestHeader("X-Merchant-Id") UUID merchantId) {
-        
-        // Upload images and update product
-        java.util.List<String> imageUrls = imageService.uploadImages(java.util.Arrays.asList(files), id);
-        
-        // Get product and update with new image URLs
-        ProductResponse product = productService.getProductById(id);
-        ProductRequest updateRequest = ProductRequest.builder()
-                .name(product.getName())
-                .description(product.getDescription())
-                .sku(product.getSku())
-                .price(product.getPrice())
-                .categoryId(product.getCategoryId())
-                .imageUrl(product.getImageUrl())
-                .imageUrls(imageUrls)
-                .build();
-        
-        ProductResponse response = productService.updateProduct(id, updateRequest, merchantId);
+
+        // Checked again when the URLs are saved; this only avoids storing files for a product that can't take them
+        productService.checkCanUpdateProduct(id, merchantId);
+        List<String> imageUrls = imageService.uploadImages(Arrays.asList(files), id);
+        ProductResponse response = productService.updateProductImages(id, imageUrls, merchantId);
         return ResponseEntity.ok(response);
     }
-}
 
+    /**
+     * Without a selection the response is written as usual; with one only
+     * the selected product properties are serialized.
+     */
+    private ResponseEntity<?> respond(PageResponse<ProductResponse> response, ProductFieldSet fields) {
+        if (fields.isAll()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productFieldSets.write(response, fields));
+    }
+}
@@ -0,0 +1,196 @@
+package com.cloudshop.productservice.controller;
+
+import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductFieldSet;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductSearchRequest;
+import com.cloudshop.productservice.exception.ErrorResponse;
+import com.cloudshop.productservice.exception.ResourceNotFoundException;
+import com.cloudshop.productservice.producer.ProductViewEventProducer;
+import com.cloudshop.productservice.service.ProductFieldSets;
+import com.cloudshop.productservice.service.ReactiveCatalogService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The catalog {@code GET} endpoints of {@link ProductController} as
+ * functional routes for the reactive port, with the same parameters,
+ * headers and response bodies. Writes and the change feed stay on the
+ * servlet port.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductHandler {
+
+    private static final String BASE_PATH = "/api/v1/products";
+
+    private final ReactiveCatalogService catalogService;
+    private final ProductFieldSets productFieldSets;
+    private final ProductViewEventProducer productViewEventProducer;
+    private final ObjectMapper objectMapper;
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET(BASE_PATH, deferred(this::getAllProducts))
+                .GET(BASE_PATH + "/search", deferred(this::searchProducts))
+                .GET(BASE_PATH + "/category/{categoryId}", deferred(this::getProductsByCategory))
+                .GET(BASE_PATH + "/merchant/{merchantId}", deferred(this::getProductsByMerchant))
+                .GET(BASE_PATH + "/{id}", deferred(this::getProductById))
+                .onError(ResourceNotFoundException.class, (e, request) ->
+                        error(HttpStatus.NOT_FOUND, "Not Found", e.getMessage()))
+                .onError(IllegalArgumentException.class, (e, request) ->
+                        error(HttpStatus.BAD_REQUEST, "Bad Request", e.getMessage()))
+                .onError(e -> true, (e, request) -> {
+                    log.error("Unexpected error on {}: ", request.path(), e);
+                    return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
+                            "An unexpected error occurred");
+                })
+                .build();
+    }
+
+    Mono<ServerResponse> getAllProducts(ServerRequest request) {
+        ProductFieldSet fields = fields(request);
+        return respond(catalogService.getAllProducts(
+                intParam(request, "page", 0),
+                intParam(request, "size", 20),
+                request.queryParam("sortBy").orElse(null),
+                request.queryParam("sortDirection").orElse("DESC"),
+                fields), fields);
+    }
+
+    Mono<ServerResponse> getProductById(ServerRequest request) {
+        UUID id = UUID.fromString(request.pathVariable("id"));
+        String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+        String acceptEncoding = request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        return catalogService.getProductView(id, fields(request)).flatMap(view -> {
+            productViewEventProducer.emit(id, request.headers().firstHeader("X-User-Id"),
+                    request.headers().firstHeader("X-Session-Id"));
+            String etag = gzip ? view.gzipEtag() : view.etag();
+            if (view.matches(ifNoneMatch)) {
+                return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+            ServerResponse.BodyBuilder builder = ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").bodyValue(view.gzip());
+            }
+            return builder.bodyValue(view.json());
+        });
+    }
+
+    Mono<ServerResponse> searchProducts(ServerRequest request) {
+        ProductFieldSet fields = fields(request);
+        ProductSearchRequest searchRequest = ProductSearchRequest.builder()
+                .query(request.queryParam("query").orElse(null))
+                .categoryId(param(request, "categoryId", UUID::fromString))
+                .minPrice(param(request, "minPrice", BigDecimal::new))
+                .maxPrice(param(request, "maxPrice", BigDecimal::new))
+                .minRating(param(request, "minRating", Double::valueOf))
+                .merchantId(param(request, "merchantId", UUID::fromString))
+                .isActive(param(request, "isActive", Boolean::valueOf))
+                .variantColor(request.queryParam("color").orElse(null))
+                .variantSize(request.queryParam("variantSize").orElse(null))
+                .inStock(param(request, "inStock", Boolean::valueOf))
+                .page(intParam(request, "page", 0))
+                .size(intParam(request, "size", 20))
+                .sortBy(request.queryParam("sortBy").orElse(null))
+                .sortDirection(request.queryParam("sortDirection").orElse("DESC"))
+                .fields(fields)
+                .build();
+        return respond(catalogService.searchProducts(searchRequest), fields);
+    }
+
+    Mono<ServerResponse> getProductsByCategory(ServerRequest request) {
+        ProductFieldSet fields = fields(request);
+        return respond(catalogService.getProductsByCategory(
+                UUID.fromString(request.pathVariable("categoryId")),
+                intParam(request, "page", 0),
+                intParam(request, "size", 20),
+                fields), fields);
+    }
+
+    Mono<ServerResponse> getProductsByMerchant(ServerRequest request) {
+        ProductFieldSet fields = fields(request);
+        return respond(catalogService.getProductsByMerchant(
+                UUID.fromString(request.pathVariable("merchantId")),
+                intParam(request, "page", 0),
+                intParam(request, "size", 20),
+                fields), fields);
+    }
+
+    /**
+     * Pages are written through the field set's JSON filter, which keeps
+     * every property for the full document.
+     */
+    private Mono<ServerResponse> respond(Mono<PageResponse<ProductResponse>> response, ProductFieldSet fields) {
+        return response.flatMap(page -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(productFieldSets.write(page, fields)));
+    }
+
+    private ProductFieldSet fields(ServerRequest request) {
+        return productFieldSets.parse(request.queryParam("fields").orElse(null));
+    }
+
+    private Mono<ServerResponse> error(HttpStatus status, String error, String message) {
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(status.value())
+                .error(error)
+                .message(message)
+                .build();
+        try {
+            return ServerResponse.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            return ServerResponse.status(status).build();
+        }
+    }
+
+    /**
+     * Turns parameter parsing errors thrown while building the response into
+     * error signals, so the error handlers see them.
+     */
+    private static HandlerFunction<ServerResponse> deferred(HandlerFunction<ServerResponse> handler) {
+        return request -> Mono.defer(() -> handler.handle(request));
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    /**
+     * An optional query parameter; a value that does not parse is a bad
+     * request, as the conversions throw {@link IllegalArgumentException}.
+     */
+    private static <T> T param(ServerRequest request, String name, Function<String, T> parser) {
+        Optional<String> value = request.queryParam(name).filter(text -> !text.isBlank());
+        return value.map(parser).orElse(null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.cloudshop.productservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One row of a bulk update. Fields left null are not changed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateItem {
+
+    @NotBlank(message = "SKU is required")
+    @Size(max = 100, message = "SKU must not exceed 100 characters")
+    private String sku;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    @Digits(integer = 10, fraction = 2, message = "Price must have at most 10 integer digits and 2 decimal places")
+    private BigDecimal price;
+
+    private Boolean isActive;
+
+    private UUID categoryId;
+}
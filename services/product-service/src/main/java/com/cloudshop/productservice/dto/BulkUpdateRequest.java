@@ -0,0 +1,22 @@
+package com.cloudshop.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 10000, message = "At most 10000 items per request")
+    private List<@Valid BulkUpdateItem> items;
+}
@@ -0,0 +1,35 @@
+package com.cloudshop.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResponse {
+
+    private int totalRows;
+    private int updatedCount;
+    private int failureCount;
+    private List<RowResult> results;
+
+    public enum Status { UPDATED, NOT_FOUND, INVALID }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private int row;
+        private String sku;
+        private Status status;
+        private UUID productId;
+        private String message;
+    }
+}
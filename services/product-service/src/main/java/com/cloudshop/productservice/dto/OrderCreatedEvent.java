@@ -0,0 +1,38 @@
+package com.cloudshop.productservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The parts of the {@code order_created} event that product-service reads.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCreatedEvent {
+
+    @JsonProperty("order_id")
+    private String orderId;
+
+    @JsonProperty("items")
+    private List<OrderItem> items;
+
+    @JsonProperty("timestamp")
+    private LocalDateTime timestamp;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderItem {
+        @JsonProperty("product_id")
+        private String productId;
+
+        @JsonProperty("quantity")
+        private Integer quantity;
+    }
+}
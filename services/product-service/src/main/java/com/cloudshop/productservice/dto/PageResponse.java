@@ -1,5 +1,6 @@
 package com.cloudshop.productservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,5 +21,11 @@ public class PageResponse<T> {
     private int totalPages;
     private boolean first;
     private boolean last;
+
+    /**
+     * Spelling corrections of the query, only when a search finds nothing.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> suggestions;
 }
 
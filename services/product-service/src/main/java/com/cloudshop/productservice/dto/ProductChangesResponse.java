@@ -0,0 +1,21 @@
+package com.cloudshop.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesResponse {
+
+    private List<ProductResponse> changed;
+    private List<UUID> deleted;
+    private String nextCursor;
+    private boolean hasMore;
+}
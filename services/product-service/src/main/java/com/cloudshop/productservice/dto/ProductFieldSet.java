@@ -0,0 +1,124 @@
+package com.cloudshop.productservice.dto;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed {@code fields=} selection of {@code ProductResponse} properties,
+ * with everything needed to serve it worked out once: the entity columns to
+ * select, the index fields to fetch and the JSON filter. Instances are
+ * immutable and shared through {@code ProductFieldSets}.
+ */
+public final class ProductFieldSet {
+
+    public static final String FILTER_ID = "productFields";
+
+    /**
+     * Every {@code ProductResponse} property, in response order.
+     */
+    public static final List<String> FIELDS = List.of(
+            "id", "merchantId", "name", "description", "sku", "price", "categoryId", "category",
+            "imageUrl", "imageUrls", "variants", "reviews", "averageRating", "reviewCount",
+            "createdAt", "updatedAt", "isActive", "categoryPath", "minPrice", "maxPrice", "inStock");
+
+    // Basic Product attributes, readable as columns without loading the entity
+    private static final Set<String> COLUMNS = Set.of(
+            "id", "merchantId", "name", "description", "sku", "price", "categoryId",
+            "imageUrl", "imageUrls", "createdAt", "updatedAt", "isActive");
+
+    // Association properties, only available from loaded entities
+    private static final Set<String> ASSOCIATIONS = Set.of("category", "variants", "reviews");
+
+    // Properties stored in the search document under the same name
+    private static final Set<String> DOCUMENT_FIELDS = Set.of(
+            "id", "merchantId", "name", "description", "sku", "price", "categoryId", "categoryPath",
+            "minPrice", "maxPrice", "inStock", "variants", "imageUrl", "imageUrls", "isActive",
+            "averageRating", "reviewCount", "createdAt", "updatedAt");
+
+    /**
+     * The full response, as served without a {@code fields} parameter.
+     */
+    public static final ProductFieldSet ALL = new ProductFieldSet(FIELDS, true);
+
+    private final Set<String> fields;
+    private final boolean all;
+    private final List<String> columns;
+    private final String[] sourceIncludes;
+    private final FilterProvider filters;
+
+    /**
+     * @throws IllegalArgumentException for a name that is not a response property
+     */
+    public static ProductFieldSet of(List<String> fields) {
+        for (String field : fields) {
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown product field: " + field + ", expected one of " + FIELDS);
+            }
+        }
+        return new ProductFieldSet(fields, false);
+    }
+
+    private ProductFieldSet(List<String> fields, boolean all) {
+        Set<String> selected = new LinkedHashSet<>();
+        // The id is always returned so clients can follow up on a product
+        selected.add("id");
+        selected.addAll(fields);
+        this.fields = Set.copyOf(selected);
+        this.all = all;
+        this.columns = selected.stream().filter(COLUMNS::contains).toList();
+        this.sourceIncludes = selected.stream().filter(DOCUMENT_FIELDS::contains).toArray(String[]::new);
+        this.filters = new SimpleFilterProvider().addFilter(FILTER_ID, all
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(this.fields));
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public boolean contains(String field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * True when the selection can be read from product columns and the
+     * batched review stats, without loading entities and their associations.
+     */
+    public boolean isProjectable() {
+        return !all && fields.stream().noneMatch(ASSOCIATIONS::contains);
+    }
+
+    public boolean needsReviewStats() {
+        return contains("averageRating") || contains("reviewCount");
+    }
+
+    /**
+     * Entity attributes to select, always starting with {@code id}.
+     */
+    public List<String> columns() {
+        return columns;
+    }
+
+    /**
+     * Search document fields to fetch from {@code _source}.
+     */
+    public String[] sourceIncludes() {
+        return sourceIncludes.clone();
+    }
+
+    public FilterProvider filters() {
+        return filters;
+    }
+
+    /**
+     * Canonical form for cache keys, in response order.
+     */
+    public String key() {
+        return all ? "*" : String.join(",", FIELDS.stream().filter(fields::contains).toList());
+    }
+}
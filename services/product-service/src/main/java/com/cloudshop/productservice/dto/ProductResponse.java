@@ -1,5 +1,6 @@
 package com.cloudshop.productservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,5 +34,15 @@ public class ProductResponse {
     private Instant createdAt;
     private Instant updatedAt;
     private Boolean isActive;
+
+    // Listing summary, filled from the search index
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<UUID> categoryPath;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal minPrice;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal maxPrice;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean inStock;
 }
 
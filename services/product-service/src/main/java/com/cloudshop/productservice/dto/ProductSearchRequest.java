@@ -23,9 +23,15 @@ public class ProductSearchRequest {
     private Double minRating;
     private UUID merchantId;
     private Boolean isActive;
+    private String variantColor;
+    private String variantSize;
+    private Boolean inStock;
     private Integer page;
     private Integer size;
     private String sortBy;
     private String sortDirection;
+    // Only these properties are fetched from the index and returned
+    @Builder.Default
+    private ProductFieldSet fields = ProductFieldSet.ALL;
 }
 
@@ -0,0 +1,27 @@
+package com.cloudshop.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+
+    private Instant startedAt;
+    private Instant finishedAt;
+    private int bucketsCompared;
+    private List<String> mismatchedBuckets;
+    private int missingInIndex;
+    private int staleInIndex;
+    private int orphanedInIndex;
+    private int legacyDocuments;
+    private int skippedRecent;
+    private String error;
+}
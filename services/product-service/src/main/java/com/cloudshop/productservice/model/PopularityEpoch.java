@@ -0,0 +1,25 @@
+package com.cloudshop.productservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * The instant popularity scores are currently relative to, in a single row.
+ * {@code PopularityService} reads and moves it with plain SQL; the entity
+ * only puts the table in the schema.
+ */
+@Entity
+@Table(name = "popularity_epoch")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PopularityEpoch {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "epoch", nullable = false)
+    private Instant epoch;
+}
@@ -19,7 +19,9 @@ import java.util.UUID;
     @Index(name = "idx_product_category", columnList = "category_id"),
     @Index(name = "idx_product_sku", columnList = "sku", unique = true),
     @Index(name = "idx_product_active", columnList = "is_active"),
-    @Index(name = "idx_product_created", columnList = "created_at")
+    @Index(name = "idx_product_created", columnList = "created_at"),
+    @Index(name = "idx_product_updated_id", columnList = "updated_at, id"),
+    @Index(name = "idx_product_popularity", columnList = "popularity_score")
 })
 @Getter
 @Setter
@@ -78,6 +80,15 @@ public class Product {
     @Builder.Default
     private Boolean isActive = true;
 
+    /**
+     * Forward-decayed popularity; only {@code PopularityService} writes it,
+     * by adding deltas in SQL, so entity saves never overwrite it.
+     */
+    @Column(name = "popularity_score", nullable = false, updatable = false,
+            columnDefinition = "double precision default 0 not null")
+    @Builder.Default
+    private Double popularityScore = 0.0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", insertable = false, updatable = false)
     private Category category;
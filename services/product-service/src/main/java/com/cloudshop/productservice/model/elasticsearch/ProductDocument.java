@@ -21,9 +21,32 @@ import java.util.UUID;
 @AllArgsConstructor
 public class ProductDocument {
 
+    /**
+     * Version of the document layout written by the indexer. Documents with
+     * an older version are rewritten by the search reconciler.
+     */
+    public static final int CURRENT_VERSION = 5;
+
     @Id
     private UUID id;
 
+    /**
+     * Leading hex digits of the id, used to compare the index with the
+     * database bucket by bucket.
+     */
+    @Field(type = FieldType.Keyword)
+    private String idBucket;
+
+    /**
+     * Low 32 bits of the id XOR those of updatedAt millis; summed per
+     * bucket, so that two rows only cancel out with matching ids as well.
+     */
+    @Field(type = FieldType.Long)
+    private Long syncHash;
+
+    @Field(type = FieldType.Integer)
+    private Integer docVersion;
+
     @Field(type = FieldType.Keyword)
     private UUID merchantId;
 
@@ -42,6 +65,48 @@ public class ProductDocument {
     @Field(type = FieldType.Keyword)
     private UUID categoryId;
 
+    /**
+     * Ids from the root category down to {@link #categoryId}, so a filter on
+     * any ancestor matches.
+     */
+    @Field(type = FieldType.Keyword)
+    private List<UUID> categoryPath;
+
+    /**
+     * Lowest and highest effective price over the available variants, or the
+     * base price when the product has none.
+     */
+    @Field(type = FieldType.Double)
+    private BigDecimal minPrice;
+
+    @Field(type = FieldType.Double)
+    private BigDecimal maxPrice;
+
+    /**
+     * Distinct effective prices of the same variants as {@link #minPrice}.
+     * A range query on this multi-valued field matches when any one price
+     * falls inside the range, which the min/max pair cannot express.
+     */
+    @Field(type = FieldType.Double)
+    private List<BigDecimal> variantPrices;
+
+    @Field(type = FieldType.Boolean)
+    private Boolean inStock;
+
+    @Field(type = FieldType.Nested)
+    private List<VariantSummary> variants;
+
+    // Flattened, lowercased variant attributes for cheap term filters;
+    // variantOptions holds "color|size" pairs of the same variant
+    @Field(type = FieldType.Keyword)
+    private List<String> variantColors;
+
+    @Field(type = FieldType.Keyword)
+    private List<String> variantSizes;
+
+    @Field(type = FieldType.Keyword)
+    private List<String> variantOptions;
+
     @Field(type = FieldType.Text)
     private String imageUrl;
 
@@ -57,10 +122,43 @@ public class ProductDocument {
     @Field(type = FieldType.Integer)
     private Integer reviewCount;
 
+    @Field(type = FieldType.Double)
+    private Double popularityScore;
+
     @Field(type = FieldType.Date)
     private Instant createdAt;
 
     @Field(type = FieldType.Date)
     private Instant updatedAt;
-}
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VariantSummary {
+
+        @Field(type = FieldType.Keyword)
+        private UUID id;
+
+        @Field(type = FieldType.Keyword)
+        private String sku;
+
+        @Field(type = FieldType.Text)
+        private String name;
+
+        @Field(type = FieldType.Keyword)
+        private String size;
+
+        @Field(type = FieldType.Keyword)
+        private String color;
+
+        @Field(type = FieldType.Double)
+        private BigDecimal priceAdjustment;
+
+        @Field(type = FieldType.Integer)
+        private Integer stockQuantity;
+
+        @Field(type = FieldType.Boolean)
+        private Boolean isAvailable;
+    }
+}
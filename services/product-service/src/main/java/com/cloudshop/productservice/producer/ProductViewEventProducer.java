@@ -0,0 +1,201 @@
+package com.cloudshop.productservice.producer;
+
+import com.cloudshop.productservice.dto.ProductViewedEvent;
+import com.cloudshop.productservice.service.MpscRingBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes {@code product_viewed} events without making the request wait.
+ * {@link #emit} only writes to an {@link MpscRingBuffer}; a background
+ * thread drains it into a Kafka producer that batches with
+ * {@code linger.ms} and compresses. When the buffer fills past
+ * {@code app.kafka.view-events.sample-threshold} only a sample of views is
+ * kept, and when it is full views are dropped, so a slow or unavailable
+ * broker costs analytics data rather than request latency.
+ */
+@Component
+@Slf4j
+public class ProductViewEventProducer {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Object> kafkaConfig;
+    private final MpscRingBuffer<ViewEvent> buffer;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter sampled;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Producer<String, String> producer;
+    private Thread drainer;
+
+    @Value("${app.kafka.view-events.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.kafka.topics.product-viewed:product_viewed}")
+    private String topic = "product_viewed";
+
+    @Value("${app.kafka.view-events.drain-batch-size:512}")
+    private int drainBatchSize = 512;
+
+    @Value("${app.kafka.view-events.sample-threshold:0.75}")
+    private double sampleThreshold = 0.75;
+
+    @Value("${app.kafka.view-events.sample-rate:0.1}")
+    private double sampleRate = 0.1;
+
+    @Value("${app.kafka.view-events.linger-ms:50}")
+    private int lingerMs = 50;
+
+    @Value("${app.kafka.view-events.batch-size:65536}")
+    private int batchSize = 65536;
+
+    @Value("${app.kafka.view-events.compression-type:lz4}")
+    private String compressionType = "lz4";
+
+    public ProductViewEventProducer(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                    KafkaProperties kafkaProperties, SslBundles sslBundles,
+                                    @Value("${app.kafka.view-events.buffer-capacity:65536}") int bufferCapacity) {
+        this.objectMapper = objectMapper;
+        // Connection and security settings come from spring.kafka.*, like every other client in the service
+        this.kafkaConfig = kafkaProperties.buildProducerProperties(sslBundles);
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.sent = counter(meterRegistry, "sent");
+        this.failed = counter(meterRegistry, "failed");
+        this.sampled = counter(meterRegistry, "sampled");
+        this.dropped = counter(meterRegistry, "dropped");
+        Gauge.builder("product.view.events.buffered", buffer, MpscRingBuffer::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        producer = new KafkaProducer<>(producerConfig(), new StringSerializer(), new StringSerializer());
+
+        running = true;
+        drainer = Thread.ofPlatform().name("product-view-events").daemon().start(this::drainLoop);
+    }
+
+    /**
+     * The {@code spring.kafka} producer settings, with batching, compression
+     * and blocking overridden for fire-and-forget view events.
+     */
+    Map<String, Object> producerConfig() {
+        Map<String, Object> config = new HashMap<>(kafkaConfig);
+        config.put(ProducerConfig.ACKS_CONFIG, "1");
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        // Only the drain thread blocks on a missing broker; the buffer absorbs the wait
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+        Object clientId = config.get(ProducerConfig.CLIENT_ID_CONFIG);
+        if (clientId != null) {
+            config.put(ProducerConfig.CLIENT_ID_CONFIG, clientId + "-view-events");
+        }
+        return config;
+    }
+
+    /**
+     * Queues a view of the product. Never blocks; the view is dropped or
+     * sampled away when the buffer is backed up.
+     */
+    public void emit(UUID productId, String userId, String sessionId) {
+        if (!running) {
+            return;
+        }
+        if (buffer.size() >= buffer.capacity() * sampleThreshold
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampled.increment();
+            return;
+        }
+        if (!buffer.offer(new ViewEvent(productId, userId, sessionId, System.currentTimeMillis()))) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        producer.close(Duration.ofSeconds(5));
+    }
+
+    private void drainLoop() {
+        while (true) {
+            int drained = buffer.drain(this::send, drainBatchSize);
+            if (drained == 0) {
+                if (!running) {
+                    break;
+                }
+                // Kafka batches by linger.ms anyway, so polling at a fraction of it adds no latency worth waking for
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(1, lingerMs / 5)));
+            }
+        }
+        producer.flush();
+    }
+
+    private void send(ViewEvent view) {
+        try {
+            ProductViewedEvent event = new ProductViewedEvent(view.productId().toString(), view.userId(),
+                    view.sessionId(), LocalDateTime.ofInstant(Instant.ofEpochMilli(view.timestamp()), ZoneOffset.UTC));
+            producer.send(new ProducerRecord<>(topic, event.getProductId(), objectMapper.writeValueAsString(event)),
+                    (metadata, exception) -> {
+                        if (exception != null) {
+                            failed.increment();
+                            log.debug("Failed to publish product_viewed for {}", view.productId(), exception);
+                        } else {
+                            sent.increment();
+                        }
+                    });
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Failed to publish product_viewed for {}", view.productId(), e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("product.view.events")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record ViewEvent(UUID productId, String userId, String sessionId, long timestamp) {
+    }
+}
@@ -1,7 +1,10 @@
 package com.cloudshop.productservice.repository;
 
 import com.cloudshop.productservice.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,12 +14,15 @@ import java.util.UUID;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
+    // Results are kept in the Hibernate query cache; the ids they hold resolve through the category region
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findBySlug(String slug);
 
     List<Category> findByParentId(UUID parentId);
 
     List<Category> findByParentIsNull();
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByIsActive(Boolean isActive);
 
     List<Category> findByParentIdAndIsActive(UUID parentId, Boolean isActive);
@@ -0,0 +1,13 @@
+package com.cloudshop.productservice.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface ProductChangeView {
+
+    UUID getId();
+
+    Instant getUpdatedAt();
+
+    Boolean getIsActive();
+}
@@ -0,0 +1,18 @@
+package com.cloudshop.productservice.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductProjectionRepository {
+
+    /**
+     * Selects only the named Product attributes of the products whose
+     * attributes equal the given values, one tuple element per attribute
+     * aliased by its name.
+     */
+    Page<Tuple> findColumns(List<String> attributes, Map<String, Object> equalTo, Pageable pageable);
+}
@@ -0,0 +1,59 @@
+package com.cloudshop.productservice.repository;
+
+import com.cloudshop.productservice.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.Map;
+
+class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> findColumns(List<String> attributes, Map<String, Object> equalTo, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        List<Selection<?>> selections = attributes.stream()
+                .<Selection<?>>map(attribute -> product.get(attribute).alias(attribute))
+                .toList();
+        query.multiselect(selections)
+                .where(matching(builder, product, equalTo))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), product, builder));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(equalTo));
+    }
+
+    private long count(Map<String, Object> equalTo) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(builder.count(product)).where(matching(builder, product, equalTo));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate[] matching(CriteriaBuilder builder, Root<Product> product, Map<String, Object> equalTo) {
+        return equalTo.entrySet().stream()
+                .map(entry -> builder.equal(product.get(entry.getKey()), entry.getValue()))
+                .toArray(Predicate[]::new);
+    }
+}
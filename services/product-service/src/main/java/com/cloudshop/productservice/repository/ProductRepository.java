@@ -1,20 +1,26 @@
 package com.cloudshop.productservice.repository;
 
 import com.cloudshop.productservice.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductProjectionRepository {
 
     Optional<Product> findBySku(String sku);
 
@@ -73,6 +79,63 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     boolean existsBySku(String sku);
 
+    // Streamed in fetch-size batches for the SKU filter; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.sku FROM Product p")
+    Stream<String> streamAllSkus();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT v.sku FROM ProductVariant v")
+    Stream<String> streamAllVariantSkus();
+
+    @Query("SELECT p.merchantId FROM Product p WHERE p.id = :id")
+    Optional<UUID> findMerchantIdById(@Param("id") UUID id);
+
+    @Query("SELECT COUNT(v) FROM ProductVariant v")
+    long countVariants();
+
+    @Query("SELECT p.name FROM Product p WHERE p.isActive = true")
+    List<String> findActiveNames();
+
+    @Query("SELECT p.id FROM Product p WHERE p.isActive = true ORDER BY p.updatedAt DESC")
+    List<UUID> findRecentlyUpdatedIds(Pageable pageable);
+
+    /**
+     * The database clock, which bulk updates also stamp {@code updated_at} with.
+     */
+    @Query("SELECT instant")
+    Instant currentInstant();
+
+    @Query("SELECT p.id AS id, p.updatedAt AS updatedAt, p.isActive AS isActive FROM Product p " +
+           "WHERE (p.updatedAt > :sinceUpdatedAt OR (p.updatedAt = :sinceUpdatedAt AND p.id > :sinceId)) " +
+           "AND p.updatedAt < :until " +
+           "ORDER BY p.updatedAt ASC, p.id ASC")
+    List<ProductChangeView> findChangesSince(
+            @Param("sinceUpdatedAt") Instant sinceUpdatedAt,
+            @Param("sinceId") UUID sinceId,
+            @Param("until") Instant until,
+            Pageable pageable
+    );
+
+    /**
+     * Per id-prefix bucket of active products: bucket, row count, the sum of
+     * updated_at in epoch milliseconds, and the sum of the low 32 bits of the
+     * id XOR those of the millis (see {@code SearchService.syncHashOf}).
+     */
+    @Query(value = "SELECT substr(CAST(id AS varchar), 1, :prefixLength) AS bucket, count(*) AS doc_count, " +
+                   "sum(floor(extract(epoch FROM updated_at) * 1000)) AS updated_sum, " +
+                   "sum(CAST(CAST('x' || right(CAST(id AS varchar), 8) AS bit(32)) AS bigint) " +
+                   "# (CAST(floor(extract(epoch FROM updated_at) * 1000) AS bigint) & 4294967295)) AS sync_sum " +
+                   "FROM products WHERE is_active = true GROUP BY 1", nativeQuery = true)
+    List<Object[]> findActiveBucketChecksums(@Param("prefixLength") int prefixLength);
+
+    @Query("SELECT p.id AS id, p.updatedAt AS updatedAt, p.isActive AS isActive FROM Product p " +
+           "WHERE p.id BETWEEN :fromId AND :toId")
+    List<ProductChangeView> findSyncStateByIdBetween(@Param("fromId") UUID fromId, @Param("toId") UUID toId);
+
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.variants WHERE p.id IN :ids")
+    List<Product> findAllWithVariantsByIdIn(@Param("ids") Collection<UUID> ids);
+
     List<Product> findByMerchantIdAndIsActive(UUID merchantId, Boolean isActive);
 }
 
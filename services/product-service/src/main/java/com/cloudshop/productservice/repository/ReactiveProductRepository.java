@@ -0,0 +1,269 @@
+package com.cloudshop.productservice.repository;
+
+import com.cloudshop.productservice.dto.CategoryResponse;
+import com.cloudshop.productservice.dto.ProductVariantResponse;
+import com.cloudshop.productservice.dto.ReviewResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static java.util.Map.entry;
+
+/**
+ * Non-blocking counterparts of {@link ProductProjectionRepository#findColumns}
+ * and {@link ReviewRepository#findRatingStatsByProductIds} over R2DBC, for
+ * the reactive read port, plus the product associations for a whole page in
+ * one query each. Attribute names reach the SQL text, so they are looked up
+ * in a fixed attribute-to-column table and anything else is rejected.
+ */
+public class ReactiveProductRepository {
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    private static final Map<String, Column> COLUMNS = Map.ofEntries(
+            entry("id", new Column("id", UUID.class)),
+            entry("merchantId", new Column("merchant_id", UUID.class)),
+            entry("name", new Column("name", String.class)),
+            entry("description", new Column("description", String.class)),
+            entry("sku", new Column("sku", String.class)),
+            entry("price", new Column("price", BigDecimal.class)),
+            entry("categoryId", new Column("category_id", UUID.class)),
+            entry("imageUrl", new Column("image_url", String.class)),
+            // jsonb, read as its text
+            entry("imageUrls", new Column("image_urls", String.class)),
+            entry("createdAt", new Column("created_at", Instant.class)),
+            entry("updatedAt", new Column("updated_at", Instant.class)),
+            entry("isActive", new Column("is_active", Boolean.class)),
+            entry("popularityScore", new Column("popularity_score", Double.class)));
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveProductRepository(ConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Selects the named attributes of the products whose attributes equal the
+     * given values, one map entry per attribute in the order requested.
+     *
+     * @throws IllegalArgumentException for an attribute or sort property that is not a product column
+     */
+    public Mono<Page<Map<String, Object>>> findColumns(List<String> attributes, Map<String, Object> equalTo,
+                                                       Pageable pageable) {
+        String select = attributes.stream()
+                .map(attribute -> column(attribute).name())
+                .collect(Collectors.joining(", "));
+        String where = where(equalTo);
+        StringBuilder sql = new StringBuilder("SELECT ").append(select).append(" FROM products").append(where)
+                .append(orderBy(pageable.getSort()));
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT ").append(pageable.getPageSize()).append(" OFFSET ").append(pageable.getOffset());
+        }
+
+        return bind(databaseClient.sql(sql.toString()), equalTo)
+                .map(row -> readRow(row, attributes))
+                .all()
+                .collectList()
+                .flatMap(content -> toPage(content, pageable, equalTo));
+    }
+
+    /**
+     * Rows of product id, average rating and visible review count, shaped as
+     * {@link ReviewRepository#findRatingStatsByProductIds} returns them.
+     */
+    public Mono<List<Object[]>> findRatingStatsByProductIds(Collection<UUID> productIds) {
+        return databaseClient.sql("SELECT product_id, AVG(rating) AS average_rating, COUNT(*) AS review_count "
+                        + "FROM reviews WHERE product_id IN (:productIds) AND is_visible = TRUE GROUP BY product_id")
+                .bind("productIds", productIds)
+                .map(row -> {
+                    Number average = row.get("average_rating", Number.class);
+                    Number count = row.get("review_count", Number.class);
+                    return new Object[]{row.get("product_id", UUID.class),
+                            average != null ? average.doubleValue() : null,
+                            count != null ? count.longValue() : 0L};
+                })
+                .all()
+                .collectList();
+    }
+
+    /**
+     * Variants of the given products, grouped by product id.
+     */
+    public Mono<Map<UUID, List<ProductVariantResponse>>> findVariantsByProductIds(Collection<UUID> productIds) {
+        return databaseClient.sql("SELECT product_id, id, sku, name, size, color, price_adjustment, stock_quantity, "
+                        + "is_available, created_at, updated_at FROM product_variants "
+                        + "WHERE product_id IN (:productIds) ORDER BY created_at, id")
+                .bind("productIds", productIds)
+                .map(row -> Map.entry(row.get("product_id", UUID.class), ProductVariantResponse.builder()
+                        .id(row.get("id", UUID.class))
+                        .sku(row.get("sku", String.class))
+                        .name(row.get("name", String.class))
+                        .size(row.get("size", String.class))
+                        .color(row.get("color", String.class))
+                        .priceAdjustment(row.get("price_adjustment", BigDecimal.class))
+                        .stockQuantity(row.get("stock_quantity", Integer.class))
+                        .isAvailable(row.get("is_available", Boolean.class))
+                        .createdAt(row.get("created_at", Instant.class))
+                        .updatedAt(row.get("updated_at", Instant.class))
+                        .build()))
+                .all()
+                .collect(Collectors.groupingBy(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toCollection(ArrayList::new))));
+    }
+
+    /**
+     * Every review of the given products, visible or not, grouped by
+     * product id, as the entity's {@code reviews} association holds them.
+     */
+    public Mono<Map<UUID, List<ReviewResponse>>> findReviewsByProductIds(Collection<UUID> productIds) {
+        return databaseClient.sql("SELECT product_id, id, user_id, rating, title, comment, is_verified_purchase, "
+                        + "created_at, updated_at, is_visible FROM reviews "
+                        + "WHERE product_id IN (:productIds) ORDER BY created_at, id")
+                .bind("productIds", productIds)
+                .map(row -> Map.entry(row.get("product_id", UUID.class), ReviewResponse.builder()
+                        .id(row.get("id", UUID.class))
+                        .userId(row.get("user_id", UUID.class))
+                        .rating(row.get("rating", Integer.class))
+                        .title(row.get("title", String.class))
+                        .comment(row.get("comment", String.class))
+                        .isVerifiedPurchase(row.get("is_verified_purchase", Boolean.class))
+                        .createdAt(row.get("created_at", Instant.class))
+                        .updatedAt(row.get("updated_at", Instant.class))
+                        .isVisible(row.get("is_visible", Boolean.class))
+                        .build()))
+                .all()
+                .collect(Collectors.groupingBy(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toCollection(ArrayList::new))));
+    }
+
+    /**
+     * The given categories by id, without their parents and children.
+     */
+    public Mono<Map<UUID, CategoryResponse>> findCategoriesByIds(Collection<UUID> categoryIds) {
+        return databaseClient.sql("SELECT id, name, slug, description, image_url, parent_id, created_at, updated_at, "
+                        + "is_active FROM categories WHERE id IN (:categoryIds)")
+                .bind("categoryIds", categoryIds)
+                .map(row -> CategoryResponse.builder()
+                        .id(row.get("id", UUID.class))
+                        .name(row.get("name", String.class))
+                        .slug(row.get("slug", String.class))
+                        .description(row.get("description", String.class))
+                        .imageUrl(row.get("image_url", String.class))
+                        .parentId(row.get("parent_id", UUID.class))
+                        .children(new ArrayList<>())
+                        .createdAt(row.get("created_at", Instant.class))
+                        .updatedAt(row.get("updated_at", Instant.class))
+                        .isActive(row.get("is_active", Boolean.class))
+                        .build())
+                .all()
+                .collectMap(CategoryResponse::getId);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Disposable pool) {
+            pool.dispose();
+        }
+    }
+
+    /**
+     * Counts only when the page does not reveal the total, as
+     * {@code PageableExecutionUtils} does for the JPA projection.
+     */
+    private Mono<Page<Map<String, Object>>> toPage(List<Map<String, Object>> content, Pageable pageable,
+                                                   Map<String, Object> equalTo) {
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && pageable.getPageSize() > content.size())) {
+            return Mono.just(new PageImpl<>(content, pageable, content.size()));
+        }
+        if (!content.isEmpty() && pageable.getPageSize() > content.size()) {
+            return Mono.just(new PageImpl<>(content, pageable, pageable.getOffset() + content.size()));
+        }
+        return bind(databaseClient.sql("SELECT COUNT(*) AS total FROM products" + where(equalTo)), equalTo)
+                .map(row -> row.get("total", Number.class).longValue())
+                .one()
+                .map(total -> new PageImpl<>(content, pageable, total));
+    }
+
+    private Map<String, Object> readRow(Readable row, List<String> attributes) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            Column column = column(attribute);
+            Object value = row.get(column.name(), column.type());
+            values.put(attribute, "imageUrls".equals(attribute) ? readList((String) value) : value);
+        }
+        return values;
+    }
+
+    private List<String> readList(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, STRING_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable image_urls value", e);
+        }
+    }
+
+    private static String where(Map<String, Object> equalTo) {
+        if (equalTo.isEmpty()) {
+            return "";
+        }
+        return equalTo.keySet().stream()
+                .map(attribute -> column(attribute).name() + " = :" + attribute)
+                .collect(Collectors.joining(" AND ", " WHERE ", ""));
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream()
+                .map(order -> column(order.getProperty()).name() + (order.isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+                                                          Map<String, Object> equalTo) {
+        for (Map.Entry<String, Object> entry : equalTo.entrySet()) {
+            spec = spec.bind(entry.getKey(), entry.getValue());
+        }
+        return spec;
+    }
+
+    private static Column column(String attribute) {
+        Column column = COLUMNS.get(attribute);
+        if (column == null) {
+            throw new IllegalArgumentException("Not a product column: " + attribute);
+        }
+        return column;
+    }
+
+    private record Column(String name, Class<?> type) {
+    }
+}
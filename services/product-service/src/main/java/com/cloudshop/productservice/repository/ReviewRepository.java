@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,5 +28,9 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
     @Query("SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId AND r.isVisible = true")
     Long countByProductId(@Param("productId") UUID productId);
+
+    @Query("SELECT r.product.id, AVG(r.rating), COUNT(r) FROM Review r " +
+           "WHERE r.product.id IN :productIds AND r.isVisible = true GROUP BY r.product.id")
+    List<Object[]> findRatingStatsByProductIds(@Param("productIds") Collection<UUID> productIds);
 }
 
@@ -8,8 +8,10 @@ import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -17,20 +19,38 @@ import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Imports products from CSV. Rows are saved in chunks of {@value #CHUNK_SIZE},
+ * one transaction each, so a duplicate SKU that the {@link SkuFilterService}
+ * let through costs a retry of its chunk row by row and one row error rather
+ * than the whole import.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BulkImportService {
 
+    static final int CHUNK_SIZE = 100;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final ValidationService validationService;
+    private final SpellingSuggestionService spellingSuggestionService;
+    private final SkuFilterService skuFilterService;
+    private final ProductMetrics productMetrics;
+    private final PlatformTransactionManager transactionManager;
+
+    private record ImportRow(int row, ProductRequest request) {
+    }
 
-    @Transactional
     public BulkImportResponse importProducts(MultipartFile file, UUID merchantId) {
+        long start = System.nanoTime();
+        String outcome = ProductMetrics.SUCCESS;
         List<String> errors = new ArrayList<>();
         int successCount = 0;
         int totalRows = 0;
@@ -39,34 +59,44 @@ public class BulkImportService {
             List<String[]> rows = reader.readAll();
             totalRows = rows.size() - 1; // Exclude header
 
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            // Rows of this file are not in the database until their chunk commits
+            Set<String> fileSkus = new HashSet<>();
+
             // Skip header row
             for (int i = 1; i < rows.size(); i++) {
-                String[] row = rows[i];
+                String[] row = rows.get(i);
                 try {
                     ProductRequest request = parseProductRow(row);
                     validationService.validateProductRequest(request);
 
-                    if (productRepository.existsBySku(request.getSku())) {
-                        errors.add("Row " + i + ": SKU already exists: " + request.getSku());
+                    if (!fileSkus.add(request.getSku()) || skuFilterService.skuExists(request.getSku())) {
+                        duplicate(errors, i, request.getSku());
                         continue;
                     }
 
-                    Product product = productMapper.toProduct(request);
-                    product.setMerchantId(merchantId);
-                    productRepository.save(product);
-                    successCount++;
+                    chunk.add(new ImportRow(i, request));
+                    if (chunk.size() == CHUNK_SIZE) {
+                        successCount += saveChunk(chunk, merchantId, errors);
+                        chunk.clear();
+                    }
 
                 } catch (Exception e) {
-                    errors.add("Row " + i + ": " + e.getMessage());
-                    log.error("Error importing row {}: {}", i, e.getMessage());
+                    rowError(errors, i, e);
                 }
             }
+            successCount += saveChunk(chunk, merchantId, errors);
 
         } catch (IOException | CsvException e) {
             errors.add("Error reading CSV file: " + e.getMessage());
             log.error("Error reading CSV file", e);
+            outcome = ProductMetrics.ERROR;
         }
 
+        // Row failures are counted per row; the import itself only fails when the file is unreadable
+        productMetrics.record(ProductMetrics.BULK_IMPORT, outcome, System.nanoTime() - start);
+        productMetrics.summary(ProductMetrics.BULK_IMPORT_SIZE, Math.max(totalRows, 0));
+
         return BulkImportResponse.builder()
                 .totalRows(totalRows)
                 .successCount(successCount)
@@ -75,7 +105,68 @@ public class BulkImportService {
                 .build();
     }
 
-    private ProductRequest parseProductRow(String[] row) {
+    /**
+     * Saves the rows in one transaction, or, when that hits a constraint,
+     * each row in its own so only the conflicting rows fail.
+     *
+     * @return the number of rows saved
+     */
+    private int saveChunk(List<ImportRow> chunk, UUID merchantId, List<String> errors) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            List<Product> saved = transaction.execute(status -> chunk.stream()
+                    .map(row -> productRepository.save(toProduct(row, merchantId)))
+                    .toList());
+            saved.forEach(this::onSaved);
+            return saved.size();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Import chunk of {} rows hit a constraint, saving its rows one by one", chunk.size());
+        }
+
+        int savedCount = 0;
+        for (ImportRow row : chunk) {
+            try {
+                // A fresh entity: the rolled-back chunk left ids on the first ones
+                onSaved(transaction.execute(status -> productRepository.save(toProduct(row, merchantId))));
+                savedCount++;
+            } catch (DataIntegrityViolationException e) {
+                if (SkuFilterService.isSkuConflict(e)) {
+                    duplicate(errors, row.row(), row.request().getSku());
+                } else {
+                    rowError(errors, row.row(), e);
+                }
+            }
+        }
+        return savedCount;
+    }
+
+    private Product toProduct(ImportRow row, UUID merchantId) {
+        Product product = productMapper.toProduct(row.request());
+        product.setMerchantId(merchantId);
+        return product;
+    }
+
+    private void onSaved(Product product) {
+        spellingSuggestionService.onProductNameChanged(null, product.getName());
+        skuFilterService.onSkusAdded(List.of(product.getSku()));
+        productMetrics.count(ProductMetrics.BULK_IMPORT_ROWS, ProductMetrics.SUCCESS, 1);
+    }
+
+    private void duplicate(List<String> errors, int row, String sku) {
+        errors.add("Row " + row + ": SKU already exists: " + sku);
+        productMetrics.count(ProductMetrics.BULK_IMPORT_ROWS, "DUPLICATE", 1);
+    }
+
+    private void rowError(List<String> errors, int row, Exception e) {
+        errors.add("Row " + row + ": " + e.getMessage());
+        log.error("Error importing row {}: {}", row, e.getMessage());
+        productMetrics.count(ProductMetrics.BULK_IMPORT_ROWS, ProductMetrics.ERROR, 1);
+    }
+
+    ProductRequest parseProductRow(String[] row) {
         // CSV format: name, description, sku, price, categoryId, imageUrl
         if (row.length < 4) {
             throw new IllegalArgumentException("Invalid CSV row format");
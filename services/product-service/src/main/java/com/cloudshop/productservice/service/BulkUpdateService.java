@@ -0,0 +1,203 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.BulkUpdateItem;
+import com.cloudshop.productservice.dto.BulkUpdateRequest;
+import com.cloudshop.productservice.dto.BulkUpdateResponse;
+import com.cloudshop.productservice.dto.BulkUpdateResponse.RowResult;
+import com.cloudshop.productservice.dto.BulkUpdateResponse.Status;
+import com.cloudshop.productservice.model.Category;
+import com.cloudshop.productservice.repository.CategoryRepository;
+import com.cloudshop.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Applies price, status and category changes for many SKUs of one merchant.
+ * Rows are written with set-based {@code UPDATE ... FROM (VALUES ...)}
+ * statements in chunks, followed by one bulk partial index update and
+ * eviction of only the affected product cache entries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkUpdateService {
+
+    private static final String UPDATE_PREFIX =
+            "UPDATE products p SET " +
+            "price = COALESCE(v.price, p.price), " +
+            "is_active = COALESCE(v.is_active, p.is_active), " +
+            "category_id = COALESCE(v.category_id, p.category_id), " +
+            "updated_at = clock_timestamp() " +
+            "FROM (VALUES ";
+
+    private static final String UPDATE_SUFFIX =
+            ") AS v(sku, price, is_active, category_id) " +
+            "WHERE p.sku = v.sku AND p.merchant_id = ? " +
+            "RETURNING p.id, p.sku";
+
+    private static final String VALUES_ROW = "(?, CAST(? AS numeric), CAST(? AS boolean), CAST(? AS uuid))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final SearchService searchService;
+    private final CacheManager cacheManager;
+    private final ProductViewService productViewService;
+
+    @Value("${app.bulk-update.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Transactional
+    public BulkUpdateResponse updateProducts(BulkUpdateRequest request, UUID merchantId) {
+        List<BulkUpdateItem> items = request.getItems();
+        RowResult[] results = new RowResult[items.size()];
+        Set<UUID> validCategories = findActiveCategoryIds(items);
+
+        // Rows that pass validation, keyed by SKU; a SKU may appear only once
+        Map<String, Integer> rowBySku = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            BulkUpdateItem item = items.get(i);
+            String error = validate(item, validCategories);
+            if (error == null && rowBySku.containsKey(item.getSku())) {
+                error = "Duplicate SKU in request";
+            }
+            if (error != null) {
+                results[i] = result(i, item, Status.INVALID, null, error);
+            } else {
+                rowBySku.put(item.getSku(), i);
+            }
+        }
+
+        List<Integer> rows = new ArrayList<>(rowBySku.values());
+        Map<String, UUID> updated = new HashMap<>();
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            List<BulkUpdateItem> chunk = rows.subList(start, Math.min(start + chunkSize, rows.size())).stream()
+                    .map(items::get)
+                    .toList();
+            updated.putAll(updateChunk(chunk, merchantId));
+        }
+
+        for (int row : rows) {
+            BulkUpdateItem item = items.get(row);
+            UUID productId = updated.get(item.getSku());
+            results[row] = productId != null
+                    ? result(row, item, Status.UPDATED, productId, null)
+                    : result(row, item, Status.NOT_FOUND, null, "No product with this SKU for merchant");
+        }
+
+        if (!updated.isEmpty()) {
+            List<UUID> ids = List.copyOf(updated.values());
+            searchService.updateProductFields(productRepository.findAllWithVariantsByIdIn(ids));
+            evictProducts(ids);
+            productViewService.evict(ids);
+        }
+
+        log.info("Bulk update for merchant {}: {} rows, {} updated", merchantId, items.size(), updated.size());
+
+        return BulkUpdateResponse.builder()
+                .totalRows(items.size())
+                .updatedCount(updated.size())
+                .failureCount(items.size() - updated.size())
+                .results(List.of(results))
+                .build();
+    }
+
+    private Map<String, UUID> updateChunk(List<BulkUpdateItem> chunk, UUID merchantId) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        List<Object> args = new ArrayList<>(chunk.size() * 4 + 1);
+        for (int i = 0; i < chunk.size(); i++) {
+            BulkUpdateItem item = chunk.get(i);
+            sql.append(i == 0 ? "" : ", ").append(VALUES_ROW);
+            args.add(item.getSku());
+            args.add(item.getPrice());
+            args.add(item.getIsActive());
+            args.add(item.getCategoryId() != null ? item.getCategoryId().toString() : null);
+        }
+        sql.append(UPDATE_SUFFIX);
+        args.add(merchantId);
+
+        Map<String, UUID> updated = new HashMap<>();
+        jdbcTemplate.query(sql.toString(),
+                rs -> {
+                    updated.put(rs.getString("sku"), rs.getObject("id", UUID.class));
+                },
+                args.toArray());
+        return updated;
+    }
+
+    private Set<UUID> findActiveCategoryIds(List<BulkUpdateItem> items) {
+        Set<UUID> requested = items.stream()
+                .map(BulkUpdateItem::getCategoryId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        if (requested.isEmpty()) {
+            return Set.of();
+        }
+        Set<UUID> found = new HashSet<>();
+        for (Category category : categoryRepository.findAllById(requested)) {
+            if (Boolean.TRUE.equals(category.getIsActive())) {
+                found.add(category.getId());
+            }
+        }
+        return found;
+    }
+
+    private String validate(BulkUpdateItem item, Set<UUID> validCategories) {
+        if (item.getPrice() == null && item.getIsActive() == null && item.getCategoryId() == null) {
+            return "Nothing to update";
+        }
+        if (item.getCategoryId() != null && !validCategories.contains(item.getCategoryId())) {
+            return "Category not found: " + item.getCategoryId();
+        }
+        return null;
+    }
+
+    /**
+     * Evicts after commit so a concurrent read cannot re-cache the old row
+     * between the eviction and the commit.
+     */
+    private void evictProducts(List<UUID> ids) {
+        Cache productCache = cacheManager.getCache("product");
+        if (productCache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(productCache::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(productCache::evict);
+            }
+        });
+    }
+
+    private RowResult result(int row, BulkUpdateItem item, Status status, UUID productId, String message) {
+        return RowResult.builder()
+                .row(row)
+                .sku(item.getSku())
+                .status(status)
+                .productId(productId)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the category and hot product caches, including the product read
+ * model, after startup. The readiness
+ * health group includes {@code cacheWarmup}, so the instance only reports
+ * ready once this has finished (or failed, or is disabled).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmupService {
+
+    public enum Status { DISABLED, PENDING, RUNNING, COMPLETED, FAILED }
+
+    private final CategoryService categoryService;
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final ProductViewService productViewService;
+
+    @Value("${app.cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.warmup.source:recent}")
+    private String source;
+
+    @Value("${app.cache.warmup.top-products:500}")
+    private int topProducts;
+
+    @Value("${app.cache.warmup.popular-product-ids:}")
+    private List<UUID> popularProductIds;
+
+    @Value("${app.cache.warmup.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.cache.warmup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private volatile Status status = Status.PENDING;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile int productsTotal;
+    private volatile String error;
+    private final AtomicInteger productsLoaded = new AtomicInteger();
+    private final AtomicInteger categoriesLoaded = new AtomicInteger();
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (!enabled) {
+            status = Status.DISABLED;
+            log.info("Cache warm-up disabled");
+            return;
+        }
+        threadBuilder().name("cache-warmup").start(this::warmUp);
+    }
+
+    public void warmUp() {
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                threadBuilder().name("cache-warmup-", 1).factory());
+        try {
+            categoryService.getAllCategories();
+            categoriesLoaded.incrementAndGet();
+            categoryService.getCategoryTree();
+            categoriesLoaded.incrementAndGet();
+
+            List<UUID> ids = resolveProductIds();
+            productsTotal = ids.size();
+
+            Cache productCache = cacheManager.getCache("product");
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += batchSize) {
+                List<UUID> batch = ids.subList(i, Math.min(i + batchSize, ids.size()));
+                batches.add(CompletableFuture.runAsync(() -> loadBatch(batch, productCache), executor));
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+
+            status = Status.COMPLETED;
+            log.info("Cache warm-up completed: {} categories, {}/{} products in {} ms",
+                    categoriesLoaded.get(), productsLoaded.get(), productsTotal,
+                    Instant.now().toEpochMilli() - startedAt.toEpochMilli());
+        } catch (Exception e) {
+            status = Status.FAILED;
+            error = e.getMessage();
+            log.error("Cache warm-up failed, continuing with cold caches", e);
+        } finally {
+            finishedAt = Instant.now();
+            executor.shutdown();
+        }
+    }
+
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("status", status);
+        progress.put("source", source);
+        progress.put("categoriesLoaded", categoriesLoaded.get());
+        progress.put("productsLoaded", productsLoaded.get());
+        progress.put("productsTotal", productsTotal);
+        if (startedAt != null) {
+            progress.put("startedAt", startedAt);
+        }
+        if (finishedAt != null) {
+            progress.put("finishedAt", finishedAt);
+        }
+        if (error != null) {
+            progress.put("error", error);
+        }
+        return progress;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    private Thread.Builder threadBuilder() {
+        return virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+    }
+
+    private List<UUID> resolveProductIds() {
+        if ("popular".equalsIgnoreCase(source)) {
+            return popularProductIds.stream().limit(topProducts).toList();
+        }
+        return productRepository.findRecentlyUpdatedIds(PageRequest.of(0, topProducts));
+    }
+
+    private void loadBatch(List<UUID> batch, Cache productCache) {
+        try {
+            for (ProductResponse response : productService.getProductsByIds(batch)) {
+                productCache.put(response.getId(), response);
+                productViewService.put(response);
+                productsLoaded.incrementAndGet();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to warm product batch of {} ids: {}", batch.size(), e.getMessage());
+        }
+    }
+}
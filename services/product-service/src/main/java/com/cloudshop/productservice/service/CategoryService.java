@@ -10,7 +10,10 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -23,13 +26,51 @@ public class CategoryService {
     private final ProductMapper productMapper;
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "categories")
+    @Cacheable(value = "categories", sync = true)
     public List<CategoryResponse> getAllCategories() {
         return categoryRepository.findByIsActive(true).stream()
                 .map(productMapper::toCategoryResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Active categories nested under their parents. Deactivating a category
+     * hides its whole subtree: an active category below an inactive one has
+     * no path from a root and is left out, and search then matches its
+     * products by their own category only.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "categoryTree", sync = true)
+    public List<CategoryResponse> getCategoryTree() {
+        // Build the tree from a single flat query instead of walking lazy children
+        Map<UUID, List<CategoryResponse>> childrenByParent = new HashMap<>();
+        List<CategoryResponse> roots = new ArrayList<>();
+
+        for (Category category : categoryRepository.findByIsActive(true)) {
+            UUID parentId = category.getParent() != null ? category.getParent().getId() : null;
+            CategoryResponse node = CategoryResponse.builder()
+                    .id(category.getId())
+                    .name(category.getName())
+                    .slug(category.getSlug())
+                    .description(category.getDescription())
+                    .imageUrl(category.getImageUrl())
+                    .parentId(parentId)
+                    .children(childrenByParent.computeIfAbsent(category.getId(), id -> new ArrayList<>()))
+                    .createdAt(category.getCreatedAt())
+                    .updatedAt(category.getUpdatedAt())
+                    .isActive(category.getIsActive())
+                    .build();
+
+            if (parentId == null) {
+                roots.add(node);
+            } else {
+                childrenByParent.computeIfAbsent(parentId, id -> new ArrayList<>()).add(node);
+            }
+        }
+
+        return roots;
+    }
+
     @Transactional(readOnly = true)
     @Cacheable(value = "category", key = "#id")
     public CategoryResponse getCategoryById(UUID id) {
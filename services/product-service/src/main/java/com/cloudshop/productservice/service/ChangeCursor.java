@@ -0,0 +1,43 @@
+package com.cloudshop.productservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the {@code (updated_at, id)} order of the product change feed.
+ * Encoded as an opaque URL-safe token; a plain ISO-8601 instant is also
+ * accepted as a starting point.
+ */
+public record ChangeCursor(Instant updatedAt, UUID id) {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    public static final ChangeCursor START = new ChangeCursor(Instant.EPOCH, MIN_ID);
+
+    public static ChangeCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+        try {
+            return new ChangeCursor(Instant.parse(value), MIN_ID);
+        } catch (DateTimeParseException e) {
+            // Not an instant, so it should be a cursor token
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":");
+            Instant updatedAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new ChangeCursor(updatedAt, UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid change cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = updatedAt.getEpochSecond() + ":" + updatedAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,49 +1,260 @@
 package com.cloudshop.productservice.service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Ingests product images. Each upload is streamed to a temporary file while
+ * its SHA-256 is computed, and stored under a key derived from that hash, so
+ * identical images uploaded for different products are stored once. JPEG
+ * derivatives are generated for each configured width. Files are processed
+ * in parallel on virtual threads, with decoding limited to
+ * {@code app.images.parallelism} at a time because a decoded image can take
+ * tens of megabytes.
+ */
 @Service
 @Slf4j
 public class ImageService {
 
-    @Value("${app.cdn.base-url}")
-    private String cdnBaseUrl;
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif");
 
-    @Value("${app.cdn.upload-path}")
-    private String uploadPath;
+    private final ImageStorage imageStorage;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore processingPermits;
 
-    public String uploadImage(MultipartFile file, UUID productId) {
-        // In a real implementation, this would:
-        // 1. Validate file type and size
-        // 2. Upload to CDN (S3, CloudFront, etc.)
-        // 3. Return CDN URL
-        
-        log.info("Uploading image for product: {}", productId);
-        
-        // Placeholder implementation
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-        String imageUrl = cdnBaseUrl + "/products/" + productId + "/" + fileName;
-        
-        log.info("Image uploaded to: {}", imageUrl);
-        return imageUrl;
+    @Value("${app.images.derivative-widths:160,480,1024}")
+    private List<Integer> derivativeWidths = List.of(160, 480, 1024);
+
+    @Value("${app.images.jpeg-quality:0.85}")
+    private float jpegQuality = 0.85f;
+
+    @Value("${app.images.max-file-size:10MB}")
+    private DataSize maxFileSize = DataSize.ofMegabytes(10);
+
+    @Value("${app.images.max-pixels:40000000}")
+    private long maxPixels = 40_000_000L;
+
+    public ImageService(ImageStorage imageStorage, @Value("${app.images.parallelism:4}") int parallelism) {
+        this.imageStorage = imageStorage;
+        this.processingPermits = new Semaphore(parallelism);
     }
 
+    /**
+     * Stores the files and their derivatives, returning the URLs of the
+     * originals in upload order.
+     */
     public List<String> uploadImages(List<MultipartFile> files, UUID productId) {
-        return files.stream()
-                .map(file -> uploadImage(file, productId))
-                .collect(Collectors.toList());
+        files.forEach(this::validate);
+        List<CompletableFuture<String>> uploads = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> uploadImage(file, productId), executor))
+                .toList();
+        try {
+            return uploads.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public String uploadImage(MultipartFile file, UUID productId) {
+        validate(file);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("product-image-", ".upload");
+            String hash = copyAndHash(file, temp);
+            String extension = EXTENSIONS.get(file.getContentType());
+            String key = "originals/" + hash.substring(0, 2) + "/" + hash + "." + extension;
+
+            processingPermits.acquire();
+            try {
+                if (!imageStorage.exists(key)) {
+                    storeWithDerivatives(key, hash, temp, file.getContentType());
+                    log.info("Stored image {} for product {}", key, productId);
+                } else {
+                    log.debug("Image {} for product {} already stored", key, productId);
+                }
+            } finally {
+                processingPermits.release();
+            }
+            return imageStorage.urlFor(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image " + file.getOriginalFilename(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while storing image", e);
+        } finally {
+            deleteQuietly(temp);
+        }
     }
 
     public void deleteImage(String imageUrl) {
-        // In a real implementation, this would delete from CDN
+        // Content is shared by every product that uploaded the same image, so it is never deleted here
         log.info("Deleting image: {}", imageUrl);
     }
-}
 
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void validate(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Image file is empty: " + file.getOriginalFilename());
+        }
+        if (!EXTENSIONS.containsKey(file.getContentType())) {
+            throw new IllegalArgumentException("Unsupported image type " + file.getContentType()
+                    + ", expected one of " + EXTENSIONS.keySet());
+        }
+        if (file.getSize() > maxFileSize.toBytes()) {
+            throw new IllegalArgumentException("Image " + file.getOriginalFilename() + " exceeds " + maxFileSize);
+        }
+    }
+
+    private String copyAndHash(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Derivatives are written before the original, so an original that
+     * exists always has its derivatives.
+     */
+    private void storeWithDerivatives(String key, String hash, Path original, String contentType) throws IOException {
+        BufferedImage image = decode(original);
+        for (int width : derivativeWidths) {
+            String derivativeKey = derivativeKey(hash, width);
+            if (imageStorage.exists(derivativeKey)) {
+                continue;
+            }
+            Path derivative = Files.createTempFile("product-image-", ".jpg");
+            try {
+                writeJpeg(resize(image, width), derivative);
+                imageStorage.store(derivativeKey, derivative, "image/jpeg");
+            } finally {
+                deleteQuietly(derivative);
+            }
+        }
+        imageStorage.store(key, original, contentType);
+    }
+
+    /**
+     * Decodes the first frame, checking the dimensions from the header first
+     * so a small file cannot expand into a huge bitmap.
+     */
+    private BufferedImage decode(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("File is not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("Image has " + pixels + " pixels, more than " + maxPixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales to the width keeping the aspect ratio; images are never
+     * enlarged. Transparent areas become white, as JPEG has no alpha.
+     */
+    static BufferedImage resize(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static String derivativeKey(String hash, int width) {
+        return "derivatives/" + hash.substring(0, 2) + "/" + hash + "-" + width + ".jpg";
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.cloudshop.productservice.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where image content is kept. Keys are content-addressed, so a key is
+ * written at most once and its content never changes.
+ */
+public interface ImageStorage {
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Stores the file's content under the key; storing a key that already
+     * exists leaves the existing content in place.
+     */
+    void store(String key, Path file, String contentType) throws IOException;
+
+    /**
+     * Public URL of the content stored under the key.
+     */
+    String urlFor(String key);
+}
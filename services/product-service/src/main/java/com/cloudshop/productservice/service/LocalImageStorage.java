@@ -0,0 +1,71 @@
+package com.cloudshop.productservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Keeps images in a directory tree under {@code app.images.local.root}. A
+ * file is copied next to its final path and then renamed, so readers never
+ * see partial content.
+ */
+@Component
+@ConditionalOnProperty(name = "app.images.storage", havingValue = "local", matchIfMissing = true)
+public class LocalImageStorage implements ImageStorage {
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalImageStorage(@Value("${app.images.local.root:${java.io.tmpdir}/cloudshop-images}") Path root,
+                             @Value("${app.images.base-url:http://localhost:${server.port:3002}/images}") String baseUrl) {
+        this.root = root.toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void store(String key, Path file, String contentType) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path partial = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            Files.copy(file, partial);
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently by another upload of the same content
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    @Override
+    public String urlFor(String key) {
+        return baseUrl + "/" + key;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+        return path;
+    }
+}
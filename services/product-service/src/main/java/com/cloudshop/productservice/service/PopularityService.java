@@ -0,0 +1,313 @@
+package com.cloudshop.productservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Popularity scores with exponential time decay, kept as forward decay: an
+ * event at time {@code t} adds {@code weight * 2^((t - epoch) / halfLife)}
+ * instead of the stored scores shrinking over time. Every score is then
+ * relative to the same epoch, so ordering by the stored value is ordering by
+ * decayed popularity, and the increments of several instances simply add up.
+ *
+ * <p>Increments are summed in memory per product and flushed periodically as
+ * set-based {@code UPDATE ... FROM (VALUES ...)} statements, followed by one
+ * bulk partial index update with the new totals. Increments that have not
+ * been flushed yet are lost when the instance stops.
+ *
+ * <p>Scores double every half-life, so the epoch is moved forward by whole
+ * half-lives once it is {@link #RESCALE_AFTER_HALF_LIVES} old, and every
+ * stored score is divided by the same power of two. The current epoch lives
+ * in the {@code popularity_epoch} row; flushes hold it shared and a rescale
+ * holds it exclusively, so no flush adds deltas computed against an epoch
+ * that has since moved.
+ */
+@Service
+@Slf4j
+public class PopularityService {
+
+    /**
+     * Keeps every score within about 2^64 of its weight, far from the 2^1024
+     * at which a double overflows to infinity.
+     */
+    static final int RESCALE_AFTER_HALF_LIVES = 64;
+
+    private static final String UPDATE_PREFIX =
+            "UPDATE products p SET popularity_score = p.popularity_score + v.delta FROM (VALUES ";
+
+    private static final String UPDATE_SUFFIX =
+            ") AS v(id, delta) WHERE p.id = v.id " +
+            "RETURNING p.id, p.merchant_id, p.popularity_score, p.is_active";
+
+    private static final String VALUES_ROW = "(CAST(? AS uuid), CAST(? AS double precision))";
+
+    private static final String INSERT_EPOCH =
+            "INSERT INTO popularity_epoch (id, epoch) VALUES (1, ?) ON CONFLICT (id) DO NOTHING";
+
+    private static final String SELECT_EPOCH = "SELECT epoch FROM popularity_epoch WHERE id = 1";
+
+    private static final String MOVE_EPOCH = "UPDATE popularity_epoch SET epoch = ? WHERE id = 1";
+
+    private static final String RESCALE =
+            "UPDATE products SET popularity_score = popularity_score * ? WHERE popularity_score <> 0 " +
+            "RETURNING id, merchant_id, popularity_score, is_active";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchService searchService;
+    private final TransactionTemplate transaction;
+    private final Map<UUID, Double> pending = new ConcurrentHashMap<>();
+    // Increments are computed and merged under the read lock, so a pending sum never mixes epochs
+    private final ReadWriteLock epochLock = new ReentrantReadWriteLock();
+
+    @Value("${app.popularity.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.popularity.half-life:7d}")
+    private Duration halfLife = Duration.ofDays(7);
+
+    // Only the starting point: the current epoch is kept in the database and moves forward
+    @Value("${app.popularity.epoch:2026-01-01T00:00:00Z}")
+    private volatile Instant epoch = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Value("${app.popularity.view-weight:1.0}")
+    private double viewWeight = 1.0;
+
+    @Value("${app.popularity.order-weight:10.0}")
+    private double orderWeight = 10.0;
+
+    @Value("${app.popularity.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public PopularityService(JdbcTemplate jdbcTemplate, SearchService searchService,
+                             PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchService = searchService;
+        // Read-write, so the epoch row is always locked on the primary
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Picks up the current epoch and rescales if that is already due.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (!enabled) {
+            return;
+        }
+        if (halfLife.isNegative() || halfLife.isZero()) {
+            throw new IllegalStateException("app.popularity.half-life must be positive: " + halfLife);
+        }
+        transaction.executeWithoutResult(status -> adoptEpoch(lockEpoch(false)));
+        rescaleIfDue();
+        log.info("Popularity scores are relative to {} ({} half-lives ago)", epoch,
+                String.format("%.1f", halfLivesSince(epoch)));
+    }
+
+    public void recordView(UUID productId, Instant at) {
+        add(productId, viewWeight, at);
+    }
+
+    /**
+     * Counts each unit ordered, so an order of three weighs as three orders.
+     */
+    public void recordOrder(UUID productId, int quantity, Instant at) {
+        add(productId, orderWeight * Math.max(quantity, 1), at);
+    }
+
+    /**
+     * Score increment for an event of the given weight; events from the
+     * future (clock skew) count as happening now.
+     */
+    double increment(double weight, Instant at) {
+        Instant now = Instant.now();
+        Instant effective = at == null || at.isAfter(now) ? now : at;
+        return weight * Math.pow(2, halfLivesBetween(epoch, effective));
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    Instant getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Adds the pending increments in one transaction, then sends the new
+     * totals to the index. On failure every increment is kept for the next
+     * flush.
+     */
+    @Scheduled(fixedDelayString = "${app.popularity.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        rescaleIfDue();
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<UUID, Double> deltas = new HashMap<>();
+        List<SearchService.PopularityScore> scores;
+        try {
+            scores = transaction.execute(status -> {
+                // Held until commit, so a rescale elsewhere waits for these deltas
+                adoptEpoch(lockEpoch(false));
+                deltas.putAll(drain());
+                List<UUID> ids = new ArrayList<>(deltas.keySet());
+                List<SearchService.PopularityScore> updated = new ArrayList<>();
+                for (int start = 0; start < ids.size(); start += chunkSize) {
+                    updated.addAll(updateChunk(ids.subList(start, Math.min(start + chunkSize, ids.size())), deltas));
+                }
+                return updated;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to flush popularity for {} products, retrying on the next flush", deltas.size(), e);
+            deltas.forEach((id, delta) -> pending.merge(id, delta, Double::sum));
+            return;
+        }
+        if (!scores.isEmpty()) {
+            searchService.updatePopularityScores(scores);
+        }
+        log.debug("Flushed popularity for {} products", scores.size());
+    }
+
+    /**
+     * Moves the epoch forward by whole half-lives and divides every stored
+     * score by the same power of two, which is exact, so order and ratios
+     * are unchanged. Of several instances only the first to lock the epoch
+     * row rescales; the others find the moved epoch and adopt it.
+     */
+    synchronized void rescaleIfDue() {
+        if (halfLivesSince(epoch) < RESCALE_AFTER_HALF_LIVES) {
+            return;
+        }
+        List<SearchService.PopularityScore> scores = transaction.execute(status -> {
+            Instant current = lockEpoch(true);
+            adoptEpoch(current);
+            long halfLives = (long) Math.floor(halfLivesSince(current));
+            if (halfLives < RESCALE_AFTER_HALF_LIVES) {
+                return List.of();
+            }
+            Instant moved = current.plus(halfLife.multipliedBy(halfLives));
+            jdbcTemplate.update(MOVE_EPOCH, OffsetDateTime.ofInstant(moved, ZoneOffset.UTC));
+            List<SearchService.PopularityScore> rescaled = new ArrayList<>();
+            jdbcTemplate.query(RESCALE, indexedScores(rescaled), Math.scalb(1.0, (int) -halfLives));
+            // A rollback is corrected by the next flush, which adopts the epoch in the row again
+            adoptEpoch(moved);
+            log.info("Moved the popularity epoch forward {} half-lives to {}, rescaling {} products",
+                    halfLives, moved, rescaled.size());
+            return rescaled;
+        });
+        for (int start = 0; start < scores.size(); start += chunkSize) {
+            searchService.updatePopularityScores(scores.subList(start, Math.min(start + chunkSize, scores.size())));
+        }
+    }
+
+    private void add(UUID productId, double weight, Instant at) {
+        epochLock.readLock().lock();
+        try {
+            pending.merge(productId, increment(weight, at), Double::sum);
+        } finally {
+            epochLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The epoch in the database, locked until the current transaction ends;
+     * the row is created from the configured epoch on first use.
+     */
+    private Instant lockEpoch(boolean exclusive) {
+        jdbcTemplate.update(INSERT_EPOCH, OffsetDateTime.ofInstant(epoch, ZoneOffset.UTC));
+        return jdbcTemplate.queryForObject(SELECT_EPOCH + (exclusive ? " FOR UPDATE" : " FOR SHARE"),
+                OffsetDateTime.class).toInstant();
+    }
+
+    /**
+     * Switches to the given epoch, rescaling the increments still pending so
+     * they stay relative to the epoch they will be added under.
+     */
+    private void adoptEpoch(Instant current) {
+        if (current.equals(epoch)) {
+            return;
+        }
+        epochLock.writeLock().lock();
+        try {
+            double factor = Math.pow(2, -halfLivesBetween(epoch, current));
+            pending.replaceAll((id, delta) -> delta * factor);
+            epoch = current;
+        } finally {
+            epochLock.writeLock().unlock();
+        }
+    }
+
+    private double halfLivesSince(Instant from) {
+        return halfLivesBetween(from, Instant.now());
+    }
+
+    private double halfLivesBetween(Instant from, Instant to) {
+        return (double) Duration.between(from, to).toMillis() / halfLife.toMillis();
+    }
+
+    /**
+     * Removes and returns the pending increments; each key is removed
+     * atomically, so an increment racing with the drain lands either in this
+     * flush or the next one.
+     */
+    private Map<UUID, Double> drain() {
+        Map<UUID, Double> deltas = new HashMap<>();
+        for (UUID id : pending.keySet()) {
+            Double delta = pending.remove(id);
+            if (delta != null) {
+                deltas.put(id, delta);
+            }
+        }
+        return deltas;
+    }
+
+    private List<SearchService.PopularityScore> updateChunk(List<UUID> chunk, Map<UUID, Double> deltas) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        List<Object> args = new ArrayList<>(chunk.size() * 2);
+        for (int i = 0; i < chunk.size(); i++) {
+            UUID id = chunk.get(i);
+            sql.append(i == 0 ? "" : ", ").append(VALUES_ROW);
+            args.add(id.toString());
+            args.add(deltas.get(id));
+        }
+        sql.append(UPDATE_SUFFIX);
+
+        List<SearchService.PopularityScore> scores = new ArrayList<>();
+        jdbcTemplate.query(sql.toString(), indexedScores(scores), args.toArray());
+        return scores;
+    }
+
+    private static RowCallbackHandler indexedScores(List<SearchService.PopularityScore> scores) {
+        return rs -> {
+            // Inactive products are not indexed; the column still accrues
+            if (rs.getBoolean("is_active")) {
+                scores.add(new SearchService.PopularityScore(rs.getObject("id", UUID.class),
+                        rs.getObject("merchant_id", UUID.class), rs.getDouble("popularity_score")));
+            }
+        };
+    }
+}
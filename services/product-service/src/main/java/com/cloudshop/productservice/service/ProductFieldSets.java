@@ -0,0 +1,110 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.ProductFieldSet;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses {@code fields=} parameters into {@link ProductFieldSet}s. Named
+ * sets such as {@code card} are built at startup and other parameters are
+ * parsed once and cached by their raw text, so the common selections cost a
+ * map lookup per request. Also writes responses through the set's JSON
+ * filter.
+ */
+@Component
+public class ProductFieldSets {
+
+    /**
+     * Named selections; a name may be combined with further fields, as in
+     * {@code fields=card,description}.
+     */
+    static final Map<String, List<String>> PRESETS = Map.of(
+            // What a product tile renders on mobile
+            "card", List.of("name", "price", "imageUrl", "averageRating", "reviewCount"),
+            "summary", List.of("name", "sku", "price", "categoryId", "imageUrl", "averageRating", "reviewCount",
+                    "minPrice", "maxPrice", "inStock"));
+
+    private static final int MAX_CACHED = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, ProductFieldSet> presets;
+    private final Cache<String, ProductFieldSet> parsed = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED)
+            .build();
+
+    public ProductFieldSets(ObjectMapper objectMapper) {
+        // A copy, so the filter only applies to responses written here
+        this.objectMapper = objectMapper.copy().addMixIn(ProductResponse.class, FilteredProductResponse.class);
+        Map<String, ProductFieldSet> compiled = new HashMap<>();
+        PRESETS.forEach((name, fields) -> compiled.put(name, ProductFieldSet.of(fields)));
+        this.presets = Map.copyOf(compiled);
+    }
+
+    /**
+     * The selection named by the parameter; {@link ProductFieldSet#ALL} when
+     * it is absent or blank.
+     *
+     * @throws IllegalArgumentException for an unknown field
+     */
+    public ProductFieldSet parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ProductFieldSet.ALL;
+        }
+        ProductFieldSet preset = presets.get(fields);
+        if (preset != null) {
+            return preset;
+        }
+        ProductFieldSet cached = parsed.getIfPresent(fields);
+        if (cached != null) {
+            return cached;
+        }
+        // Validate before caching, so invalid parameters cannot fill the cache
+        ProductFieldSet fieldSet = ProductFieldSet.of(expand(fields));
+        parsed.put(fields, fieldSet);
+        return fieldSet;
+    }
+
+    /**
+     * Serializes a response, or a page or list of them, keeping only the
+     * selected product properties.
+     */
+    public byte[] write(Object value, ProductFieldSet fields) {
+        try {
+            return objectMapper.writer(fields.filters()).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product response", e);
+        }
+    }
+
+    private static List<String> expand(String fields) {
+        List<String> expanded = new ArrayList<>();
+        for (String token : fields.split(",")) {
+            String field = token.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            List<String> preset = PRESETS.get(field.toLowerCase(Locale.ROOT));
+            if (preset != null) {
+                expanded.addAll(preset);
+            } else {
+                expanded.add(field);
+            }
+        }
+        return expanded;
+    }
+
+    @JsonFilter(ProductFieldSet.FILTER_ID)
+    private abstract static class FilteredProductResponse {
+    }
+}
@@ -0,0 +1,117 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.model.elasticsearch.ProductDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides where a merchant's product documents live. With routing enabled,
+ * documents in the shared index are routed by {@code merchantId}, so a
+ * merchant-scoped search reads a single shard. Merchants listed as dedicated
+ * get an index of their own ({@code products-merchant-<id>}), which needs no
+ * routing because the whole index belongs to them.
+ *
+ * <p>Enabling routing moves documents to different shards: reindex into a
+ * fresh index, otherwise the unrouted copies linger next to the routed ones.
+ */
+@Component
+@Slf4j
+public class ProductIndexRouter {
+
+    static final String DEDICATED_INDEX_PREFIX = "products-merchant-";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final IndexCoordinates sharedIndex;
+    private final Set<UUID> dedicatedMerchants;
+    private final boolean routingEnabled;
+    private final Set<String> createdIndices = ConcurrentHashMap.newKeySet();
+
+    public ProductIndexRouter(ElasticsearchOperations elasticsearchOperations,
+                              @Value("${app.elasticsearch.index.product:products}") String sharedIndex,
+                              @Value("${app.elasticsearch.routing.enabled:false}") boolean routingEnabled,
+                              @Value("${app.elasticsearch.routing.dedicated-merchants:}") List<UUID> dedicatedMerchants) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.sharedIndex = IndexCoordinates.of(sharedIndex);
+        this.routingEnabled = routingEnabled;
+        this.dedicatedMerchants = Set.copyOf(dedicatedMerchants);
+    }
+
+    /**
+     * Index that holds the merchant's documents.
+     */
+    public IndexCoordinates indexFor(UUID merchantId) {
+        if (merchantId != null && dedicatedMerchants.contains(merchantId)) {
+            return IndexCoordinates.of(DEDICATED_INDEX_PREFIX + merchantId);
+        }
+        return sharedIndex;
+    }
+
+    /**
+     * Routing value for the merchant's documents, or {@code null} to let
+     * Elasticsearch route by id.
+     */
+    public String routingFor(UUID merchantId) {
+        if (!routingEnabled || merchantId == null || dedicatedMerchants.contains(merchantId)) {
+            return null;
+        }
+        return merchantId.toString();
+    }
+
+    /**
+     * The shared index plus every dedicated one, for searches that are not
+     * scoped to a merchant.
+     */
+    public IndexCoordinates allIndices() {
+        Set<String> names = new LinkedHashSet<>(List.of(sharedIndex.getIndexNames()));
+        dedicatedMerchants.forEach(merchantId -> names.add(DEDICATED_INDEX_PREFIX + merchantId));
+        return IndexCoordinates.of(names.toArray(String[]::new));
+    }
+
+    /**
+     * Creates dedicated indices with the product mapping before they are
+     * first used; letting Elasticsearch auto-create them would map the nested
+     * and keyword fields dynamically, and searching a missing index fails.
+     */
+    public IndexCoordinates ensureExists(IndexCoordinates index) {
+        for (String name : index.getIndexNames()) {
+            if (isReady(name)) {
+                continue;
+            }
+            IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(name));
+            if (!indexOps.exists()) {
+                indexOps.create(indexOps.createSettings(ProductDocument.class),
+                        indexOps.createMapping(ProductDocument.class));
+                log.info("Created dedicated product index {}", name);
+            }
+            createdIndices.add(name);
+        }
+        return index;
+    }
+
+    /**
+     * True when {@link #ensureExists} has nothing left to create, so callers
+     * that must not block can skip it.
+     */
+    public boolean isReady(IndexCoordinates index) {
+        for (String name : index.getIndexNames()) {
+            if (!isReady(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isReady(String name) {
+        return !name.startsWith(DEDICATED_INDEX_PREFIX) || createdIndices.contains(name);
+    }
+}
@@ -2,17 +2,26 @@ package com.cloudshop.productservice.service;
 
 import com.cloudshop.productservice.dto.*;
 import com.cloudshop.productservice.model.*;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface ProductMapper {
 
+    @Mapping(target = "categoryPath", ignore = true)
+    @Mapping(target = "minPrice", ignore = true)
+    @Mapping(target = "maxPrice", ignore = true)
+    @Mapping(target = "inStock", ignore = true)
     ProductResponse toProductResponse(Product product);
 
     ProductVariantResponse toProductVariantResponse(ProductVariant variant);
@@ -28,6 +37,7 @@ public interface ProductMapper {
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "variants", ignore = true)
     @Mapping(target = "reviews", ignore = true)
+    @Mapping(target = "popularityScore", ignore = true)
     Product toProduct(ProductRequest request);
 
     @Mapping(target = "id", ignore = true)
@@ -47,6 +57,46 @@ public interface ProductMapper {
         return response;
     }
 
+    /**
+     * Builds a sparse response from a column projection; properties that
+     * were not selected stay null.
+     */
+    default ProductResponse fromColumns(Tuple row) {
+        ProductResponse response = new ProductResponse();
+        for (TupleElement<?> element : row.getElements()) {
+            setColumn(response, element.getAlias(), row.get(element));
+        }
+        return response;
+    }
+
+    /**
+     * As {@link #fromColumns(Tuple)}, for rows keyed by attribute name.
+     */
+    default ProductResponse fromColumns(Map<String, Object> row) {
+        ProductResponse response = new ProductResponse();
+        row.forEach((attribute, value) -> setColumn(response, attribute, value));
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setColumn(ProductResponse response, String attribute, Object value) {
+        switch (attribute) {
+            case "id" -> response.setId((UUID) value);
+            case "merchantId" -> response.setMerchantId((UUID) value);
+            case "name" -> response.setName((String) value);
+            case "description" -> response.setDescription((String) value);
+            case "sku" -> response.setSku((String) value);
+            case "price" -> response.setPrice((BigDecimal) value);
+            case "categoryId" -> response.setCategoryId((UUID) value);
+            case "imageUrl" -> response.setImageUrl((String) value);
+            case "imageUrls" -> response.setImageUrls((List<String>) value);
+            case "createdAt" -> response.setCreatedAt((Instant) value);
+            case "updatedAt" -> response.setUpdatedAt((Instant) value);
+            case "isActive" -> response.setIsActive((Boolean) value);
+            default -> throw new IllegalArgumentException("Not a product column: " + attribute);
+        }
+    }
+
     List<ProductVariantResponse> toProductVariantResponseList(List<ProductVariant> variants);
 
     List<ProductResponse> toProductResponseList(List<Product> products);
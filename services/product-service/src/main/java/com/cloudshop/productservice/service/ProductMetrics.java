@@ -0,0 +1,107 @@
+package com.cloudshop.productservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the work behind product endpoints, so a slow request can be
+ * split into Elasticsearch, database and mapping time. Every meter is tagged
+ * with the endpoint being served (the matched route pattern, or
+ * {@code none} for scheduled and consumer work) and timers and summaries
+ * publish percentile histograms, which Prometheus can aggregate across
+ * instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductMetrics {
+
+    public static final String ELASTICSEARCH_REQUESTS = "product.elasticsearch.requests";
+    public static final String ELASTICSEARCH_BULK_SIZE = "product.elasticsearch.bulk.size";
+    public static final String SEARCH_FALLBACK = "product.search.fallback";
+    public static final String REVIEW_STATS = "product.review.stats";
+    public static final String BULK_IMPORT = "product.bulk.import";
+    public static final String BULK_IMPORT_ROWS = "product.bulk.import.rows";
+    public static final String BULK_IMPORT_SIZE = "product.bulk.import.size";
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String ERROR = "ERROR";
+
+    private static final String NO_ENDPOINT = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Runs the operation and records its duration, tagged {@code ERROR} when
+     * it throws.
+     */
+    public <T> T time(String name, Supplier<T> operation, String... tags) {
+        long start = System.nanoTime();
+        String outcome = ERROR;
+        try {
+            T result = operation.get();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            record(name, outcome, System.nanoTime() - start, tags);
+        }
+    }
+
+    public void run(String name, Runnable operation, String... tags) {
+        time(name, () -> {
+            operation.run();
+            return null;
+        }, tags);
+    }
+
+    public void record(String name, String outcome, long durationNanos, String... tags) {
+        Timer.builder(name)
+                .tags(tags)
+                .tag("endpoint", currentEndpoint())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void count(String name, String outcome, long amount, String... tags) {
+        Counter.builder(name)
+                .tags(tags)
+                .tag("endpoint", currentEndpoint())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(amount);
+    }
+
+    public void summary(String name, double amount, String... tags) {
+        DistributionSummary.builder(name)
+                .tags(tags)
+                .tag("endpoint", currentEndpoint())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(amount);
+    }
+
+    /**
+     * The route pattern Spring MVC matched for the current request, which
+     * keeps the tag's cardinality bounded unlike the raw path.
+     */
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_ENDPOINT;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : NO_ENDPOINT;
+    }
+}
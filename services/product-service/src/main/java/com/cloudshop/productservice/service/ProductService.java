@@ -4,22 +4,35 @@ import com.cloudshop.productservice.dto.*;
 import com.cloudshop.productservice.exception.ResourceNotFoundException;
 import com.cloudshop.productservice.model.Product;
 import com.cloudshop.productservice.model.ProductVariant;
+import com.cloudshop.productservice.repository.ProductChangeView;
 import com.cloudshop.productservice.repository.ProductRepository;
 import com.cloudshop.productservice.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -32,35 +45,130 @@ public class ProductService {
     private final ProductMapper productMapper;
     private final ValidationService validationService;
     private final SearchService searchService;
+    private final ProductViewService productViewService;
+    private final SpellingSuggestionService spellingSuggestionService;
+    private final SkuFilterService skuFilterService;
+    private final ProductMetrics productMetrics;
+    private final CacheManager cacheManager;
+
+    @Value("${app.delta-sync.max-limit:1000}")
+    private int maxChangesLimit = 1000;
+
+    @Value("${app.delta-sync.settle-window:5s}")
+    private Duration changesSettleWindow = Duration.ofSeconds(5);
 
     @Transactional(readOnly = true)
-    public PageResponse<ProductResponse> getAllProducts(int page, int size, String sortBy, String sortDirection) {
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection != null ? sortDirection : "ASC"),
-                sortBy != null ? sortBy : "createdAt");
-        Pageable pageable = PageRequest.of(page, size, sort);
+    public PageResponse<ProductResponse> getAllProducts(int page, int size, String sortBy, String sortDirection,
+                                                        ProductFieldSet fields) {
+        Pageable pageable = listingPageable(page, size, sortBy, sortDirection);
 
+        if (fields.isProjectable()) {
+            return mapToPageResponse(findColumns(Map.of("isActive", true), pageable, fields));
+        }
         Page<Product> productPage = productRepository.findByIsActive(true, pageable);
-        return mapToPageResponse(productPage);
+        return mapToPageResponse(productPage.map(this::withReviewStats));
     }
 
     @Transactional(readOnly = true)
     @Cacheable(value = "product", key = "#id")
     public ProductResponse getProductById(UUID id) {
+        return loadProduct(id);
+    }
+
+    /**
+     * Reads the product without going through the "product" cache. The read
+     * model loads through here: its generation check only catches loads that
+     * started before an eviction, not a stale entry re-cached in "product".
+     */
+    @Transactional(readOnly = true)
+    public ProductResponse loadProduct(UUID id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
-        Double averageRating = reviewRepository.findAverageRatingByProductId(id);
-        Long reviewCount = reviewRepository.countByProductId(id);
+        return withReviewStats(product);
+    }
 
-        return productMapper.toProductResponseWithStats(product, averageRating, reviewCount);
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Object[]> stats = new HashMap<>();
+        List<Object[]> rows = productMetrics.time(ProductMetrics.REVIEW_STATS,
+                () -> reviewRepository.findRatingStatsByProductIds(ids), "query", "batch");
+        for (Object[] row : rows) {
+            stats.put((UUID) row[0], row);
+        }
+
+        return productRepository.findAllWithVariantsByIdIn(ids).stream()
+                .map(product -> {
+                    Object[] row = stats.get(product.getId());
+                    Double averageRating = row != null ? (Double) row[1] : null;
+                    Long reviewCount = row != null ? (Long) row[2] : 0L;
+                    return productMapper.toProductResponseWithStats(product, averageRating, reviewCount);
+                })
+                .toList();
+    }
+
+    /**
+     * Returns products changed after the given cursor in {@code (updatedAt, id)}
+     * order. Soft-deleted products are reported by id only. Rows from the last
+     * few seconds are held back so that a transaction committing late with
+     * an earlier {@code updatedAt} cannot be skipped by a cursor that has
+     * already moved past it.
+     *
+     * <p>Not read-only, so replica routing keeps the feed on the primary: a
+     * lagging replica could be missing rows older than the settle window, and
+     * the cursor would then skip them for good. The window is measured on the
+     * database clock rather than this instance's.
+     */
+    @Transactional
+    public ProductChangesResponse getProductChanges(String since, int limit) {
+        ChangeCursor cursor = ChangeCursor.parse(since);
+        int pageSize = Math.max(1, Math.min(limit, maxChangesLimit));
+        Instant until = productRepository.currentInstant().minus(changesSettleWindow);
+
+        List<ProductChangeView> changes = productRepository.findChangesSince(
+                cursor.updatedAt(), cursor.id(), until, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        List<UUID> changedIds = new ArrayList<>();
+        List<UUID> deletedIds = new ArrayList<>();
+        for (ProductChangeView change : changes) {
+            (Boolean.TRUE.equals(change.getIsActive()) ? changedIds : deletedIds).add(change.getId());
+        }
+
+        // Keep the feed order; the batch load does not preserve it
+        Map<UUID, ProductResponse> loaded = new HashMap<>();
+        getProductsByIds(changedIds).forEach(response -> loaded.put(response.getId(), response));
+        List<ProductResponse> changed = changedIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        ChangeCursor next = cursor;
+        if (!changes.isEmpty()) {
+            ProductChangeView last = changes.get(changes.size() - 1);
+            next = new ChangeCursor(last.getUpdatedAt(), last.getId());
+        }
+
+        return ProductChangesResponse.builder()
+                .changed(changed)
+                .deleted(deletedIds)
+                .nextCursor(next.encode())
+                .hasMore(hasMore)
+                .build();
     }
 
     @Transactional
-    @CacheEvict(value = {"product", "products"}, allEntries = true)
     public ProductResponse createProduct(ProductRequest request, UUID merchantId) {
         validationService.validateProductRequest(request);
 
-        if (productRepository.existsBySku(request.getSku())) {
+        if (skuFilterService.skuExists(request.getSku())) {
             throw new IllegalArgumentException("Product with SKU " + request.getSku() + " already exists");
         }
 
@@ -74,16 +182,18 @@ public class ProductService {
             }
         }
 
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = saveAndFlush(product, request.getSku());
 
         // Index in Elasticsearch
         searchService.indexProduct(savedProduct);
+        spellingSuggestionService.onProductNameChanged(null, savedProduct.getName());
+        skuFilterService.onSkusAdded(skus(savedProduct));
+        evictProductCaches(savedProduct.getId());
 
         return productMapper.toProductResponse(savedProduct);
     }
 
     @Transactional
-    @CacheEvict(value = {"product", "products"}, allEntries = true)
     public ProductResponse updateProduct(UUID id, ProductRequest request, UUID merchantId) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -95,10 +205,20 @@ public class ProductService {
         validationService.validateProductRequest(request);
 
         // Check SKU uniqueness if changed
-        if (!product.getSku().equals(request.getSku()) && productRepository.existsBySku(request.getSku())) {
+        if (!product.getSku().equals(request.getSku()) && skuFilterService.skuExists(request.getSku())) {
             throw new IllegalArgumentException("Product with SKU " + request.getSku() + " already exists");
         }
 
+        // Analyzed text changes need a full reindex; anything else is sent as a partial update
+        boolean textChanged = !Objects.equals(product.getName(), request.getName())
+                || !Objects.equals(product.getDescription(), request.getDescription())
+                || (request.getVariants() != null && !variantNames(product).equals(request.getVariants().stream()
+                        .map(ProductVariantRequest::getName)
+                        .toList()));
+
+        String previousName = product.getName();
+        Set<String> previousSkus = new HashSet<>(skus(product));
+
         // Update basic fields
         product.setName(request.getName());
         product.setDescription(request.getDescription());
@@ -119,16 +239,64 @@ public class ProductService {
             }
         }
 
-        Product updatedProduct = productRepository.save(product);
+        // Flush so updatedAt is set before it is copied to the index
+        Product updatedProduct = saveAndFlush(product, request.getSku());
 
         // Update in Elasticsearch
-        searchService.indexProduct(updatedProduct);
+        if (textChanged) {
+            searchService.indexProduct(updatedProduct);
+        } else {
+            searchService.updateProductFields(List.of(updatedProduct));
+        }
+        evictProductCaches(id);
+        productViewService.evict(id);
+        spellingSuggestionService.onProductNameChanged(previousName, updatedProduct.getName());
+        skuFilterService.onSkusAdded(skus(updatedProduct).stream()
+                .filter(sku -> !previousSkus.contains(sku))
+                .toList());
+
+        return productMapper.toProductResponse(updatedProduct);
+    }
+
+    /**
+     * Fails the same way {@link #updateProductImages} would for a missing
+     * product or another merchant's product, so uploads can be rejected
+     * before any file is stored.
+     */
+    @Transactional(readOnly = true)
+    public void checkCanUpdateProduct(UUID id, UUID merchantId) {
+        UUID owner = productRepository.findMerchantIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+
+        if (!owner.equals(merchantId)) {
+            throw new IllegalArgumentException("You don't have permission to update this product");
+        }
+    }
+
+    /**
+     * Replaces only the image URL list; the rest of the product and the
+     * analyzed text in the index are left alone.
+     */
+    @Transactional
+    public ProductResponse updateProductImages(UUID id, List<String> imageUrls, UUID merchantId) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+
+        if (!product.getMerchantId().equals(merchantId)) {
+            throw new IllegalArgumentException("You don't have permission to update this product");
+        }
+
+        product.setImageUrls(new ArrayList<>(imageUrls));
+        Product updatedProduct = productRepository.saveAndFlush(product);
+
+        searchService.updateProductFields(List.of(updatedProduct));
+        evictProductCaches(id);
+        productViewService.evict(id);
 
         return productMapper.toProductResponse(updatedProduct);
     }
 
     @Transactional
-    @CacheEvict(value = {"product", "products"}, allEntries = true)
     public void deleteProduct(UUID id, UUID merchantId) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -137,37 +305,36 @@ public class ProductService {
             throw new IllegalArgumentException("You don't have permission to delete this product");
         }
 
+        boolean wasActive = Boolean.TRUE.equals(product.getIsActive());
+
         // Soft delete
         product.setIsActive(false);
         productRepository.save(product);
 
         // Remove from Elasticsearch
-        searchService.removeProduct(id);
+        searchService.removeProduct(id, product.getMerchantId());
+        evictProductCaches(id);
+        productViewService.evict(id);
+        if (wasActive) {
+            spellingSuggestionService.onProductNameChanged(product.getName(), null);
+        }
     }
 
     @Transactional(readOnly = true)
     public PageResponse<ProductResponse> searchProducts(ProductSearchRequest searchRequest) {
-        int page = searchRequest.getPage() != null ? searchRequest.getPage() : 0;
-        int size = searchRequest.getSize() != null ? searchRequest.getSize() : 20;
-        String sortBy = searchRequest.getSortBy() != null ? searchRequest.getSortBy() : "createdAt";
-        String sortDirection = searchRequest.getSortDirection() != null ? searchRequest.getSortDirection() : "DESC";
-
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = searchPageable(searchRequest);
 
         Page<Product> productPage;
 
-        // Try Elasticsearch first if query is provided
-        if (searchRequest.getQuery() != null && !searchRequest.getQuery().trim().isEmpty()) {
-            try {
-                return searchService.searchProducts(searchRequest, pageable);
-            } catch (Exception e) {
-                log.warn("Elasticsearch search failed, falling back to database search", e);
-            }
+        // The index carries everything a listing needs, so try Elasticsearch first
+        try {
+            return searchService.searchProducts(searchRequest, pageable);
+        } catch (Exception e) {
+            log.warn("Elasticsearch search failed, falling back to database search", e);
         }
 
-        // Fallback to database search
-        productPage = productRepository.searchProductsWithFilters(
+        // Fallback to database search; variant and stock filters are not applied here
+        productPage = productMetrics.time(ProductMetrics.SEARCH_FALLBACK, () -> productRepository.searchProductsWithFilters(
                 searchRequest.getQuery(),
                 searchRequest.getCategoryId(),
                 searchRequest.getMinPrice(),
@@ -175,36 +342,171 @@ public class ProductService {
                 searchRequest.getMerchantId(),
                 searchRequest.getIsActive() != null ? searchRequest.getIsActive() : true,
                 pageable
-        );
+        ));
 
-        return mapToPageResponse(productPage);
+        return mapToPageResponse(productPage.map(this::withReviewStats));
     }
 
     @Transactional(readOnly = true)
-    public PageResponse<ProductResponse> getProductsByCategory(UUID categoryId, int page, int size) {
+    public PageResponse<ProductResponse> getProductsByCategory(UUID categoryId, int page, int size,
+                                                               ProductFieldSet fields) {
         Pageable pageable = PageRequest.of(page, size);
+        if (fields.isProjectable()) {
+            return mapToPageResponse(findColumns(Map.of("categoryId", categoryId), pageable, fields));
+        }
         Page<Product> productPage = productRepository.findByCategoryId(categoryId, pageable);
-        return mapToPageResponse(productPage);
+        return mapToPageResponse(productPage.map(this::withReviewStats));
     }
 
     @Transactional(readOnly = true)
-    public PageResponse<ProductResponse> getProductsByMerchant(UUID merchantId, int page, int size) {
+    public PageResponse<ProductResponse> getProductsByMerchant(UUID merchantId, int page, int size,
+                                                               ProductFieldSet fields) {
         Pageable pageable = PageRequest.of(page, size);
+        if (fields.isProjectable()) {
+            return mapToPageResponse(findColumns(Map.of("merchantId", merchantId, "isActive", true), pageable, fields));
+        }
         Page<Product> productPage = productRepository.findByMerchantIdAndIsActive(merchantId, true, pageable);
-        return mapToPageResponse(productPage);
+        return mapToPageResponse(productPage.map(this::withReviewStats));
     }
 
-    private PageResponse<ProductResponse> mapToPageResponse(Page<Product> productPage) {
-        List<ProductResponse> productResponses = productPage.getContent().stream()
-                .map(product -> {
-                    Double averageRating = reviewRepository.findAverageRatingByProductId(product.getId());
-                    Long reviewCount = reviewRepository.countByProductId(product.getId());
-                    return productMapper.toProductResponseWithStats(product, averageRating, reviewCount);
-                })
+    private List<String> variantNames(Product product) {
+        return product.getVariants().stream()
+                .map(ProductVariant::getName)
                 .toList();
+    }
+
+    /**
+     * Flushes so a duplicate that the SKU filter missed fails here, as the
+     * same client error as the pre-check, rather than at commit.
+     */
+    private Product saveAndFlush(Product product, String sku) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException e) {
+            if (SkuFilterService.isSkuConflict(e)) {
+                throw new IllegalArgumentException("Product with SKU " + sku + " already exists", e);
+            }
+            throw e;
+        }
+    }
+
+    private List<String> skus(Product product) {
+        List<String> skus = new ArrayList<>();
+        skus.add(product.getSku());
+        product.getVariants().forEach(variant -> skus.add(variant.getSku()));
+        return skus;
+    }
+
+    /**
+     * Evicts after commit so a concurrent read cannot re-cache the old row
+     * between the eviction and the commit. Called before the read model is
+     * evicted, so the caches are cleared by the time the view is dropped.
+     */
+    private void evictProductCaches(UUID id) {
+        Cache productCache = cacheManager.getCache("product");
+        Cache productsCache = cacheManager.getCache("products");
+        Runnable evict = () -> {
+            if (productCache != null) {
+                productCache.evict(id);
+            }
+            if (productsCache != null) {
+                productsCache.clear();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    /**
+     * Maps the public {@code sortBy} names onto entity and document fields.
+     */
+    private static String sortProperty(String sortBy) {
+        if (sortBy == null) {
+            return "createdAt";
+        }
+        return "popularity".equals(sortBy) ? "popularityScore" : sortBy;
+    }
+
+    static Pageable listingPageable(int page, int size, String sortBy, String sortDirection) {
+        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection != null ? sortDirection : "ASC"),
+                sortProperty(sortBy));
+        return PageRequest.of(page, size, sort);
+    }
+
+    static Pageable searchPageable(ProductSearchRequest searchRequest) {
+        int page = searchRequest.getPage() != null ? searchRequest.getPage() : 0;
+        int size = searchRequest.getSize() != null ? searchRequest.getSize() : 20;
+        String sortDirection = searchRequest.getSortDirection() != null ? searchRequest.getSortDirection() : "DESC";
+        return PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDirection),
+                sortProperty(searchRequest.getSortBy())));
+    }
+
+    /**
+     * Loads the rating stats of a single product, two queries per call; on
+     * listings this runs once per product.
+     */
+    private ProductResponse withReviewStats(Product product) {
+        long start = System.nanoTime();
+        String outcome = ProductMetrics.ERROR;
+        Double averageRating;
+        Long reviewCount;
+        try {
+            averageRating = reviewRepository.findAverageRatingByProductId(product.getId());
+            reviewCount = reviewRepository.countByProductId(product.getId());
+            outcome = ProductMetrics.SUCCESS;
+        } finally {
+            productMetrics.record(ProductMetrics.REVIEW_STATS, outcome, System.nanoTime() - start, "query", "per_product");
+        }
+        return productMapper.toProductResponseWithStats(product, averageRating, reviewCount);
+    }
+
+    /**
+     * Reads only the selected columns of the matching products, plus their
+     * review stats in one batch when those are selected, without loading
+     * entities, variants or reviews.
+     */
+    private Page<ProductResponse> findColumns(Map<String, Object> equalTo, Pageable pageable, ProductFieldSet fields) {
+        Page<ProductResponse> page = productRepository.findColumns(fields.columns(), equalTo, pageable)
+                .map(productMapper::fromColumns);
+        if (fields.needsReviewStats() && page.hasContent()) {
+            List<UUID> ids = page.getContent().stream().map(ProductResponse::getId).toList();
+            List<Object[]> rows = productMetrics.time(ProductMetrics.REVIEW_STATS,
+                    () -> reviewRepository.findRatingStatsByProductIds(ids), "query", "batch");
+            applyRatingStats(page.getContent(), rows);
+        }
+        return page;
+    }
+
+    /**
+     * Sets the rating stats from {@code findRatingStatsByProductIds} rows;
+     * products without visible reviews get a count of zero.
+     */
+    static void applyRatingStats(List<ProductResponse> products, List<Object[]> rows) {
+        Map<UUID, ProductResponse> byId = new HashMap<>();
+        products.forEach(response -> {
+            response.setReviewCount(0);
+            byId.put(response.getId(), response);
+        });
+        for (Object[] row : rows) {
+            ProductResponse response = byId.get((UUID) row[0]);
+            if (row[1] != null) {
+                response.setAverageRating(BigDecimal.valueOf((Double) row[1]));
+            }
+            response.setReviewCount(((Long) row[2]).intValue());
+        }
+    }
 
+    static PageResponse<ProductResponse> mapToPageResponse(Page<ProductResponse> productPage) {
         return PageResponse.<ProductResponse>builder()
-                .content(productResponses)
+                .content(productPage.getContent())
                 .page(productPage.getNumber())
                 .size(productPage.getSize())
                 .totalElements(productPage.getTotalElements())
@@ -0,0 +1,279 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read model for the product detail endpoint. Each product is stored in a
+ * Redis hash holding the rendered {@link ProductResponse} JSON, its gzip
+ * variant and an ETag, so a hit is one HMGET and the bytes go straight to the
+ * response without deserializing or re-encoding.
+ *
+ * <p>Evicting a product also writes a new generation token into its hash. A
+ * reader that missed notes the token before loading and, after storing its
+ * view, drops the view again if the token changed meanwhile: the load may
+ * predate the write whose eviction it raced with.
+ */
+@Service
+@Slf4j
+public class ProductViewService {
+
+    static final String KEY_PREFIX = "product:view:";
+    private static final String FIELD_JSON = "json";
+    private static final String FIELD_GZIP = "gzip";
+    private static final String FIELD_ETAG = "etag";
+    static final String FIELD_GENERATION = "generation";
+    static final List<String> FIELDS = List.of(FIELD_JSON, FIELD_GZIP, FIELD_ETAG);
+    static final List<String> LOOKUP_FIELDS = List.of(FIELD_JSON, FIELD_GZIP, FIELD_ETAG, FIELD_GENERATION);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final HashOperations<String, String, byte[]> hashOperations;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public ProductViewService(@Qualifier("binaryRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${app.cache.product.ttl:3600}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.hashOperations = redisTemplate.opsForHash();
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    public ProductView getProductView(UUID id, Function<UUID, ProductResponse> loader) {
+        String key = KEY_PREFIX + id;
+        byte[] generation = null;
+        try {
+            List<byte[]> values = hashOperations.multiGet(key, LOOKUP_FIELDS);
+            if (values.size() == LOOKUP_FIELDS.size()) {
+                ProductView stored = fromHash(values.subList(0, FIELDS.size()));
+                if (stored != null) {
+                    return stored;
+                }
+                generation = values.get(FIELDS.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Product view lookup failed for {}: {}", id, e.getMessage());
+        }
+
+        ProductView view = render(loader.apply(id));
+        store(id, view, generation);
+        return view;
+    }
+
+    /**
+     * Stores a view loaded without a prior lookup. It is kept only for
+     * products not evicted within the TTL, since the load may predate an
+     * eviction.
+     */
+    public void put(ProductResponse response) {
+        store(response.getId(), render(response), null);
+    }
+
+    /**
+     * Drops the stored views, deferred until commit when called inside a
+     * transaction so a concurrent read cannot store the pre-commit state.
+     */
+    public void evict(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete(ids);
+                }
+            });
+        } else {
+            delete(ids);
+        }
+    }
+
+    public void evict(UUID id) {
+        evict(List.of(id));
+    }
+
+    public ProductView render(ProductResponse response) {
+        try {
+            return ProductView.of(objectMapper.writeValueAsBytes(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render product " + response.getId(), e);
+        }
+    }
+
+    Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * The {@link #FIELDS} of a read model hash holding the view.
+     */
+    static Map<String, byte[]> toHash(ProductView view) {
+        return Map.of(
+                FIELD_JSON, view.json(),
+                FIELD_GZIP, view.gzip(),
+                FIELD_ETAG, view.etag().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * The view held in the {@link #FIELDS} of a read model hash, or null
+     * when any of them is missing.
+     */
+    static ProductView fromHash(List<byte[]> values) {
+        if (values.size() != FIELDS.size() || values.stream().anyMatch(value -> value == null)) {
+            return null;
+        }
+        return new ProductView(values.get(0), values.get(1), new String(values.get(2), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Stores the view, then removes it again if the generation is no longer
+     * the one read before loading it.
+     */
+    private void store(UUID id, ProductView view, byte[] generation) {
+        String key = KEY_PREFIX + id;
+        try {
+            hashOperations.putAll(key, toHash(view));
+            redisTemplate.expire(key, ttl);
+            if (!Arrays.equals(generation, hashOperations.get(key, FIELD_GENERATION))) {
+                hashOperations.delete(key, FIELD_JSON, FIELD_GZIP, FIELD_ETAG);
+                log.debug("Dropped product view for {} stored across an eviction", id);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to store product view for {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the generation before dropping the view fields, so a refill
+     * that read the old generation notices. The generation outlives the
+     * view by the TTL.
+     */
+    private void delete(Collection<UUID> ids) {
+        byte[] generation = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+        byte[] generationField = FIELD_GENERATION.getBytes(StandardCharsets.UTF_8);
+        byte[][] viewFields = FIELDS.stream().map(field -> field.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (UUID id : ids) {
+                    byte[] key = (KEY_PREFIX + id).getBytes(StandardCharsets.UTF_8);
+                    connection.hashCommands().hSet(key, generationField, generation);
+                    connection.hashCommands().hDel(key, viewFields);
+                    connection.keyCommands().pExpire(key, ttl.toMillis());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict {} product views: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rendered product. The gzip variant has its own ETag so the two
+     * encodings are never confused by caches between us and the client.
+     *
+     * <p>The ETag is hashed once when the body is rendered. The gzip copy is
+     * compressed on first use, so a per-request rendering sent uncompressed
+     * never pays for it; views read from the hash carry their stored copy.
+     */
+    public static final class ProductView {
+
+        private final byte[] json;
+        private final String etag;
+        private volatile byte[] gzip;
+
+        public ProductView(byte[] json, byte[] gzip, String etag) {
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+        }
+
+        public static ProductView of(byte[] json) {
+            return new ProductView(json, null, etag(json));
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        /**
+         * The gzip copy, compressed now if this view was rendered without one.
+         */
+        public byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = gzip(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+
+        /**
+         * True if an {@code If-None-Match} header names either variant.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            String gzipEtag = gzipEtag();
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag));
+        }
+
+        private static byte[] gzip(byte[] json) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 3 + 32);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        private static String etag(byte[] json) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+                return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
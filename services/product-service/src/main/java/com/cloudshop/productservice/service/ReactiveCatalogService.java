@@ -0,0 +1,248 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductFieldSet;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductSearchRequest;
+import com.cloudshop.productservice.exception.ResourceNotFoundException;
+import com.cloudshop.productservice.model.elasticsearch.ProductDocument;
+import com.cloudshop.productservice.repository.ReactiveProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * Catalog reads for the reactive port: product detail from the Redis read
+ * model, listings over R2DBC and searches from Elasticsearch, none of which
+ * hold a thread while waiting. Products are read as their columns plus one
+ * batched query per association the response needs, and render to the same
+ * documents as the servlet path. Only the search fallback, when
+ * Elasticsearch fails, runs the servlet path's {@link ProductService} on the
+ * blocking scheduler.
+ */
+@Slf4j
+public class ReactiveCatalogService {
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final ReactiveHashOperations<String, String, byte[]> readModel;
+    private final ReactiveProductRepository productRepository;
+    private final ReactiveElasticsearchOperations elasticsearchOperations;
+    private final ProductService productService;
+    private final ProductViewService productViewService;
+    private final SearchService searchService;
+    private final SearchResultCache searchResultCache;
+    private final ProductIndexRouter indexRouter;
+    private final ProductFieldSets productFieldSets;
+    private final ProductMapper productMapper;
+    private final ProductMetrics productMetrics;
+    private final Scheduler blockingScheduler;
+
+    public ReactiveCatalogService(ReactiveRedisTemplate<String, byte[]> redisTemplate,
+                                  ReactiveProductRepository productRepository,
+                                  ReactiveElasticsearchOperations elasticsearchOperations,
+                                  ProductService productService,
+                                  ProductViewService productViewService,
+                                  SearchService searchService,
+                                  SearchResultCache searchResultCache,
+                                  ProductIndexRouter indexRouter,
+                                  ProductFieldSets productFieldSets,
+                                  ProductMapper productMapper,
+                                  ProductMetrics productMetrics,
+                                  Scheduler blockingScheduler) {
+        this.redisTemplate = redisTemplate;
+        this.readModel = redisTemplate.opsForHash();
+        this.productRepository = productRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.productService = productService;
+        this.productViewService = productViewService;
+        this.searchService = searchService;
+        this.searchResultCache = searchResultCache;
+        this.indexRouter = indexRouter;
+        this.productFieldSets = productFieldSets;
+        this.productMapper = productMapper;
+        this.productMetrics = productMetrics;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * The rendered product: the stored read model view for the full
+     * document, otherwise rendered per request.
+     */
+    public Mono<ProductViewService.ProductView> getProductView(UUID id, ProductFieldSet fields) {
+        if (!fields.isAll()) {
+            return Mono.defer(() -> findProduct(id, fields))
+                    .map(product -> ProductViewService.ProductView.of(productFieldSets.write(product, fields)));
+        }
+        return readModel.multiGet(ProductViewService.KEY_PREFIX + id, ProductViewService.LOOKUP_FIELDS)
+                .onErrorResume(e -> {
+                    log.warn("Product view lookup failed for {}: {}", id, e.getMessage());
+                    return Mono.just(List.of());
+                })
+                .defaultIfEmpty(List.of())
+                .flatMap(values -> {
+                    if (values.size() != ProductViewService.LOOKUP_FIELDS.size()) {
+                        return refill(id, null);
+                    }
+                    ProductViewService.ProductView stored =
+                            ProductViewService.fromHash(values.subList(0, ProductViewService.FIELDS.size()));
+                    return stored != null ? Mono.just(stored)
+                            : refill(id, values.get(ProductViewService.FIELDS.size()));
+                });
+    }
+
+    public Mono<PageResponse<ProductResponse>> getAllProducts(int page, int size, String sortBy, String sortDirection,
+                                                              ProductFieldSet fields) {
+        return Mono.defer(() -> findProducts(Map.of("isActive", true),
+                ProductService.listingPageable(page, size, sortBy, sortDirection), fields))
+                .map(ProductService::mapToPageResponse);
+    }
+
+    public Mono<PageResponse<ProductResponse>> getProductsByCategory(UUID categoryId, int page, int size,
+                                                                     ProductFieldSet fields) {
+        return Mono.defer(() -> findProducts(Map.of("categoryId", categoryId), PageRequest.of(page, size), fields))
+                .map(ProductService::mapToPageResponse);
+    }
+
+    public Mono<PageResponse<ProductResponse>> getProductsByMerchant(UUID merchantId, int page, int size,
+                                                                     ProductFieldSet fields) {
+        return Mono.defer(() -> findProducts(Map.of("merchantId", merchantId, "isActive", true),
+                PageRequest.of(page, size), fields))
+                .map(ProductService::mapToPageResponse);
+    }
+
+    /**
+     * A page of products with the selected properties: the columns in one
+     * query, then variants, reviews, categories and review stats for the
+     * whole page in one query each, as far as the selection includes them.
+     */
+    private Mono<Page<ProductResponse>> findProducts(Map<String, Object> equalTo, Pageable pageable,
+                                                     ProductFieldSet fields) {
+        List<String> columns = new ArrayList<>(fields.columns());
+        if (fields.contains("category") && !columns.contains("categoryId")) {
+            // Needed to look the category up; the response filter drops it unless selected
+            columns.add("categoryId");
+        }
+        return productRepository.findColumns(columns, equalTo, pageable)
+                .map(page -> page.map(productMapper::fromColumns))
+                .flatMap(page -> page.hasContent()
+                        ? withAssociations(page.getContent(), fields).thenReturn(page)
+                        : Mono.just(page));
+    }
+
+    private Mono<ProductResponse> findProduct(UUID id, ProductFieldSet fields) {
+        return findProducts(Map.of("id", id), Pageable.unpaged(), fields)
+                .flatMap(page -> Mono.justOrEmpty(page.getContent().stream().findFirst()))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found with id: " + id)));
+    }
+
+    private Mono<Void> withAssociations(List<ProductResponse> products, ProductFieldSet fields) {
+        List<UUID> ids = products.stream().map(ProductResponse::getId).toList();
+        List<Mono<?>> loads = new ArrayList<>();
+        if (fields.contains("variants")) {
+            loads.add(productRepository.findVariantsByProductIds(ids).doOnNext(variants -> products.forEach(product ->
+                    product.setVariants(variants.getOrDefault(product.getId(), new ArrayList<>())))));
+        }
+        if (fields.contains("reviews")) {
+            loads.add(productRepository.findReviewsByProductIds(ids).doOnNext(reviews -> products.forEach(product ->
+                    product.setReviews(reviews.getOrDefault(product.getId(), new ArrayList<>())))));
+        }
+        List<UUID> categoryIds = products.stream().map(ProductResponse::getCategoryId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (fields.contains("category") && !categoryIds.isEmpty()) {
+            loads.add(productRepository.findCategoriesByIds(categoryIds).doOnNext(categories ->
+                    products.forEach(product -> product.setCategory(categories.get(product.getCategoryId())))));
+        }
+        if (fields.needsReviewStats()) {
+            loads.add(timed(ProductMetrics.REVIEW_STATS, productRepository.findRatingStatsByProductIds(ids),
+                    "query", "batch").doOnNext(rows -> ProductService.applyRatingStats(products, rows)));
+        }
+        return Mono.when(loads);
+    }
+
+    /**
+     * Loads, renders and stores the full product after a read model miss.
+     * As in {@link ProductViewService}, the view is dropped again if the
+     * generation read before loading has changed meanwhile.
+     */
+    private Mono<ProductViewService.ProductView> refill(UUID id, byte[] generation) {
+        String key = ProductViewService.KEY_PREFIX + id;
+        return findProduct(id, ProductFieldSet.ALL)
+                .map(productViewService::render)
+                .flatMap(view -> readModel.putAll(key, ProductViewService.toHash(view))
+                        .then(redisTemplate.expire(key, productViewService.getTtl()))
+                        .then(readModel.get(key, ProductViewService.FIELD_GENERATION).map(Optional::of)
+                                .defaultIfEmpty(Optional.empty()))
+                        .flatMap(current -> Arrays.equals(generation, current.orElse(null))
+                                ? Mono.empty()
+                                : readModel.remove(key, ProductViewService.FIELDS.toArray()).doOnNext(removed ->
+                                        log.debug("Dropped product view for {} stored across an eviction", id)))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to store product view for {}: {}", id, e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(view));
+    }
+
+    /**
+     * Searches the index without blocking, through the shared search result
+     * cache. If Elasticsearch fails the servlet path runs instead, which
+     * retries and then falls back to the database.
+     */
+    public Mono<PageResponse<ProductResponse>> searchProducts(ProductSearchRequest searchRequest) {
+        return Mono.defer(() -> {
+                    Pageable pageable = ProductService.searchPageable(searchRequest);
+                    return searchResultCache.getReactive(searchRequest, pageable, () -> search(searchRequest, pageable));
+                })
+                .onErrorResume(e -> !(e instanceof IllegalArgumentException), e -> {
+                    log.warn("Reactive Elasticsearch search failed, using the servlet search path", e);
+                    return blocking(() -> productService.searchProducts(searchRequest));
+                });
+    }
+
+    private Mono<PageResponse<ProductResponse>> search(ProductSearchRequest searchRequest, Pageable pageable) {
+        CriteriaQuery query = searchService.buildQuery(searchRequest, pageable);
+        IndexCoordinates index = searchService.searchIndex(searchRequest);
+        // Creating a dedicated index blocks, and only happens on its first search
+        Mono<IndexCoordinates> target = indexRouter.isReady(index)
+                ? Mono.just(index)
+                : blocking(() -> indexRouter.ensureExists(index));
+        return target.flatMap(coordinates -> timed(ProductMetrics.ELASTICSEARCH_REQUESTS,
+                        elasticsearchOperations.searchForPage(query, ProductDocument.class, coordinates),
+                        "operation", "search"))
+                .map(searchPage -> searchService.toPageResponse(searchPage.getSearchHits(), searchRequest, pageable));
+    }
+
+    private <T> Mono<T> timed(String name, Mono<T> operation, String... tags) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return operation
+                    .doOnSuccess(result -> productMetrics.record(name, ProductMetrics.SUCCESS,
+                            System.nanoTime() - start, tags))
+                    .doOnError(e -> productMetrics.record(name, ProductMetrics.ERROR,
+                            System.nanoTime() - start, tags));
+        });
+    }
+
+    private <T> Mono<T> blocking(Callable<T> operation) {
+        return Mono.fromCallable(operation).subscribeOn(blockingScheduler);
+    }
+}
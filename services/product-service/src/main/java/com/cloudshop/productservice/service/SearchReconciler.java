@@ -0,0 +1,302 @@
+package com.cloudshop.productservice.service;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.json.JsonData;
+import com.cloudshop.productservice.dto.ReconciliationReport;
+import com.cloudshop.productservice.model.Product;
+import com.cloudshop.productservice.model.elasticsearch.ProductDocument;
+import com.cloudshop.productservice.repository.ProductChangeView;
+import com.cloudshop.productservice.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Anti-entropy between the {@code products} table and the search index.
+ * Both sides are summarized per id-prefix bucket as (count, sum of
+ * updatedAt millis, sum of {@code syncHash}): a GROUP BY over active
+ * products, and a terms aggregation over every indexed document, since only
+ * active products belong in the index. Only buckets whose checksums differ are fetched and
+ * compared row by row, so the data moved and the repair work scale with the
+ * drift rather than the catalog.
+ *
+ * <p>{@code syncHash} folds the low 32 bits of the id into each row, so a
+ * missing and an orphaned document with equal timestamps no longer cancel
+ * out; they would also need ids ending in the same eight hex digits.
+ *
+ * <p>Rows touched within the settle window are left alone; they are
+ * usually being indexed right now and are picked up on a later run.
+ */
+@Service
+@Slf4j
+public class SearchReconciler {
+
+    private static final String BUCKETS = "buckets";
+    private static final String UPDATED_SUM = "updatedSum";
+    private static final String SYNC_SUM = "syncSum";
+    private static final String[] SYNC_FIELDS = {"id", "merchantId", "updatedAt", "isActive"};
+
+    private final ProductRepository productRepository;
+    private final SearchService searchService;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductIndexRouter indexRouter;
+    private final TransactionTemplate primaryRead;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReconciliationReport lastReport;
+
+    @Value("${app.search.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.reconcile.settle-window:30s}")
+    private Duration settleWindow;
+
+    @Value("${app.search.reconcile.max-buckets-per-run:256}")
+    private int maxBucketsPerRun;
+
+    @Value("${app.search.reconcile.legacy-batch-size:1000}")
+    private int legacyBatchSize;
+
+    public SearchReconciler(ProductRepository productRepository, SearchService searchService,
+                            ElasticsearchOperations elasticsearchOperations, ProductIndexRouter indexRouter,
+                            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.searchService = searchService;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.indexRouter = indexRouter;
+        // Read-write so that drill-down reads go to the primary, not a lagging replica
+        this.primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.search.reconcile.initial-delay-ms:60000}",
+               fixedDelayString = "${app.search.reconcile.interval-ms:600000}")
+    public void scheduledReconcile() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Search reconciliation already running");
+            return lastReport;
+        }
+        Drift drift = new Drift();
+        ReconciliationReport.ReconciliationReportBuilder report = ReconciliationReport.builder()
+                .startedAt(Instant.now());
+        try {
+            drift.legacy = reconcileLegacyDocuments();
+
+            Map<String, Checksum> database = databaseChecksums();
+            Map<String, Checksum> index = indexChecksums();
+            Set<String> buckets = new TreeSet<>(database.keySet());
+            buckets.addAll(index.keySet());
+
+            List<String> mismatched = buckets.stream()
+                    .filter(bucket -> !Objects.equals(database.get(bucket), index.get(bucket)))
+                    .toList();
+            mismatched.stream().limit(maxBucketsPerRun).forEach(bucket -> reconcileBucket(bucket, drift));
+
+            report.bucketsCompared(buckets.size()).mismatchedBuckets(mismatched);
+        } catch (Exception e) {
+            log.error("Search reconciliation failed", e);
+            report.error(e.getMessage());
+        } finally {
+            lastReport = report
+                    .finishedAt(Instant.now())
+                    .missingInIndex(drift.missing)
+                    .staleInIndex(drift.stale)
+                    .orphanedInIndex(drift.orphaned)
+                    .legacyDocuments(drift.legacy)
+                    .skippedRecent(drift.skipped)
+                    .build();
+            running.set(false);
+        }
+
+        ReconciliationReport result = lastReport;
+        if (result.getMismatchedBuckets() != null && !result.getMismatchedBuckets().isEmpty()) {
+            log.warn("Search index drift: {} of {} buckets differ, {} missing, {} stale, {} orphaned, {} legacy, {} skipped",
+                    result.getMismatchedBuckets().size(), result.getBucketsCompared(), result.getMissingInIndex(),
+                    result.getStaleInIndex(), result.getOrphanedInIndex(), result.getLegacyDocuments(),
+                    result.getSkippedRecent());
+        } else {
+            log.info("Search index in sync across {} buckets", result.getBucketsCompared());
+        }
+        return result;
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    private Map<String, Checksum> databaseChecksums() {
+        Map<String, Checksum> checksums = new HashMap<>();
+        for (Object[] row : productRepository.findActiveBucketChecksums(searchService.getIdBucketLength())) {
+            checksums.put((String) row[0], new Checksum(((Number) row[1]).longValue(), ((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue()));
+        }
+        return checksums;
+    }
+
+    private Map<String, Checksum> indexChecksums() {
+        int bucketCount = 1 << (4 * searchService.getIdBucketLength());
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.matchAll(m -> m))
+                .withAggregation(BUCKETS, Aggregation.of(a -> a
+                        .terms(t -> t.field("idBucket").size(bucketCount))
+                        .aggregations(UPDATED_SUM, Aggregation.of(s -> s.sum(sum -> sum.field("updatedAt"))))
+                        .aggregations(SYNC_SUM, Aggregation.of(s -> s.sum(sum -> sum.field("syncHash"))))))
+                .withMaxResults(0)
+                .build();
+        SearchHits<ProductDocument> hits = elasticsearchOperations.search(query, ProductDocument.class, indexes());
+
+        Map<String, Checksum> checksums = new HashMap<>();
+        ElasticsearchAggregations aggregations = (ElasticsearchAggregations) hits.getAggregations();
+        if (aggregations == null) {
+            return checksums;
+        }
+        for (StringTermsBucket bucket : aggregations.get(BUCKETS).aggregation().getAggregate().sterms().buckets().array()) {
+            long updatedSum = Math.round(bucket.aggregations().get(UPDATED_SUM).sum().value());
+            long syncSum = Math.round(bucket.aggregations().get(SYNC_SUM).sum().value());
+            checksums.put(bucket.key().stringValue(), new Checksum(bucket.docCount(), updatedSum, syncSum));
+        }
+        return checksums;
+    }
+
+    private void reconcileBucket(String bucket, Drift drift) {
+        List<ProductChangeView> rows = primaryRead.execute(status ->
+                productRepository.findSyncStateByIdBetween(bucketBound(bucket, '0'), bucketBound(bucket, 'f')));
+        Map<UUID, ProductDocument> documents = indexedDocuments(bucket);
+        Instant settled = Instant.now().minus(settleWindow);
+
+        List<UUID> upserts = new ArrayList<>();
+        Map<UUID, UUID> deletes = new HashMap<>();
+        for (ProductChangeView row : rows) {
+            ProductDocument document = documents.remove(row.getId());
+            if (row.getUpdatedAt().isAfter(settled)
+                    || (document != null && document.getUpdatedAt() != null && document.getUpdatedAt().isAfter(settled))) {
+                drift.skipped++;
+            } else if (!Boolean.TRUE.equals(row.getIsActive())) {
+                if (document != null) {
+                    deletes.put(row.getId(), document.getMerchantId());
+                    drift.orphaned++;
+                }
+            } else if (document == null) {
+                upserts.add(row.getId());
+                drift.missing++;
+            } else if (!Boolean.TRUE.equals(document.getIsActive()) || document.getUpdatedAt() == null
+                    || document.getUpdatedAt().toEpochMilli() != row.getUpdatedAt().toEpochMilli()) {
+                upserts.add(row.getId());
+                drift.stale++;
+            }
+        }
+        // Whatever is left is indexed but no longer in the table at all
+        documents.values().forEach(document -> deletes.put(document.getId(), document.getMerchantId()));
+        drift.orphaned += documents.size();
+
+        if (!upserts.isEmpty()) {
+            List<Product> products = primaryRead.execute(status -> productRepository.findAllWithVariantsByIdIn(upserts));
+            searchService.reindexProducts(products);
+        }
+        if (!deletes.isEmpty()) {
+            searchService.removeProducts(deletes);
+        }
+        log.debug("Reconciled bucket {}: {} upserts, {} deletes", bucket, upserts.size(), deletes.size());
+    }
+
+    private Map<UUID, ProductDocument> indexedDocuments(String bucket) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.term(t -> t.field("idBucket").value(bucket)))
+                .withSourceFilter(new FetchSourceFilter(SYNC_FIELDS, null))
+                .build();
+        Map<UUID, ProductDocument> documents = new HashMap<>();
+        try (SearchHitsIterator<ProductDocument> hits = elasticsearchOperations.searchForStream(query, ProductDocument.class, indexes())) {
+            hits.forEachRemaining(hit -> documents.put(hit.getContent().getId(), hit.getContent()));
+        }
+        return documents;
+    }
+
+    /**
+     * Documents written with an older layout (including those without
+     * {@code idBucket}, which the bucket comparison cannot see) are rewritten
+     * or removed a batch per run.
+     */
+    private int reconcileLegacyDocuments() {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.mustNot(m -> m.range(r -> r
+                        .field("docVersion")
+                        .gte(JsonData.of(ProductDocument.CURRENT_VERSION))))))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"id", "merchantId"}, null))
+                .withMaxResults(legacyBatchSize)
+                .build();
+        Map<UUID, UUID> missing = new HashMap<>();
+        elasticsearchOperations.search(query, ProductDocument.class, indexes()).getSearchHits().stream()
+                .map(SearchHit::getContent)
+                .forEach(document -> missing.put(document.getId(), document.getMerchantId()));
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        int found = missing.size();
+        List<UUID> ids = List.copyOf(missing.keySet());
+        List<Product> products = primaryRead.execute(status -> productRepository.findAllWithVariantsByIdIn(ids));
+        products.forEach(product -> missing.remove(product.getId()));
+        searchService.reindexProducts(products);
+        if (!missing.isEmpty()) {
+            searchService.removeProducts(missing);
+        }
+        return found;
+    }
+
+    /**
+     * The shared index and every dedicated merchant index.
+     */
+    private IndexCoordinates indexes() {
+        return indexRouter.ensureExists(indexRouter.allIndices());
+    }
+
+    /**
+     * Smallest or largest UUID starting with the given hex prefix.
+     */
+    static UUID bucketBound(String prefix, char fill) {
+        StringBuilder hex = new StringBuilder(32).append(prefix);
+        while (hex.length() < 32) {
+            hex.append(fill);
+        }
+        return UUID.fromString(hex.substring(0, 8) + "-" + hex.substring(8, 12) + "-" + hex.substring(12, 16)
+                + "-" + hex.substring(16, 20) + "-" + hex.substring(20));
+    }
+
+    private record Checksum(long count, long updatedSum, long syncSum) {
+    }
+
+    private static class Drift {
+        int missing;
+        int stale;
+        int orphaned;
+        int legacy;
+        int skipped;
+    }
+}
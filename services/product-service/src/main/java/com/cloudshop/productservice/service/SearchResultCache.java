@@ -0,0 +1,171 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductSearchRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived, in-process cache of Elasticsearch search pages. Keys are the
+ * canonical form of the request prefixed with a generation number; any
+ * product write bumps the generation, which orphans every existing entry
+ * without scanning. Orphans age out through the TTL and the size bound.
+ *
+ * <p>A query is only admitted on its second sighting within the admission
+ * window, so one-off queries never displace popular ones. The generation is
+ * per instance; other instances see a write once their entries expire.
+ */
+@Component
+public class SearchResultCache {
+
+    private final boolean enabled;
+    private final Cache<String, PageResponse<ProductResponse>> results;
+    private final Cache<String, Boolean> seenOnce;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SearchResultCache(@Value("${app.search.cache.enabled:true}") boolean enabled,
+                             @Value("${app.search.cache.ttl:30s}") Duration ttl,
+                             @Value("${app.search.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${app.search.cache.admission-window:5m}") Duration admissionWindow) {
+        this.enabled = enabled;
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.seenOnce = Caffeine.newBuilder()
+                .expireAfterWrite(admissionWindow)
+                .maximumSize(maximumSize * 4)
+                .build();
+    }
+
+    public PageResponse<ProductResponse> get(ProductSearchRequest request, Pageable pageable,
+                                             Supplier<PageResponse<ProductResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // Read the generation before loading so a result raced by a write lands under a dead key
+        String key = generation.get() + "|" + canonicalKey(request, pageable);
+        PageResponse<ProductResponse> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (seenOnce.asMap().putIfAbsent(key, Boolean.TRUE) == null) {
+            return loader.get();
+        }
+        return results.get(key, k -> loader.get());
+    }
+
+    /**
+     * Non-blocking form of {@link #get} for the reactive read port; a loaded
+     * page is stored once the loader emits it, and concurrent misses each
+     * load their own.
+     */
+    public Mono<PageResponse<ProductResponse>> getReactive(ProductSearchRequest request, Pageable pageable,
+                                                           Supplier<Mono<PageResponse<ProductResponse>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = generation.get() + "|" + canonicalKey(request, pageable);
+        PageResponse<ProductResponse> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (seenOnce.asMap().putIfAbsent(key, Boolean.TRUE) == null) {
+            return loader.get();
+        }
+        return loader.get().doOnNext(page -> results.put(key, page));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public Cache<String, PageResponse<ProductResponse>> getResults() {
+        return results;
+    }
+
+    /**
+     * Trimmed, whitespace-collapsed text with blank treated as absent.
+     */
+    static String normalizeQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        String normalized = query.trim().replaceAll("\\s+", " ");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Canonical form of a search: lowercased query text, filters in a fixed
+     * order with normalized values, sorted category ids, the field selection,
+     * then paging and sort.
+     * The SKU clause is an exact keyword match, so a query whose case differs
+     * from its lowercase form also carries the original text.
+     */
+    static String canonicalKey(ProductSearchRequest request, Pageable pageable) {
+        StringBuilder key = new StringBuilder(128);
+        String query = normalizeQuery(request.getQuery());
+        if (query != null) {
+            String folded = query.toLowerCase(Locale.ROOT);
+            key.append("q=").append(folded);
+            if (!folded.equals(query)) {
+                key.append("|sku=").append(query);
+            }
+        }
+        append(key, "category", request.getCategoryId());
+        List<UUID> categoryIds = request.getCategoryIds();
+        if (categoryIds != null && !categoryIds.isEmpty()) {
+            append(key, "categories", categoryIds.stream().distinct().sorted().toList());
+        }
+        append(key, "minPrice", normalize(request.getMinPrice()));
+        append(key, "maxPrice", normalize(request.getMaxPrice()));
+        append(key, "minRating", request.getMinRating());
+        append(key, "merchant", request.getMerchantId());
+        append(key, "active", request.getIsActive());
+        append(key, "color", normalizeOption(request.getVariantColor()));
+        append(key, "variantSize", normalizeOption(request.getVariantSize()));
+        append(key, "inStock", request.getInStock());
+        if (request.getFields() != null && !request.getFields().isAll()) {
+            append(key, "fields", request.getFields().key());
+        }
+        key.append("|page=").append(pageable.getPageNumber())
+                .append("|size=").append(pageable.getPageSize());
+        for (Sort.Order order : pageable.getSort()) {
+            key.append("|sort=").append(order.getProperty()).append(':').append(order.getDirection());
+        }
+        return key.toString();
+    }
+
+    private static void append(StringBuilder key, String name, Object value) {
+        if (value != null) {
+            key.append('|').append(name).append('=').append(value);
+        }
+    }
+
+    private static String normalizeOption(String value) {
+        return value != null && !value.isBlank() ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String normalize(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : null;
+    }
+}
@@ -1,41 +1,81 @@
 package com.cloudshop.productservice.service;
 
+import com.cloudshop.productservice.dto.CategoryResponse;
 import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductFieldSet;
 import com.cloudshop.productservice.dto.ProductResponse;
 import com.cloudshop.productservice.dto.ProductSearchRequest;
+import com.cloudshop.productservice.dto.ProductVariantResponse;
 import com.cloudshop.productservice.model.Product;
+import com.cloudshop.productservice.model.ProductVariant;
 import com.cloudshop.productservice.model.elasticsearch.ProductDocument;
-import com.cloudshop.productservice.repository.elasticsearch.ProductSearchRepository;
+import com.cloudshop.productservice.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import org.springframework.data.elasticsearch.core.query.Criteria;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SearchService {
 
-    private final ProductSearchRepository productSearchRepository;
+    /**
+     * Fields that change often and are cheap to index. Changes to analyzed
+     * text (name, description, variant names) need a full reindex instead.
+     */
+    private static final List<String> PARTIAL_UPDATE_FIELDS = List.of(
+            "sku", "price", "minPrice", "maxPrice", "variantPrices", "inStock", "variants", "variantColors", "variantSizes",
+            "variantOptions", "categoryId", "categoryPath", "imageUrl", "imageUrls", "isActive", "updatedAt", "syncHash");
+
     private final ElasticsearchOperations elasticsearchOperations;
     private final ProductMapper productMapper;
+    private final SearchResultCache searchResultCache;
+    private final ReviewRepository reviewRepository;
+    private final CategoryService categoryService;
+    private final ProductIndexRouter indexRouter;
+    private final SpellingSuggestionService spellingSuggestionService;
+    private final ProductMetrics productMetrics;
+
+    @Value("${app.search.reconcile.bucket-prefix-length:3}")
+    private int idBucketLength = 3;
 
     @Transactional
     public void indexProduct(Product product) {
         try {
-            ProductDocument document = toProductDocument(product);
-            productSearchRepository.save(document);
+            indexDocuments(toProductDocuments(List.of(product)));
+            searchResultCache.invalidateAll();
             log.debug("Indexed product: {}", product.getId());
         } catch (Exception e) {
             log.error("Failed to index product: {}", product.getId(), e);
@@ -43,40 +83,249 @@ public class SearchService {
         }
     }
 
+    /**
+     * Reindexes many products with one bulk request per index; inactive
+     * products are removed from the index instead.
+     */
+    @Transactional
+    public void reindexProducts(List<Product> products) {
+        try {
+            List<ProductDocument> documents = toProductDocuments(products.stream()
+                    .filter(product -> Boolean.TRUE.equals(product.getIsActive()))
+                    .toList());
+            Map<UUID, UUID> inactive = merchantIdsByProductId(products.stream()
+                    .filter(product -> !Boolean.TRUE.equals(product.getIsActive())));
+            if (!documents.isEmpty()) {
+                indexDocuments(documents);
+            }
+            if (!inactive.isEmpty()) {
+                deleteDocuments(inactive);
+            }
+            searchResultCache.invalidateAll();
+            log.debug("Reindexed {} products, removed {}", documents.size(), inactive.size());
+        } catch (Exception e) {
+            log.error("Failed to reindex {} products", products.size(), e);
+        }
+    }
+
+    /**
+     * Sends only the cheap-to-index fields as partial {@code update}
+     * operations in one bulk request per index, skipping the rating and text
+     * fields. Products whose document is missing from the index get a full
+     * reindex; inactive products are removed.
+     */
+    @Transactional
+    public void updateProductFields(List<Product> products) {
+        Map<UUID, UUID> inactive = merchantIdsByProductId(products.stream()
+                .filter(product -> !Boolean.TRUE.equals(product.getIsActive())));
+        if (!inactive.isEmpty()) {
+            removeProducts(inactive);
+        }
+        List<Product> active = products.stream()
+                .filter(product -> Boolean.TRUE.equals(product.getIsActive()))
+                .toList();
+        if (active.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, List<UUID>> categoryPaths = categoryPaths();
+        Map<IndexCoordinates, List<UpdateQuery>> updates = active.stream()
+                .collect(Collectors.groupingBy(product -> indexRouter.indexFor(product.getMerchantId()),
+                        Collectors.mapping(product -> UpdateQuery.builder(product.getId().toString())
+                                .withDocument(partialDocument(product, categoryPaths))
+                                .withRouting(indexRouter.routingFor(product.getMerchantId()))
+                                .withRetryOnConflict(3)
+                                .build(), Collectors.toList())));
+        Set<String> failed = new HashSet<>();
+        try {
+            updates.forEach((index, queries) -> {
+                try {
+                    bulkUpdate(queries, index);
+                } catch (BulkFailureException e) {
+                    failed.addAll(e.getFailedDocuments().keySet());
+                }
+            });
+            searchResultCache.invalidateAll();
+            log.debug("Partially updated {} products", active.size() - failed.size());
+        } catch (Exception e) {
+            log.error("Failed to partially update {} products", active.size(), e);
+            return;
+        }
+        if (!failed.isEmpty()) {
+            log.warn("Partial update failed for {} products, reindexing them in full", failed.size());
+            reindexProducts(active.stream()
+                    .filter(product -> failed.contains(product.getId().toString()))
+                    .toList());
+        }
+    }
+
+    /**
+     * Writes new popularity totals as partial updates. Documents missing from
+     * the index are left to the reconciler, and the search result cache is
+     * not invalidated: its TTL bounds how stale a popularity ordering gets.
+     */
+    public void updatePopularityScores(List<PopularityScore> scores) {
+        Map<IndexCoordinates, List<UpdateQuery>> updates = scores.stream()
+                .collect(Collectors.groupingBy(score -> indexRouter.indexFor(score.merchantId()),
+                        Collectors.mapping(score -> UpdateQuery.builder(score.productId().toString())
+                                .withDocument(Document.from(Map.of("popularityScore", score.score())))
+                                .withRouting(indexRouter.routingFor(score.merchantId()))
+                                .withRetryOnConflict(3)
+                                .build(), Collectors.toList())));
+        updates.forEach((index, queries) -> {
+            try {
+                bulkUpdate(queries, index);
+            } catch (BulkFailureException e) {
+                log.debug("Popularity update skipped {} documents missing from {}",
+                        e.getFailedDocuments().size(), index.getIndexName());
+            } catch (Exception e) {
+                log.error("Failed to update popularity of {} products", queries.size(), e);
+            }
+        });
+    }
+
     @Transactional
-    public void removeProduct(UUID productId) {
+    public void removeProduct(UUID productId, UUID merchantId) {
         try {
-            productSearchRepository.deleteById(productId);
+            deleteDocuments(Map.of(productId, merchantId));
+            searchResultCache.invalidateAll();
             log.debug("Removed product from index: {}", productId);
         } catch (Exception e) {
             log.error("Failed to remove product from index: {}", productId, e);
         }
     }
 
+    /**
+     * Removes documents by product id; the merchant ids locate the index and
+     * shard holding each one.
+     */
+    @Transactional
+    public void removeProducts(Map<UUID, UUID> merchantIdsByProductId) {
+        try {
+            deleteDocuments(merchantIdsByProductId);
+            searchResultCache.invalidateAll();
+            log.debug("Removed {} products from index", merchantIdsByProductId.size());
+        } catch (Exception e) {
+            log.error("Failed to remove {} products from index", merchantIdsByProductId.size(), e);
+        }
+    }
+
+    private void indexDocuments(List<ProductDocument> documents) {
+        documents.stream()
+                .collect(Collectors.groupingBy(document -> indexRouter.indexFor(document.getMerchantId())))
+                .forEach((index, group) -> {
+                    List<IndexQuery> queries = group.stream()
+                            .map(document -> new IndexQueryBuilder()
+                                    .withId(document.getId().toString())
+                                    .withObject(document)
+                                    .withRouting(indexRouter.routingFor(document.getMerchantId()))
+                                    .build())
+                            .toList();
+                    productMetrics.summary(ProductMetrics.ELASTICSEARCH_BULK_SIZE, queries.size(), "operation", "index");
+                    productMetrics.run(ProductMetrics.ELASTICSEARCH_REQUESTS,
+                            () -> elasticsearchOperations.bulkIndex(queries, indexRouter.ensureExists(index)),
+                            "operation", "index");
+                });
+    }
+
+    private void bulkUpdate(List<UpdateQuery> queries, IndexCoordinates index) {
+        productMetrics.summary(ProductMetrics.ELASTICSEARCH_BULK_SIZE, queries.size(), "operation", "update");
+        productMetrics.run(ProductMetrics.ELASTICSEARCH_REQUESTS,
+                () -> elasticsearchOperations.bulkUpdate(queries, indexRouter.ensureExists(index)),
+                "operation", "update");
+    }
+
+    /**
+     * One ids delete-by-query per index and routing value.
+     */
+    private void deleteDocuments(Map<UUID, UUID> merchantIdsByProductId) {
+        merchantIdsByProductId.entrySet().stream()
+                .collect(Collectors.groupingBy(
+                        entry -> new Shard(indexRouter.indexFor(entry.getValue()), indexRouter.routingFor(entry.getValue())),
+                        Collectors.mapping(entry -> entry.getKey().toString(), Collectors.toList())))
+                .forEach((shard, ids) -> productMetrics.run(ProductMetrics.ELASTICSEARCH_REQUESTS,
+                        () -> elasticsearchOperations.delete(NativeQuery.builder()
+                                        .withQuery(q -> q.ids(i -> i.values(ids)))
+                                        .withRoute(shard.routing())
+                                        .build(),
+                                ProductDocument.class, indexRouter.ensureExists(shard.index())),
+                        "operation", "delete"));
+    }
+
+    private static Map<UUID, UUID> merchantIdsByProductId(Stream<Product> products) {
+        Map<UUID, UUID> merchantIds = new HashMap<>();
+        products.forEach(product -> merchantIds.put(product.getId(), product.getMerchantId()));
+        return merchantIds;
+    }
+
+    public String idBucketOf(UUID productId) {
+        return productId.toString().substring(0, idBucketLength);
+    }
+
+    /**
+     * Per-document part of the bucket checksum, computed the same way as in
+     * {@code ProductRepository.findActiveBucketChecksums}. Kept to 32 bits
+     * so that the sum over a bucket stays exact in the double Elasticsearch
+     * aggregates with.
+     */
+    static Long syncHashOf(UUID productId, Instant updatedAt) {
+        if (updatedAt == null) {
+            return null;
+        }
+        return (productId.getLeastSignificantBits() ^ updatedAt.toEpochMilli()) & 0xFFFFFFFFL;
+    }
+
+    public int getIdBucketLength() {
+        return idBucketLength;
+    }
+
     @Transactional(readOnly = true)
     public PageResponse<ProductResponse> searchProducts(ProductSearchRequest searchRequest, Pageable pageable) {
+        return searchResultCache.get(searchRequest, pageable, () -> executeSearch(searchRequest, pageable));
+    }
+
+    Criteria buildCriteria(ProductSearchRequest searchRequest) {
         Criteria criteria = new Criteria();
 
         // Text search
-        if (searchRequest.getQuery() != null && !searchRequest.getQuery().trim().isEmpty()) {
+        String text = SearchResultCache.normalizeQuery(searchRequest.getQuery());
+        if (text != null) {
             criteria = criteria.and(
-                    new Criteria("name").contains(searchRequest.getQuery())
-                            .or(new Criteria("description").contains(searchRequest.getQuery()))
-                            .or(new Criteria("sku").is(searchRequest.getQuery()))
+                    new Criteria("name").contains(text)
+                            .or(new Criteria("description").contains(text))
+                            .or(new Criteria("sku").is(text))
             );
         }
 
-        // Filters
+        // Filters; a category matches its whole subtree through categoryPath
         if (searchRequest.getCategoryId() != null) {
-            criteria = criteria.and(new Criteria("categoryId").is(searchRequest.getCategoryId()));
+            criteria = criteria.and(new Criteria("categoryPath").is(searchRequest.getCategoryId()));
         }
 
-        if (searchRequest.getMinPrice() != null) {
-            criteria = criteria.and(new Criteria("price").greaterThanEqual(searchRequest.getMinPrice().doubleValue()));
+        if (searchRequest.getCategoryIds() != null && !searchRequest.getCategoryIds().isEmpty()) {
+            criteria = criteria.and(new Criteria("categoryPath").in(searchRequest.getCategoryIds()));
         }
 
-        if (searchRequest.getMaxPrice() != null) {
-            criteria = criteria.and(new Criteria("price").lessThanEqual(searchRequest.getMaxPrice().doubleValue()));
+        // A product matches a price range when one of its variant prices falls inside it;
+        // comparing minPrice/maxPrice would also match a gap between two variant prices
+        if (searchRequest.getMinPrice() != null || searchRequest.getMaxPrice() != null) {
+            criteria = criteria.and(new Criteria("variantPrices").between(
+                    searchRequest.getMinPrice() != null ? searchRequest.getMinPrice().doubleValue() : null,
+                    searchRequest.getMaxPrice() != null ? searchRequest.getMaxPrice().doubleValue() : null));
+        }
+
+        String color = normalizeOption(searchRequest.getVariantColor());
+        String size = normalizeOption(searchRequest.getVariantSize());
+        if (color != null && size != null) {
+            criteria = criteria.and(new Criteria("variantOptions").is(color + "|" + size));
+        } else if (color != null) {
+            criteria = criteria.and(new Criteria("variantColors").is(color));
+        } else if (size != null) {
+            criteria = criteria.and(new Criteria("variantSizes").is(size));
+        }
+
+        if (searchRequest.getInStock() != null) {
+            criteria = criteria.and(new Criteria("inStock").is(searchRequest.getInStock()));
         }
 
         if (searchRequest.getMerchantId() != null) {
@@ -91,17 +340,58 @@ public class SearchService {
             criteria = criteria.and(new Criteria("averageRating").greaterThanEqual(searchRequest.getMinRating()));
         }
 
-        CriteriaQuery query = new CriteriaQuery(criteria).setPageable(pageable);
+        return criteria;
+    }
+
+    private PageResponse<ProductResponse> executeSearch(ProductSearchRequest searchRequest, Pageable pageable) {
+        CriteriaQuery query = buildQuery(searchRequest, pageable);
+        IndexCoordinates target = indexRouter.ensureExists(searchIndex(searchRequest));
+        SearchHits<ProductDocument> searchHits = productMetrics.time(ProductMetrics.ELASTICSEARCH_REQUESTS,
+                () -> elasticsearchOperations.search(query, ProductDocument.class, target), "operation", "search");
+        return toPageResponse(searchHits, searchRequest, pageable);
+    }
+
+    /**
+     * The search query with its paging, source filter and routing.
+     */
+    CriteriaQuery buildQuery(ProductSearchRequest searchRequest, Pageable pageable) {
+        CriteriaQuery query = new CriteriaQuery(buildCriteria(searchRequest)).setPageable(pageable);
+        ProductFieldSet fields = searchRequest.getFields();
+        if (fields != null && !fields.isAll()) {
+            query.addSourceFilter(new FetchSourceFilter(fields.sourceIncludes(), null));
+        }
+        if (searchRequest.getMerchantId() != null) {
+            query.setRoute(indexRouter.routingFor(searchRequest.getMerchantId()));
+        }
+        return query;
+    }
 
-        SearchHits<ProductDocument> searchHits = elasticsearchOperations.search(query, ProductDocument.class);
+    /**
+     * A merchant-scoped search reads the merchant's own index or shard only.
+     * Dedicated indices may not exist yet; see {@link ProductIndexRouter#ensureExists}.
+     */
+    IndexCoordinates searchIndex(ProductSearchRequest searchRequest) {
+        return searchRequest.getMerchantId() != null
+                ? indexRouter.indexFor(searchRequest.getMerchantId())
+                : indexRouter.allIndices();
+    }
 
+    PageResponse<ProductResponse> toPageResponse(SearchHits<ProductDocument> searchHits,
+                                                 ProductSearchRequest searchRequest, Pageable pageable) {
+        String text = SearchResultCache.normalizeQuery(searchRequest.getQuery());
         List<ProductResponse> products = searchHits.getSearchHits().stream()
                 .map(SearchHit::getContent)
                 .map(this::toProductResponse)
                 .collect(Collectors.toList());
 
+        // Zero hits on a text query usually means a typo; suggest corrections from the local index
+        List<String> suggestions = searchHits.getTotalHits() == 0 && text != null
+                ? spellingSuggestionService.suggest(text)
+                : List.of();
+
         return PageResponse.<ProductResponse>builder()
                 .content(products)
+                .suggestions(suggestions)
                 .page(pageable.getPageNumber())
                 .size(pageable.getPageSize())
                 .totalElements(searchHits.getTotalHits())
@@ -111,31 +401,162 @@ public class SearchService {
                 .build();
     }
 
-    private ProductDocument toProductDocument(Product product) {
-        // Calculate average rating and review count
-        // Note: In a real implementation, you might want to fetch these from the database
-        // or maintain them in the product entity
+    /**
+     * Builds listing-complete documents: variant summaries and price range,
+     * stock, category ancestry and review stats, loaded in one batch.
+     */
+    private List<ProductDocument> toProductDocuments(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Object[]> ratingStats = new HashMap<>();
+        List<UUID> ids = products.stream().map(Product::getId).toList();
+        List<Object[]> rows = productMetrics.time(ProductMetrics.REVIEW_STATS,
+                () -> reviewRepository.findRatingStatsByProductIds(ids), "query", "batch");
+        for (Object[] row : rows) {
+            ratingStats.put((UUID) row[0], row);
+        }
+        Map<UUID, List<UUID>> categoryPaths = categoryPaths();
+
+        return products.stream()
+                .map(product -> toProductDocument(product, ratingStats.get(product.getId()), categoryPaths))
+                .toList();
+    }
+
+    ProductDocument toProductDocument(Product product, Object[] ratingStats, Map<UUID, List<UUID>> categoryPaths) {
+        List<ProductVariant> variants = product.getVariants() != null ? product.getVariants() : List.of();
+        List<ProductVariant> available = variants.stream()
+                .filter(variant -> Boolean.TRUE.equals(variant.getIsAvailable()))
+                .toList();
+        List<BigDecimal> prices = (available.isEmpty() ? variants : available).stream()
+                .map(variant -> effectivePrice(product, variant))
+                .toList();
+        List<BigDecimal> variantPrices = prices.isEmpty()
+                ? List.of(product.getPrice())
+                : prices.stream().distinct().toList();
+        boolean inStock = variants.isEmpty() || available.stream()
+                .anyMatch(variant -> variant.getStockQuantity() != null && variant.getStockQuantity() > 0);
+
+        Set<String> colors = new LinkedHashSet<>();
+        Set<String> sizes = new LinkedHashSet<>();
+        Set<String> options = new LinkedHashSet<>();
+        for (ProductVariant variant : available) {
+            String color = normalizeOption(variant.getColor());
+            String size = normalizeOption(variant.getSize());
+            if (color != null) {
+                colors.add(color);
+            }
+            if (size != null) {
+                sizes.add(size);
+            }
+            if (color != null && size != null) {
+                options.add(color + "|" + size);
+            }
+        }
 
         return ProductDocument.builder()
                 .id(product.getId())
+                .idBucket(idBucketOf(product.getId()))
+                .syncHash(syncHashOf(product.getId(), product.getUpdatedAt()))
+                .docVersion(ProductDocument.CURRENT_VERSION)
                 .merchantId(product.getMerchantId())
                 .name(product.getName())
                 .description(product.getDescription())
                 .sku(product.getSku())
                 .price(product.getPrice())
                 .categoryId(product.getCategoryId())
+                .categoryPath(product.getCategoryId() != null
+                        ? categoryPaths.getOrDefault(product.getCategoryId(), List.of(product.getCategoryId()))
+                        : null)
+                .minPrice(prices.isEmpty() ? product.getPrice() : prices.stream().min(BigDecimal::compareTo).orElseThrow())
+                .maxPrice(prices.isEmpty() ? product.getPrice() : prices.stream().max(BigDecimal::compareTo).orElseThrow())
+                .variantPrices(variantPrices)
+                .inStock(inStock)
+                .variants(variants.stream().map(this::toVariantSummary).toList())
+                .variantColors(List.copyOf(colors))
+                .variantSizes(List.copyOf(sizes))
+                .variantOptions(List.copyOf(options))
                 .imageUrl(product.getImageUrl())
                 .imageUrls(product.getImageUrls())
                 .isActive(product.getIsActive())
+                .averageRating(ratingStats != null ? (Double) ratingStats[1] : null)
+                .reviewCount(ratingStats != null ? ((Long) ratingStats[2]).intValue() : 0)
+                .popularityScore(product.getPopularityScore())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
     }
 
-    private ProductResponse toProductResponse(ProductDocument document) {
-        // Convert document back to response
-        // In a real implementation, you might want to fetch the full product from database
-        // or store more fields in the document
+    private ProductDocument.VariantSummary toVariantSummary(ProductVariant variant) {
+        return ProductDocument.VariantSummary.builder()
+                .id(variant.getId())
+                .sku(variant.getSku())
+                .name(variant.getName())
+                .size(variant.getSize())
+                .color(variant.getColor())
+                .priceAdjustment(variant.getPriceAdjustment())
+                .stockQuantity(variant.getStockQuantity())
+                .isAvailable(variant.getIsAvailable())
+                .build();
+    }
+
+    private Document partialDocument(Product product, Map<UUID, List<UUID>> categoryPaths) {
+        Document full = elasticsearchOperations.getElasticsearchConverter()
+                .mapObject(toProductDocument(product, null, categoryPaths));
+        Document partial = Document.create();
+        // Absent keys are sent as null so that cleared values are cleared in the index too
+        PARTIAL_UPDATE_FIELDS.forEach(field -> partial.put(field, full.get(field)));
+        return partial;
+    }
+
+    private BigDecimal effectivePrice(Product product, ProductVariant variant) {
+        BigDecimal adjustment = variant.getPriceAdjustment() != null ? variant.getPriceAdjustment() : BigDecimal.ZERO;
+        return product.getPrice().add(adjustment);
+    }
+
+    /**
+     * Root-to-leaf id path of every active category, from the cached tree.
+     */
+    private Map<UUID, List<UUID>> categoryPaths() {
+        Map<UUID, List<UUID>> paths = new HashMap<>();
+        collectCategoryPaths(categoryService.getCategoryTree(), List.of(), paths);
+        return paths;
+    }
+
+    private void collectCategoryPaths(List<CategoryResponse> nodes, List<UUID> parentPath, Map<UUID, List<UUID>> paths) {
+        if (nodes == null) {
+            return;
+        }
+        for (CategoryResponse node : nodes) {
+            List<UUID> path = new ArrayList<>(parentPath);
+            path.add(node.getId());
+            paths.put(node.getId(), List.copyOf(path));
+            collectCategoryPaths(node.getChildren(), path, paths);
+        }
+    }
+
+    private static String normalizeOption(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    ProductResponse toProductResponse(ProductDocument document) {
+        List<ProductVariantResponse> variants = document.getVariants() == null ? null
+                : document.getVariants().stream()
+                        .map(variant -> ProductVariantResponse.builder()
+                                .id(variant.getId())
+                                .sku(variant.getSku())
+                                .name(variant.getName())
+                                .size(variant.getSize())
+                                .color(variant.getColor())
+                                .priceAdjustment(variant.getPriceAdjustment())
+                                .stockQuantity(variant.getStockQuantity())
+                                .isAvailable(variant.getIsAvailable())
+                                .build())
+                        .toList();
+
         return ProductResponse.builder()
                 .id(document.getId())
                 .merchantId(document.getMerchantId())
@@ -144,15 +565,25 @@ public class SearchService {
                 .sku(document.getSku())
                 .price(document.getPrice())
                 .categoryId(document.getCategoryId())
+                .categoryPath(document.getCategoryPath())
+                .minPrice(document.getMinPrice())
+                .maxPrice(document.getMaxPrice())
+                .inStock(document.getInStock())
+                .variants(variants)
                 .imageUrl(document.getImageUrl())
                 .imageUrls(document.getImageUrls())
                 .isActive(document.getIsActive())
-                .averageRating(document.getAverageRating() != null ? 
-                        java.math.BigDecimal.valueOf(document.getAverageRating()) : null)
+                .averageRating(document.getAverageRating() != null ?
+                        BigDecimal.valueOf(document.getAverageRating()) : null)
                 .reviewCount(document.getReviewCount())
                 .createdAt(document.getCreatedAt())
                 .updatedAt(document.getUpdatedAt())
                 .build();
     }
-}
 
+    private record Shard(IndexCoordinates index, String routing) {
+    }
+
+    public record PopularityScore(UUID productId, UUID merchantId, double score) {
+    }
+}
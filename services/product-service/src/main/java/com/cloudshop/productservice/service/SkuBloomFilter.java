@@ -0,0 +1,103 @@
+package com.cloudshop.productservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over SKU strings. {@link #mightContain} never returns false
+ * for a SKU that was put, and returns true for an absent one with roughly
+ * the configured probability while no more than the expected number of
+ * SKUs have been added. Bit positions come from two 64-bit hashes combined
+ * as {@code h1 + i * h2} (Kirsch and Mitzenmacher), so each operation hashes
+ * the SKU once. Safe for concurrent use without locking.
+ */
+public class SkuBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+
+    public SkuBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveRate in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact(Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String sku) {
+        long h1 = hash(sku);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String sku) {
+        long h1 = hash(sku);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getMemoryBytes() {
+        return bitSize / 8;
+    }
+
+    public long getBitsSet() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return set;
+    }
+
+    /**
+     * The false-positive probability at the current fill, {@code (set / m)^k}.
+     * Rises above the configured rate once more SKUs than expected were put.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) getBitsSet() / bitSize, hashCount);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the SplitMix64 mixer
+     * so nearby SKUs such as {@code ABC-001} and {@code ABC-002} spread out.
+     */
+    static long hash(String sku) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : sku.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,239 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Answers "is this SKU taken?" without a query for SKUs that are certainly
+ * new, from a {@link SkuBloomFilter} over all product and variant SKUs. The
+ * filter is streamed from the database at startup and rebuilt periodically,
+ * which also drops SKUs of deleted rows. SKUs created on any instance are
+ * published on a Redis channel and added by every instance. Until the first
+ * build finishes every check goes to the database.
+ *
+ * <p>The channel is best effort: a message lost while an instance
+ * resubscribes, or a SKU committed while a rebuild is reading, leaves that
+ * instance's filter stale until the next rebuild. Callers must therefore
+ * still treat a unique-index violation on save as a duplicate SKU (see
+ * {@link #isSkuConflict}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SkuFilterService implements MessageListener {
+
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    // Puts hold the read lock; the rebuild's swap takes the write lock so no put lands in a discarded filter
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile SkuBloomFilter filter;
+    private Queue<String> addedDuringRebuild;
+
+    @Value("${app.sku-filter.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.sku-filter.expected-insertions:1000000}")
+    private long expectedInsertions = 1_000_000;
+
+    @Value("${app.sku-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Value("${app.sku-filter.channel:product-service:sku-added}")
+    private String channel = "product-service:sku-added";
+
+    @PostConstruct
+    public void register() {
+        if (!enabled) {
+            return;
+        }
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        Gauge.builder("product.sku.filter.false.positive.rate", this, service -> currentFilterValue(SkuBloomFilter::expectedFalsePositiveRate))
+                .description("Estimated false-positive rate at the current fill")
+                .register(meterRegistry);
+        Gauge.builder("product.sku.filter.false.positive.rate.target", this, service -> falsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("product.sku.filter.memory", this, service -> currentFilterValue(SkuBloomFilter::getMemoryBytes))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (enabled) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.sku-filter.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${app.sku-filter.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        swapLock.writeLock().lock();
+        try {
+            addedDuringRebuild = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        try {
+            long start = System.nanoTime();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            SkuBloomFilter rebuilt = transaction.execute(status -> {
+                long count = productRepository.count() + productRepository.countVariants();
+                // Headroom for growth until the next rebuild
+                SkuBloomFilter built = new SkuBloomFilter(Math.max(expectedInsertions, count * 2), falsePositiveRate);
+                try (Stream<String> skus = productRepository.streamAllSkus()) {
+                    skus.forEach(built::put);
+                }
+                try (Stream<String> skus = productRepository.streamAllVariantSkus()) {
+                    skus.forEach(built::put);
+                }
+                return built;
+            });
+            swapLock.writeLock().lock();
+            try {
+                addedDuringRebuild.forEach(rebuilt::put);
+                filter = rebuilt;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.info("Built SKU filter of {} KB with {} hashes in {} ms", rebuilt.getMemoryBytes() / 1024,
+                    rebuilt.getHashCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Failed to build SKU filter", e);
+        } finally {
+            swapLock.writeLock().lock();
+            try {
+                addedDuringRebuild = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Whether a product already uses the SKU. The database is only asked
+     * when the filter cannot rule the SKU out.
+     */
+    public boolean skuExists(String sku) {
+        SkuBloomFilter current = filter;
+        if (enabled && current != null && !current.mightContain(sku)) {
+            meterRegistry.counter("product.sku.filter.checks", "result", "skipped").increment();
+            return false;
+        }
+        boolean exists = productRepository.existsBySku(sku);
+        if (enabled && current != null) {
+            // A filter hit that the database does not confirm is a false positive (or a variant SKU)
+            meterRegistry.counter("product.sku.filter.checks", "result", exists ? "exists" : "false_positive").increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Adds the SKUs here and on every other instance. Inside a transaction
+     * the broadcast waits for the commit, so other instances never learn a
+     * SKU that was rolled back.
+     */
+    public void onSkusAdded(Collection<String> skus) {
+        if (!enabled || skus.isEmpty()) {
+            return;
+        }
+        // A local entry for a rolled-back SKU only costs one database check
+        skus.forEach(this::add);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(skus);
+                }
+            });
+        } else {
+            broadcast(skus);
+        }
+    }
+
+    /**
+     * Whether a failed insert or update hit a product or variant SKU unique
+     * index, i.e. a duplicate that a stale filter let through.
+     */
+    public static boolean isSkuConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("sku");
+    }
+
+    private void broadcast(Collection<String> skus) {
+        for (String sku : skus) {
+            try {
+                redisTemplate.convertAndSend(channel, sku);
+            } catch (Exception e) {
+                // Other instances still check the database for it until their next rebuild, or hit the unique index
+                log.warn("Failed to broadcast new SKU {}", sku, e);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void add(String sku) {
+        swapLock.readLock().lock();
+        try {
+            SkuBloomFilter current = filter;
+            if (current != null) {
+                current.put(sku);
+            }
+            Queue<String> pending = addedDuringRebuild;
+            if (pending != null) {
+                pending.add(sku);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private double currentFilterValue(ToDoubleFunction<SkuBloomFilter> value) {
+        SkuBloomFilter current = filter;
+        return current != null ? value.applyAsDouble(current) : Double.NaN;
+    }
+}
@@ -0,0 +1,193 @@
+package com.cloudshop.productservice.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Symmetric-delete spelling correction (the SymSpell approach). Every term
+ * is stored under each string obtained by deleting up to
+ * {@code maxEditDistance} characters from its prefix; a lookup generates the
+ * same deletes for the input and only scores the terms they point to. No
+ * inserts, replaces or transposes are ever generated, which keeps lookups to
+ * a handful of map reads.
+ *
+ * <p>Term counts may drop to zero; such terms stay in the delete map and are
+ * skipped at lookup until the index is rebuilt. Safe for concurrent use.
+ */
+public class SpellingIndex {
+
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final int maxEditDistance;
+    private final int prefixLength;
+    private final Map<String, Long> termCounts = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> deletes = new ConcurrentHashMap<>();
+
+    public SpellingIndex(int maxEditDistance, int prefixLength) {
+        if (maxEditDistance < 1 || prefixLength <= maxEditDistance) {
+            throw new IllegalArgumentException("prefixLength must exceed maxEditDistance, which must be positive");
+        }
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+    }
+
+    /**
+     * Counts one occurrence of each term in the text.
+     */
+    public void addText(String text) {
+        tokenize(text).forEach(term -> addTerm(term, 1));
+    }
+
+    public void removeText(String text) {
+        tokenize(text).forEach(term -> termCounts.computeIfPresent(term, (key, count) -> count > 1 ? count - 1 : null));
+    }
+
+    public void addTerm(String term, long count) {
+        if (termCounts.merge(term, count, Long::sum) == count) {
+            for (String delete : deletesOf(prefix(term))) {
+                deletes.computeIfAbsent(delete, key -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        }
+    }
+
+    public long getCount(String term) {
+        return termCounts.getOrDefault(term, 0L);
+    }
+
+    public int size() {
+        return termCounts.size();
+    }
+
+    /**
+     * Known terms within the edit distance of the input, closest first and
+     * then most frequent. A known input is returned as its only suggestion.
+     */
+    public List<Suggestion> lookup(String input, int maxResults) {
+        String word = input.toLowerCase(Locale.ROOT);
+        long known = getCount(word);
+        if (known > 0) {
+            return List.of(new Suggestion(word, 0, known));
+        }
+
+        Set<String> candidates = new HashSet<>();
+        for (String delete : deletesOf(prefix(word))) {
+            Set<String> terms = deletes.get(delete);
+            if (terms != null) {
+                candidates.addAll(terms);
+            }
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (Math.abs(candidate.length() - word.length()) > maxEditDistance) {
+                continue;
+            }
+            long count = getCount(candidate);
+            int distance = distance(word, candidate, maxEditDistance);
+            if (count > 0 && distance <= maxEditDistance) {
+                suggestions.add(new Suggestion(candidate, distance, count));
+            }
+        }
+        suggestions.sort(Comparator.comparingInt(Suggestion::distance)
+                .thenComparing(Comparator.comparingLong(Suggestion::count).reversed())
+                .thenComparing(Suggestion::term));
+        return suggestions.size() > maxResults ? List.copyOf(suggestions.subList(0, maxResults)) : suggestions;
+    }
+
+    /**
+     * Lowercased words of at least three letters or digits, excluding
+     * numbers, which are model numbers and sizes rather than misspellings.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (isTerm(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    public static boolean isTerm(String token) {
+        return token.length() >= MIN_TERM_LENGTH
+                && token.chars().allMatch(Character::isLetterOrDigit)
+                && !token.chars().allMatch(Character::isDigit);
+    }
+
+    private String prefix(String term) {
+        return term.length() > prefixLength ? term.substring(0, prefixLength) : term;
+    }
+
+    /**
+     * The string itself plus every string with up to {@code maxEditDistance}
+     * characters deleted.
+     */
+    private Set<String> deletesOf(String word) {
+        Set<String> result = new HashSet<>();
+        result.add(word);
+        List<String> level = List.of(word);
+        for (int edit = 1; edit <= maxEditDistance; edit++) {
+            List<String> next = new ArrayList<>();
+            for (String current : level) {
+                if (current.length() <= 1) {
+                    continue;
+                }
+                for (int i = 0; i < current.length(); i++) {
+                    String delete = current.substring(0, i) + current.substring(i + 1);
+                    if (result.add(delete)) {
+                        next.add(delete);
+                    }
+                }
+            }
+            level = next;
+        }
+        return result;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent
+     * transpositions); returns {@code max + 1} as soon as it must exceed
+     * {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    public record Suggestion(String term, int distance, long count) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * "Did you mean" corrections for searches that find nothing, answered from
+ * an in-process {@link SpellingIndex} over the words of active product
+ * names. Product writes on this instance update the index as they happen;
+ * a periodic rebuild picks up everything else (other instances, bulk
+ * deactivation) and drops words that are no longer used.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpellingSuggestionService {
+
+    private final ProductRepository productRepository;
+
+    private volatile SpellingIndex index;
+
+    @Value("${app.search.spelling.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.search.spelling.max-edit-distance:2}")
+    private int maxEditDistance = 2;
+
+    @Value("${app.search.spelling.prefix-length:7}")
+    private int prefixLength = 7;
+
+    @Value("${app.search.spelling.max-suggestions:3}")
+    private int maxSuggestions = 3;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (enabled) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.search.spelling.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${app.search.spelling.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        try {
+            long start = System.nanoTime();
+            SpellingIndex rebuilt = new SpellingIndex(maxEditDistance, prefixLength);
+            productRepository.findActiveNames().forEach(rebuilt::addText);
+            index = rebuilt;
+            log.info("Built spelling index with {} terms in {} ms", rebuilt.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Failed to build spelling index", e);
+        }
+    }
+
+    public void onProductNameChanged(String oldName, String newName) {
+        SpellingIndex current = index;
+        if (current == null || Objects.equals(oldName, newName)) {
+            return;
+        }
+        if (oldName != null) {
+            current.removeText(oldName);
+        }
+        if (newName != null) {
+            current.addText(newName);
+        }
+    }
+
+    /**
+     * Up to {@code max-suggestions} rewrites of the query. The first replaces
+     * every unknown word with its best correction; the others vary the first
+     * unknown word. Empty when every word is known or no correction is close
+     * enough.
+     */
+    public List<String> suggest(String query) {
+        SpellingIndex current = index;
+        if (!enabled || current == null || query == null) {
+            return List.of();
+        }
+        String[] words = query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        List<List<SpellingIndex.Suggestion>> corrections = new ArrayList<>(words.length);
+        int firstCorrected = -1;
+        for (int i = 0; i < words.length; i++) {
+            List<SpellingIndex.Suggestion> candidates = SpellingIndex.isTerm(words[i])
+                    ? current.lookup(words[i], maxSuggestions)
+                    : List.of();
+            corrections.add(candidates);
+            if (firstCorrected < 0 && !candidates.isEmpty() && candidates.get(0).distance() > 0) {
+                firstCorrected = i;
+            }
+        }
+        if (firstCorrected < 0) {
+            return List.of();
+        }
+
+        Set<String> suggestions = new LinkedHashSet<>();
+        for (SpellingIndex.Suggestion alternative : corrections.get(firstCorrected)) {
+            StringBuilder rewritten = new StringBuilder();
+            for (int i = 0; i < words.length; i++) {
+                List<SpellingIndex.Suggestion> candidates = corrections.get(i);
+                String word = i == firstCorrected ? alternative.term()
+                        : candidates.isEmpty() ? words[i] : candidates.get(0).term();
+                rewritten.append(i == 0 ? "" : " ").append(word);
+            }
+            suggestions.add(rewritten.toString());
+        }
+        return List.copyOf(suggestions);
+    }
+}
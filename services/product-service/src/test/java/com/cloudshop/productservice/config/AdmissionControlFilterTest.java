@@ -0,0 +1,78 @@
+package com.cloudshop.productservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.UUID;
+
+import static com.cloudshop.productservice.config.AdmissionControlFilter.Priority.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testClassify() {
+        AdmissionControlFilter filter = filter(new AdmissionControlProperties());
+
+        assertEquals(CRITICAL, filter.classify(get("/api/v1/products/" + UUID.randomUUID())));
+        assertEquals(STANDARD, filter.classify(get("/api/v1/products/search")));
+        assertEquals(STANDARD, filter.classify(get("/api/v1/products/category/" + UUID.randomUUID())));
+        MockHttpServletRequest deepPage = get("/api/v1/products");
+        deepPage.setParameter("page", "25");
+        assertEquals(LOW, filter.classify(deepPage));
+        assertEquals(LOW, filter.classify(get("/api/v1/products/changes")));
+        assertNull(filter.classify(new MockHttpServletRequest("POST", "/api/v1/products")));
+    }
+
+    @Test
+    void testLowPriorityShedWhileSearchIsBusy() throws Exception {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setInitialLimit(4);
+        AdmissionControlFilter filter = filter(properties);
+        filter.getLimit(STANDARD).tryAcquire();
+        filter.getLimit(STANDARD).tryAcquire();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(get("/api/v1/products/changes"), response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Service Unavailable"));
+        assertEquals(1, meterRegistry.get("product.admission.rejected").tag("priority", "low").counter().count());
+    }
+
+    @Test
+    void testDetailUsesReserveWhenSharedCapacityIsFull() throws Exception {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setCapacity(10);
+        properties.setInitialLimit(10);
+        AdmissionControlFilter filter = filter(properties);
+        while (filter.getLimit(STANDARD).tryAcquire()) {
+            // Fill the shared capacity
+        }
+        assertEquals(7, filter.getLimit(STANDARD).getInFlight());
+
+        MockHttpServletResponse search = new MockHttpServletResponse();
+        filter.doFilter(get("/api/v1/products/search"), search, new MockFilterChain());
+        MockHttpServletResponse detail = new MockHttpServletResponse();
+        filter.doFilter(get("/api/v1/products/" + UUID.randomUUID()), detail, new MockFilterChain());
+
+        assertEquals(503, search.getStatus());
+        assertEquals(200, detail.getStatus());
+        assertEquals(0, filter.getLimit(CRITICAL).getInFlight());
+    }
+
+    private AdmissionControlFilter filter(AdmissionControlProperties properties) {
+        return new AdmissionControlFilter(properties, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
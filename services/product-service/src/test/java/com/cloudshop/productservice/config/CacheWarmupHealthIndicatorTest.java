@@ -0,0 +1,48 @@
+package com.cloudshop.productservice.config;
+
+import com.cloudshop.productservice.service.CacheWarmupService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheWarmupHealthIndicatorTest {
+
+    private final CacheWarmupService cacheWarmupService = mock(CacheWarmupService.class);
+    private final CacheWarmupHealthIndicator indicator = new CacheWarmupHealthIndicator(cacheWarmupService);
+
+    @ParameterizedTest
+    @EnumSource(value = CacheWarmupService.Status.class, names = {"PENDING", "RUNNING"})
+    void testNotReadyWhileWarming(CacheWarmupService.Status status) {
+        when(cacheWarmupService.getStatus()).thenReturn(status);
+        when(cacheWarmupService.getProgress()).thenReturn(Map.of("status", status));
+
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CacheWarmupService.Status.class, names = {"COMPLETED", "FAILED", "DISABLED"})
+    void testReadyOnceFinishedFailedOrDisabled(CacheWarmupService.Status status) {
+        when(cacheWarmupService.getStatus()).thenReturn(status);
+        when(cacheWarmupService.getProgress()).thenReturn(Map.of("status", status));
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void testReportsProgressAsDetails() {
+        when(cacheWarmupService.getStatus()).thenReturn(CacheWarmupService.Status.RUNNING);
+        when(cacheWarmupService.getProgress()).thenReturn(Map.of("productsLoaded", 120, "productsTotal", 500));
+
+        Health health = indicator.health();
+
+        assertEquals(120, health.getDetails().get("productsLoaded"));
+        assertEquals(500, health.getDetails().get("productsTotal"));
+    }
+}
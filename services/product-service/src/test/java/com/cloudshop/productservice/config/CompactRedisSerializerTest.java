@@ -0,0 +1,102 @@
+package com.cloudshop.productservice.config;
+
+import com.cloudshop.productservice.dto.CategoryResponse;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductVariantResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRedisSerializerTest {
+
+    private final CompactRedisSerializer compact = new CompactRedisSerializer(CompactRedisSerializer.Format.COMPACT, 1024);
+    private final CompactRedisSerializer json = new CompactRedisSerializer(CompactRedisSerializer.Format.JSON, 1024);
+
+    @Test
+    void testRoundTripsProductResponse() {
+        ProductResponse product = largeProduct();
+
+        byte[] bytes = compact.serialize(product);
+
+        assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(CompactRedisSerializer.FLAG_LZ4, bytes[2]);
+        assertEquals(product, compact.deserialize(bytes));
+    }
+
+    @Test
+    void testCompactValueIsSmallerThanJson() {
+        ProductResponse product = largeProduct();
+
+        int compactSize = compact.serialize(product).length;
+        int jsonSize = json.serialize(product).length;
+
+        assertTrue(compactSize * 2 < jsonSize,
+                "expected compact (" + compactSize + " bytes) to be under half of JSON (" + jsonSize + " bytes)");
+    }
+
+    @Test
+    void testSmallValuesAreNotCompressed() {
+        CategoryResponse category = CategoryResponse.builder().id(UUID.randomUUID()).name("Shoes").build();
+
+        byte[] bytes = compact.serialize(category);
+
+        assertEquals(0, bytes[2]);
+        assertEquals(category, compact.deserialize(bytes));
+    }
+
+    @Test
+    void testReadsLegacyJsonAndStaleWhileRevalidateEntries() {
+        List<CategoryResponse> categories = new ArrayList<>(List.of(
+                CategoryResponse.builder().id(UUID.randomUUID()).name("Shoes").createdAt(Instant.now()).build()));
+        StaleWhileRevalidateCache.Entry entry = new StaleWhileRevalidateCache.Entry(categories, 42L);
+
+        assertEquals(entry, compact.deserialize(json.serialize(entry)));
+        assertEquals(entry, json.deserialize(compact.serialize(entry)));
+    }
+
+    @Test
+    void testUnknownVersionIsTreatedAsMiss() {
+        byte[] bytes = compact.serialize(largeProduct());
+        bytes[1] = 99;
+
+        assertNull(compact.deserialize(bytes));
+    }
+
+    private ProductResponse largeProduct() {
+        List<ProductVariantResponse> variants = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            variants.add(ProductVariantResponse.builder()
+                    .id(UUID.randomUUID())
+                    .sku("SKU-001-" + i)
+                    .name("Variant " + i)
+                    .size(i % 2 == 0 ? "M" : "L")
+                    .color("Blue")
+                    .priceAdjustment(new BigDecimal("1.50"))
+                    .stockQuantity(i)
+                    .isAvailable(true)
+                    .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                    .build());
+        }
+        return ProductResponse.builder()
+                .id(UUID.randomUUID())
+                .merchantId(UUID.randomUUID())
+                .name("Running Shoe")
+                .description("Lightweight running shoe with a breathable mesh upper. ".repeat(40))
+                .sku("SKU-001")
+                .price(new BigDecimal("99.99"))
+                .imageUrls(new ArrayList<>(List.of("http://localhost:9000/a.jpg", "http://localhost:9000/b.jpg")))
+                .variants(variants)
+                .averageRating(new BigDecimal("4.5"))
+                .reviewCount(12)
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(Instant.parse("2024-01-02T00:00:00Z"))
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.cloudshop.productservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionBulkheadDataSourceTest {
+
+    private DataSource target;
+    private Connection connection;
+    private ConnectionBulkheadDataSource bulkhead;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        bulkhead = new ConnectionBulkheadDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testPermitIsHeldUntilConnectionIsClosedOnce() throws SQLException {
+        Connection borrowed = bulkhead.getConnection();
+        assertEquals(0, bulkhead.getAvailablePermits());
+
+        borrowed.close();
+        borrowed.close();
+
+        assertEquals(1, bulkhead.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testTimesOutWhenFull() throws SQLException {
+        Connection borrowed = bulkhead.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> bulkhead.getConnection());
+        verify(target, times(1)).getConnection();
+
+        borrowed.close();
+        bulkhead.getConnection();
+    }
+
+    @Test
+    void testReleasesPermitWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        assertThrows(SQLTransientConnectionException.class, () -> bulkhead.getConnection());
+
+        assertEquals(1, bulkhead.getAvailablePermits());
+    }
+
+    @Test
+    void testReleasesPermitWhenCloseFails() throws SQLException {
+        doThrow(new SQLException("broken")).when(connection).close();
+        Connection borrowed = bulkhead.getConnection();
+
+        assertThrows(SQLException.class, borrowed::close);
+
+        assertEquals(1, bulkhead.getAvailablePermits());
+    }
+
+    @Test
+    void testEmptySettingsDefaultToPoolSize() throws Exception {
+        // As application.yml leaves them when DB_BULKHEAD_* are unset
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.virtual-threads.bulkhead.max-concurrent", "")
+                .withProperty("app.virtual-threads.bulkhead.acquire-timeout", "");
+        environment.setConversionService(new ApplicationConversionService());
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(7);
+
+        ConnectionBulkheadDataSource pooled = ConnectionBulkheadDataSource.forPool(hikari, environment);
+
+        assertEquals(7, pooled.getAvailablePermits());
+        pooled.close();
+        assertTrue(hikari.isClosed());
+    }
+}
@@ -0,0 +1,60 @@
+package com.cloudshop.productservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void testTryAcquire_StopsAtLimit() {
+        GradientLimit limit = new GradientLimit(2, 1, 10, 0.2, 1.5);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        limit.release(FAST);
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void testLimit_GrowsUnderSteadyLatencyAndShrinksWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(10, 2, 100, 0.2, 1.5);
+        for (int i = 0; i < 200; i++) {
+            runAtLimit(limit, FAST);
+        }
+        int grown = limit.getLimit();
+        assertTrue(grown > 50, "limit: " + grown);
+
+        for (int i = 0; i < 20; i++) {
+            runAtLimit(limit, FAST * 10);
+        }
+        assertTrue(limit.getLimit() < grown / 2, "limit: " + limit.getLimit());
+    }
+
+    @Test
+    void testLimit_DoesNotGrowWhileMostlyIdle() {
+        GradientLimit limit = new GradientLimit(10, 2, 100, 0.2, 1.5);
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    private static void runAtLimit(GradientLimit limit, long latencyNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.release(latencyNanos);
+        }
+    }
+}
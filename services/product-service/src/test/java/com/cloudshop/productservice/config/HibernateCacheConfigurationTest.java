@@ -0,0 +1,84 @@
+package com.cloudshop.productservice.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.cache.CacheManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The second-level cache regions must also be found when the service runs
+ * from its packaged jar, where {@code application.conf} is a {@code jar:}
+ * resource rather than a file under {@code target/classes}.
+ */
+class HibernateCacheConfigurationTest {
+
+    private static final String CONFIG = "application.conf";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRegionsLoadFromPackagedJar() throws IOException {
+        Path jar = dir.resolve("product-service.jar");
+        try (InputStream config = getClass().getClassLoader().getResourceAsStream(CONFIG);
+             OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = new JarOutputStream(out)) {
+            assertNotNull(config, CONFIG + " is not on the classpath");
+            jarOut.putNextEntry(new JarEntry(CONFIG));
+            config.transferTo(jarOut);
+            jarOut.closeEntry();
+        }
+
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        try (URLClassLoader jarOnly = new URLClassLoader(new URL[]{jar.toUri().toURL()},
+                new HidingClassLoader(getClass().getClassLoader()))) {
+            assertTrue(jarOnly.getResource(CONFIG).toString().startsWith("jar:"));
+
+            // Hibernate asks for the provider's default URI when hibernate.javax.cache.uri is not set, and
+            // with missing_cache_strategy=fail it refuses to start when getCache returns null for a region
+            CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), jarOnly);
+            for (String region : List.of("category", "category-children", "default-query-results-region",
+                    "default-update-timestamps-region")) {
+                assertNotNull(cacheManager.getCache(region), region);
+            }
+            assertNull(cacheManager.getCache("undefined-region"));
+        } finally {
+            provider.close();
+        }
+    }
+
+    /**
+     * Hides the {@code target/classes} copy so the configuration can only come from the jar.
+     */
+    private static class HidingClassLoader extends ClassLoader {
+
+        HidingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        public URL getResource(String name) {
+            return CONFIG.equals(name) ? null : super.getResource(name);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            return CONFIG.equals(name) ? Collections.emptyEnumeration() : super.getResources(name);
+        }
+    }
+}
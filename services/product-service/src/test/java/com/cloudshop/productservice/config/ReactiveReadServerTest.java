@@ -0,0 +1,39 @@
+package com.cloudshop.productservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveReadServerTest {
+
+    @Test
+    void testStartServesRoutesUntilStopped() {
+        ReactiveReadProperties properties = new ReactiveReadProperties();
+        properties.setPort(0);
+        properties.setEventLoopThreads(1);
+        ReactiveReadServer server = new ReactiveReadServer(RouterFunctions.toHttpHandler(RouterFunctions.route()
+                .GET("/api/v1/products", request -> ServerResponse.ok().bodyValue("[]"))
+                .build()), properties);
+
+        server.start();
+        try {
+            assertTrue(server.isRunning());
+            WebTestClient client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort()).build();
+            client.get().uri("/api/v1/products").exchange().expectStatus().isOk().expectBody(String.class).isEqualTo("[]");
+            client.get().uri("/api/v1/orders").exchange().expectStatus().isNotFound();
+        } finally {
+            server.stop();
+        }
+        assertFalse(server.isRunning());
+    }
+
+    @Test
+    void testUriTag_CollapsesIds() {
+        assertEquals("/api/v1/products/{id}",
+                ReactiveReadServer.uriTag("/api/v1/products/3f2b7c1e-8a4d-4e5f-9b6a-1c2d3e4f5a6b"));
+        assertEquals("/api/v1/products/search", ReactiveReadServer.uriTag("/api/v1/products/search"));
+    }
+}
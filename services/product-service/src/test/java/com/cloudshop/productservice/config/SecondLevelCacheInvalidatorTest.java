@@ -0,0 +1,77 @@
+package com.cloudshop.productservice.config;
+
+import com.cloudshop.productservice.model.Category;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SecondLevelCacheInvalidatorTest {
+
+    private SessionFactory sessionFactory;
+    private StringRedisTemplate redisTemplate;
+    private SecondLevelCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Category.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:l2-" + UUID.randomUUID())
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.cache.use_second_level_cache", "true")
+                .setProperty("hibernate.cache.use_query_cache", "true")
+                .setProperty("hibernate.cache.region.factory_class", "jcache")
+                .setProperty("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")
+                .setProperty("hibernate.javax.cache.missing_cache_strategy", "fail")
+                .buildSessionFactory();
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class))
+                .thenReturn((SessionFactoryImplementor) sessionFactory);
+        redisTemplate = mock(StringRedisTemplate.class);
+        invalidator = new SecondLevelCacheInvalidator(entityManagerFactory, redisTemplate,
+                mock(RedisMessageListenerContainer.class));
+        invalidator.register();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testCommittedWriteIsBroadcast() {
+        sessionFactory.inTransaction(session -> session.persist(Category.builder().name("Shoes").slug("shoes").build()));
+
+        verify(redisTemplate).convertAndSend("product-service:l2-invalidation", Category.class.getName());
+    }
+
+    @Test
+    void testEvictClearsEntityAndChildrenRegions() {
+        UUID parentId = sessionFactory.fromTransaction(session -> {
+            Category parent = Category.builder().name("Apparel").slug("apparel").build();
+            parent.addChild(Category.builder().name("Shoes").slug("shoes").build());
+            session.persist(parent);
+            parent.getChildren().forEach(session::persist);
+            return parent.getId();
+        });
+        // Loading the children puts the parent and its collection in the cache
+        sessionFactory.inTransaction(session -> session.find(Category.class, parentId).getChildren().size());
+        assertTrue(sessionFactory.getCache().containsEntity(Category.class, parentId));
+        assertTrue(sessionFactory.getCache().containsCollection(Category.class.getName() + ".children", parentId));
+
+        invalidator.evict(Category.class.getName());
+
+        assertFalse(sessionFactory.getCache().containsEntity(Category.class, parentId));
+        assertFalse(sessionFactory.getCache().containsCollection(Category.class.getName() + ".children", parentId));
+    }
+}
@@ -0,0 +1,151 @@
+package com.cloudshop.productservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaleWhileRevalidateCacheTest {
+
+    private MutableClock clock;
+    private List<Runnable> pendingRefreshes;
+    private StaleWhileRevalidateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        pendingRefreshes = new ArrayList<>();
+        cache = new StaleWhileRevalidateCache(new ConcurrentMapCache("categories"), Duration.ofMinutes(10),
+                pendingRefreshes::add, TransactionOperations.withoutTransaction(), clock);
+    }
+
+    @Test
+    void testLoadsOnMissAndServesFreshValue() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("key", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("key", () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+        assertTrue(pendingRefreshes.isEmpty());
+    }
+
+    @Test
+    void testServesStaleValueAndRefreshesInBackground() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("key", () -> "v" + loads.incrementAndGet());
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertEquals("v1", cache.get("key", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("key", () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, pendingRefreshes.size(), "concurrent stale hits should schedule a single refresh");
+
+        pendingRefreshes.remove(0).run();
+
+        assertEquals("v2", cache.get("key", () -> "v" + loads.incrementAndGet()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testPlainGetTreatsStaleEntryAsMiss() {
+        cache.put("key", "value");
+        assertNotNull(cache.get("key"));
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void testFailedRefreshKeepsStaleValue() {
+        cache.put("key", "value");
+        clock.advance(Duration.ofMinutes(11));
+
+        cache.get("key", () -> {
+            throw new IllegalStateException("database down");
+        });
+        pendingRefreshes.remove(0).run();
+
+        assertEquals("value", cache.get("key", () -> "unused"));
+        assertEquals(1, pendingRefreshes.size(), "a failed refresh should allow another attempt");
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch finishLoad = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> first = executor.submit(() -> cache.get("key", () -> {
+                loadStarted.countDown();
+                assertTrue(finishLoad.await(5, TimeUnit.SECONDS));
+                return "v" + loads.incrementAndGet();
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            List<Future<Object>> waiting = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                waiting.add(executor.submit(() -> cache.get("key", () -> "v" + loads.incrementAndGet())));
+            }
+            // Give the other misses time to reach the in-flight load before it completes
+            Thread.sleep(200);
+            finishLoad.countDown();
+
+            assertEquals("v1", first.get(5, TimeUnit.SECONDS));
+            for (Future<Object> result : waiting) {
+                assertEquals("v1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        assertThrows(RuntimeException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals("value", cache.get("key", () -> "value"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.cloudshop.productservice.controller;
 
 import com.cloudshop.productservice.dto.*;
+import com.cloudshop.productservice.producer.ProductViewEventProducer;
 import com.cloudshop.productservice.service.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -15,11 +17,13 @@ import java.util.Arrays;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
+@Import(ProductFieldSets.class)
 class ProductControllerTest {
 
     @Autowired
@@ -34,9 +38,18 @@ class ProductControllerTest {
     @MockBean
     private BulkImportService bulkImportService;
 
+    @MockBean
+    private BulkUpdateService bulkUpdateService;
+
     @MockBean
     private ImageService imageService;
 
+    @MockBean
+    private ProductViewService productViewService;
+
+    @MockBean
+    private ProductViewEventProducer productViewEventProducer;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -51,12 +64,18 @@ class ProductControllerTest {
                 .price(new BigDecimal("99.99"))
                 .build();
 
-        when(productService.getProductById(productId)).thenReturn(response);
+        ProductViewService.ProductView view = ProductViewService.ProductView.of(objectMapper.writeValueAsBytes(response));
+        when(productViewService.getProductView(eq(productId), any())).thenReturn(view);
 
         mockMvc.perform(get("/api/v1/products/{id}", productId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", view.etag()))
                 .andExpect(jsonPath("$.id").value(productId.toString()))
                 .andExpect(jsonPath("$.name").value("Test Product"));
+
+        mockMvc.perform(get("/api/v1/products/{id}", productId)
+                        .header("If-None-Match", view.etag()))
+                .andExpect(status().isNotModified());
     }
 
     @Test
@@ -0,0 +1,153 @@
+package com.cloudshop.productservice.controller;
+
+import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductFieldSet;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductSearchRequest;
+import com.cloudshop.productservice.exception.ResourceNotFoundException;
+import com.cloudshop.productservice.producer.ProductViewEventProducer;
+import com.cloudshop.productservice.service.ProductFieldSets;
+import com.cloudshop.productservice.service.ProductViewService;
+import com.cloudshop.productservice.service.ReactiveCatalogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveProductHandlerTest {
+
+    @Mock
+    private ReactiveCatalogService catalogService;
+
+    @Mock
+    private ProductViewEventProducer productViewEventProducer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID productId = UUID.randomUUID();
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveProductHandler handler = new ReactiveProductHandler(catalogService, new ProductFieldSets(objectMapper),
+                productViewEventProducer, objectMapper);
+        client = WebTestClient.bindToRouterFunction(handler.routes()).build();
+    }
+
+    @Test
+    void testGetProductById_ServesTheStoredView() throws Exception {
+        ProductViewService.ProductView view = ProductViewService.ProductView.of(objectMapper.writeValueAsBytes(
+                ProductResponse.builder().id(productId).name("Test Product").build()));
+        when(catalogService.getProductView(productId, ProductFieldSet.ALL)).thenReturn(Mono.just(view));
+
+        client.get().uri("/api/v1/products/{id}", productId)
+                .header("X-User-Id", "user-1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", view.etag())
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Test Product");
+        verify(productViewEventProducer).emit(productId, "user-1", null);
+
+        client.get().uri("/api/v1/products/{id}", productId)
+                .header("If-None-Match", view.etag())
+                .exchange()
+                .expectStatus().isNotModified();
+
+        client.get().uri("/api/v1/products/{id}", productId)
+                .header("Accept-Encoding", "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Content-Encoding", "gzip")
+                .expectHeader().valueEquals("ETag", view.gzipEtag());
+    }
+
+    @Test
+    void testGetProductById_MapsErrors() {
+        when(catalogService.getProductView(eq(productId), any()))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Product not found with id: " + productId)));
+
+        client.get().uri("/api/v1/products/{id}", productId)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Product not found with id: " + productId);
+
+        client.get().uri("/api/v1/products/not-a-uuid")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Bad Request");
+        verifyNoInteractions(productViewEventProducer);
+    }
+
+    @Test
+    void testGetAllProducts_WritesTheSelectedFields() {
+        ProductResponse product = ProductResponse.builder()
+                .id(productId)
+                .name("Test Product")
+                .sku("SKU-1")
+                .price(new BigDecimal("9.99"))
+                .build();
+        when(catalogService.getAllProducts(eq(2), eq(5), eq("price"), eq("DESC"), any()))
+                .thenReturn(Mono.just(PageResponse.<ProductResponse>builder()
+                        .content(List.of(product))
+                        .page(2)
+                        .size(5)
+                        .build()));
+
+        client.get().uri("/api/v1/products?page=2&size=5&sortBy=price&fields=name,price")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.page").isEqualTo(2)
+                .jsonPath("$.content[0].name").isEqualTo("Test Product")
+                .jsonPath("$.content[0].price").isEqualTo(9.99)
+                .jsonPath("$.content[0].sku").doesNotExist();
+    }
+
+    @Test
+    void testSearchProducts_BindsFilters() {
+        UUID categoryId = UUID.randomUUID();
+        when(catalogService.searchProducts(any())).thenReturn(Mono.just(PageResponse.<ProductResponse>builder()
+                .content(List.of())
+                .build()));
+
+        client.get().uri("/api/v1/products/search?query=jacket&categoryId={categoryId}&minPrice=10&inStock=true",
+                        categoryId)
+                .exchange()
+                .expectStatus().isOk();
+
+        ArgumentCaptor<ProductSearchRequest> captor = ArgumentCaptor.forClass(ProductSearchRequest.class);
+        verify(catalogService).searchProducts(captor.capture());
+        ProductSearchRequest request = captor.getValue();
+        assertEquals("jacket", request.getQuery());
+        assertEquals(categoryId, request.getCategoryId());
+        assertEquals(new BigDecimal("10"), request.getMinPrice());
+        assertTrue(request.getInStock());
+        assertEquals(20, request.getSize());
+        assertTrue(request.getFields().isAll());
+
+        client.get().uri("/api/v1/products/search?minPrice=cheap")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
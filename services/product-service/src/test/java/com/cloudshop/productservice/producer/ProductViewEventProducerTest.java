@@ -0,0 +1,119 @@
+package com.cloudshop.productservice.producer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedKafka(topics = "product_viewed", partitions = 1)
+class ProductViewEventProducerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testEmit_PublishesBatchedEventsKeyedByProduct(EmbeddedKafkaBroker broker) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProductViewEventProducer producer = new ProductViewEventProducer(objectMapper, meterRegistry,
+                kafkaProperties(broker.getBrokersAsString()), null, 1024);
+        producer.start();
+        UUID productId = UUID.randomUUID();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 25; i++) {
+                    producer.emit(productId, "user-1", "session-1");
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        producer.shutdown();
+
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        try (Consumer<String, String> consumer = consumer(broker)) {
+            broker.consumeFromAnEmbeddedTopic(consumer, "product_viewed");
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (records.size() < 100 && System.currentTimeMillis() < deadline) {
+                ConsumerRecords<String, String> polled = consumer.poll(Duration.ofMillis(200));
+                polled.forEach(records::add);
+            }
+        }
+
+        assertEquals(100, records.size());
+        JsonNode event = objectMapper.readTree(records.get(0).value());
+        assertEquals(productId.toString(), records.get(0).key());
+        assertEquals(productId.toString(), event.get("product_id").asText());
+        assertEquals("user-1", event.get("user_id").asText());
+        assertEquals("session-1", event.get("session_id").asText());
+        assertTrue(event.hasNonNull("timestamp"));
+        assertEquals(100, meterRegistry.get("product.view.events").tag("outcome", "sent").counter().count());
+    }
+
+    @Test
+    void testEmit_IgnoredWhenNotStarted() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProductViewEventProducer producer = new ProductViewEventProducer(objectMapper, meterRegistry,
+                kafkaProperties("localhost:1"), null, 16);
+
+        producer.emit(UUID.randomUUID(), null, null);
+
+        assertEquals(0, meterRegistry.get("product.view.events.buffered").gauge().value());
+        producer.shutdown();
+    }
+
+    @Test
+    void testProducerConfig_KeepsSpringKafkaSettingsAndOverridesBatching() {
+        KafkaProperties kafkaProperties = kafkaProperties("broker-1:9093");
+        kafkaProperties.setClientId("product-service");
+        kafkaProperties.getSecurity().setProtocol("SASL_SSL");
+        kafkaProperties.getProducer().setAcks("all");
+        kafkaProperties.getProducer().getProperties().put("sasl.mechanism", "SCRAM-SHA-512");
+        ProductViewEventProducer producer = new ProductViewEventProducer(objectMapper, new SimpleMeterRegistry(),
+                kafkaProperties, null, 16);
+
+        Map<String, Object> config = producer.producerConfig();
+
+        assertEquals(List.of("broker-1:9093"), config.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals("SASL_SSL", config.get(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG));
+        assertEquals("SCRAM-SHA-512", config.get("sasl.mechanism"));
+        assertEquals("product-service-view-events", config.get(ProducerConfig.CLIENT_ID_CONFIG));
+        assertEquals("1", config.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(50, config.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("lz4", config.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+    }
+
+    private static KafkaProperties kafkaProperties(String bootstrapServers) {
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setBootstrapServers(List.of(bootstrapServers));
+        return kafkaProperties;
+    }
+
+    private static Consumer<String, String> consumer(EmbeddedKafkaBroker broker) {
+        Map<String, Object> config = KafkaTestUtils.consumerProps("view-events-test", "false", broker);
+        config.put("auto.offset.reset", "earliest");
+        return new KafkaConsumer<>(config, new StringDeserializer(), new StringDeserializer());
+    }
+}
@@ -0,0 +1,203 @@
+package com.cloudshop.productservice.repository;
+
+import com.cloudshop.productservice.dto.CategoryResponse;
+import com.cloudshop.productservice.dto.ProductVariantResponse;
+import com.cloudshop.productservice.dto.ReviewResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveProductRepositoryTest {
+
+    private final UUID categoryId = UUID.randomUUID();
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final UUID third = UUID.randomUUID();
+
+    private DatabaseClient databaseClient;
+    private ReactiveProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        var connectionFactory = ConnectionFactories.get("r2dbc:h2:mem:///reactive-" + UUID.randomUUID()
+                + "?options=DB_CLOSE_DELAY=-1");
+        databaseClient = DatabaseClient.create(connectionFactory);
+        repository = new ReactiveProductRepository(connectionFactory, new ObjectMapper());
+
+        execute("CREATE TABLE products (id UUID PRIMARY KEY, merchant_id UUID, name VARCHAR(255), description TEXT, "
+                + "sku VARCHAR(100), price DECIMAL(19, 2), category_id UUID, image_url VARCHAR(500), "
+                + "image_urls VARCHAR(2000), created_at TIMESTAMP WITH TIME ZONE, "
+                + "updated_at TIMESTAMP WITH TIME ZONE, is_active BOOLEAN, popularity_score DOUBLE PRECISION)");
+        execute("CREATE TABLE reviews (id UUID PRIMARY KEY, product_id UUID, user_id UUID, rating INT, "
+                + "title VARCHAR(255), comment TEXT, is_verified_purchase BOOLEAN, "
+                + "created_at TIMESTAMP WITH TIME ZONE, updated_at TIMESTAMP WITH TIME ZONE, is_visible BOOLEAN)");
+        execute("CREATE TABLE product_variants (id UUID PRIMARY KEY, product_id UUID, sku VARCHAR(100), "
+                + "name VARCHAR(255), size VARCHAR(50), color VARCHAR(50), price_adjustment DECIMAL(19, 2), "
+                + "stock_quantity INT, is_available BOOLEAN, created_at TIMESTAMP WITH TIME ZONE, "
+                + "updated_at TIMESTAMP WITH TIME ZONE)");
+        execute("CREATE TABLE categories (id UUID PRIMARY KEY, name VARCHAR(255), slug VARCHAR(255), "
+                + "description TEXT, image_url VARCHAR(500), parent_id UUID, created_at TIMESTAMP WITH TIME ZONE, "
+                + "updated_at TIMESTAMP WITH TIME ZONE, is_active BOOLEAN)");
+        insertProduct(first, "Alpha", "10.00", true, 3.0);
+        insertProduct(second, "Bravo", "20.00", true, 1.0);
+        insertProduct(third, "Charlie", "30.00", false, 2.0);
+        insertReview(first, 5, true);
+        insertReview(first, 4, true);
+        insertReview(first, 1, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testFindColumns_SelectsFiltersAndSorts() {
+        Page<Map<String, Object>> page = repository.findColumns(List.of("id", "name", "price", "imageUrls"),
+                Map.of("isActive", true), PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "popularityScore")))
+                .block();
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(first, second), page.map(row -> row.get("id")).getContent());
+        Map<String, Object> row = page.getContent().get(0);
+        assertEquals(List.of("id", "name", "price", "imageUrls"), List.copyOf(row.keySet()));
+        assertEquals("Alpha", row.get("name"));
+        assertEquals(0, new BigDecimal("10.00").compareTo((BigDecimal) row.get("price")));
+        assertEquals(List.of("https://cdn.test/Alpha.jpg"), row.get("imageUrls"));
+    }
+
+    @Test
+    void testFindColumns_CountsWhenThePageIsFull() {
+        Page<Map<String, Object>> page = repository.findColumns(List.of("id"), Map.of("categoryId", categoryId),
+                PageRequest.of(1, 1, Sort.by("name"))).block();
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(second, page.getContent().get(0).get("id"));
+    }
+
+    @Test
+    void testFindColumns_RejectsUnknownAttributes() {
+        assertThrows(IllegalArgumentException.class, () -> repository.findColumns(List.of("id", "name; DROP TABLE"),
+                Map.of(), PageRequest.of(0, 10)));
+        assertThrows(IllegalArgumentException.class, () -> repository.findColumns(List.of("id"),
+                Map.of(), PageRequest.of(0, 10, Sort.by("variants"))));
+    }
+
+    @Test
+    void testFindRatingStatsByProductIds_CountsVisibleReviews() {
+        List<Object[]> rows = repository.findRatingStatsByProductIds(List.of(first, second)).block();
+
+        assertEquals(1, rows.size());
+        assertEquals(first, rows.get(0)[0]);
+        assertEquals(4.5, (Double) rows.get(0)[1], 0.001);
+        assertEquals(2L, rows.get(0)[2]);
+    }
+
+    @Test
+    void testFindVariantsByProductIds_GroupsByProduct() {
+        insertVariant(first, "ALPHA-S", "S");
+        insertVariant(first, "ALPHA-M", "M");
+        insertVariant(third, "CHARLIE-S", "S");
+
+        Map<UUID, List<ProductVariantResponse>> variants =
+                repository.findVariantsByProductIds(List.of(first, second)).block();
+
+        assertEquals(Set.of(first), variants.keySet());
+        assertEquals(Set.of("ALPHA-S", "ALPHA-M"),
+                variants.get(first).stream().map(ProductVariantResponse::getSku).collect(Collectors.toSet()));
+        ProductVariantResponse variant = variants.get(first).get(0);
+        assertEquals(0, new BigDecimal("1.50").compareTo(variant.getPriceAdjustment()));
+        assertEquals(7, variant.getStockQuantity());
+        assertNotNull(variant.getCreatedAt());
+    }
+
+    @Test
+    void testFindReviewsByProductIds_IncludesHiddenReviews() {
+        Map<UUID, List<ReviewResponse>> reviews = repository.findReviewsByProductIds(List.of(first, second)).block();
+
+        assertEquals(Set.of(first), reviews.keySet());
+        assertEquals(3, reviews.get(first).size());
+        assertEquals(Set.of(true, false),
+                reviews.get(first).stream().map(ReviewResponse::getIsVisible).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testFindCategoriesByIds_ReadsTheCategoryRow() {
+        UUID parentId = UUID.randomUUID();
+        databaseClient.sql("INSERT INTO categories VALUES (:id, 'Shoes', 'shoes', NULL, NULL, :parentId, "
+                        + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, TRUE)")
+                .bind("id", categoryId)
+                .bind("parentId", parentId)
+                .then()
+                .block();
+
+        Map<UUID, CategoryResponse> categories =
+                repository.findCategoriesByIds(List.of(categoryId, UUID.randomUUID())).block();
+
+        CategoryResponse category = categories.get(categoryId);
+        assertEquals(1, categories.size());
+        assertEquals("Shoes", category.getName());
+        assertEquals(parentId, category.getParentId());
+        assertEquals(List.of(), category.getChildren());
+    }
+
+    private void insertVariant(UUID productId, String sku, String size) {
+        databaseClient.sql("INSERT INTO product_variants VALUES (:id, :productId, :sku, :sku, :size, 'Red', 1.50, 7, "
+                        + "TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
+                .bind("id", UUID.randomUUID())
+                .bind("productId", productId)
+                .bind("sku", sku)
+                .bind("size", size)
+                .then()
+                .block();
+    }
+
+    private void insertProduct(UUID id, String name, String price, boolean active, double popularity) {
+        databaseClient.sql("INSERT INTO products VALUES (:id, :merchantId, :name, NULL, :sku, :price, :categoryId, "
+                        + "NULL, :imageUrls, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, :active, :popularity)")
+                .bind("id", id)
+                .bind("merchantId", UUID.randomUUID())
+                .bind("name", name)
+                .bind("sku", "SKU-" + name)
+                .bind("price", new BigDecimal(price))
+                .bind("categoryId", categoryId)
+                .bind("imageUrls", "[\"https://cdn.test/" + name + ".jpg\"]")
+                .bind("active", active)
+                .bind("popularity", popularity)
+                .then()
+                .block();
+    }
+
+    private void insertReview(UUID productId, int rating, boolean visible) {
+        databaseClient.sql("INSERT INTO reviews (id, product_id, user_id, rating, is_verified_purchase, created_at, "
+                        + "updated_at, is_visible) VALUES (:id, :productId, :userId, :rating, FALSE, CURRENT_TIMESTAMP, "
+                        + "CURRENT_TIMESTAMP, :visible)")
+                .bind("id", UUID.randomUUID())
+                .bind("userId", UUID.randomUUID())
+                .bind("productId", productId)
+                .bind("rating", rating)
+                .bind("visible", visible)
+                .then()
+                .block();
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
@@ -0,0 +1,104 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.BulkImportResponse;
+import com.cloudshop.productservice.dto.ProductRequest;
+import com.cloudshop.productservice.model.Product;
+import com.cloudshop.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BulkImportServiceTest {
+
+    private static final UUID MERCHANT_ID = UUID.randomUUID();
+
+    private ProductRepository productRepository;
+    private SkuFilterService skuFilterService;
+    private PlatformTransactionManager transactionManager;
+    private BulkImportService service;
+    private final List<String> savedSkus = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        skuFilterService = mock(SkuFilterService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        ProductMapper productMapper = mock(ProductMapper.class);
+        when(productMapper.toProduct(any(ProductRequest.class))).thenAnswer(invocation -> {
+            ProductRequest request = invocation.getArgument(0);
+            return Product.builder().name(request.getName()).sku(request.getSku()).price(request.getPrice()).build();
+        });
+        service = new BulkImportService(productRepository, productMapper, mock(ValidationService.class),
+                mock(SpellingSuggestionService.class), skuFilterService,
+                new ProductMetrics(new SimpleMeterRegistry()), transactionManager);
+    }
+
+    @Test
+    void testDuplicateMissedByFilterFailsOnlyItsRow() {
+        // The filter said SKU-2 is new, but another instance had just created it
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            if (product.getSku().equals("SKU-2")) {
+                throw new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("duplicate key value violates unique constraint \"idx_product_sku\""));
+            }
+            savedSkus.add(product.getSku());
+            return product;
+        });
+
+        BulkImportResponse response = service.importProducts(csv(3), MERCHANT_ID);
+
+        assertEquals(2, response.getSuccessCount());
+        assertEquals(List.of("Row 2: SKU already exists: SKU-2"), response.getErrors());
+        // The chunk was rolled back and its rows saved one by one
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, times(2)).rollback(any());
+        assertEquals(List.of("SKU-1", "SKU-1", "SKU-3"), savedSkus);
+        verify(skuFilterService, never()).onSkusAdded(List.of("SKU-2"));
+        verify(skuFilterService).onSkusAdded(List.of("SKU-3"));
+    }
+
+    @Test
+    void testSavesOneTransactionPerChunk() {
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkImportResponse response = service.importProducts(csv(BulkImportService.CHUNK_SIZE + 1), MERCHANT_ID);
+
+        assertEquals(BulkImportService.CHUNK_SIZE + 1, response.getSuccessCount());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testRepeatedSkuInFileIsDuplicate() {
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        MockMultipartFile file = new MockMultipartFile("file", "import.csv", "text/csv",
+                ("name,description,sku,price\nA,,SKU-1,10\nB,,SKU-1,12\n").getBytes(StandardCharsets.UTF_8));
+
+        BulkImportResponse response = service.importProducts(file, MERCHANT_ID);
+
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(List.of("Row 2: SKU already exists: SKU-1"), response.getErrors());
+    }
+
+    private MockMultipartFile csv(int rows) {
+        String body = IntStream.rangeClosed(1, rows)
+                .mapToObj(i -> "Product " + i + ",,SKU-" + i + "," + (10 + i))
+                .collect(Collectors.joining("\n", "name,description,sku,price\n", "\n"));
+        return new MockMultipartFile("file", "import.csv", "text/csv", body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,87 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.BulkUpdateItem;
+import com.cloudshop.productservice.dto.BulkUpdateRequest;
+import com.cloudshop.productservice.dto.BulkUpdateResponse;
+import com.cloudshop.productservice.dto.BulkUpdateResponse.Status;
+import com.cloudshop.productservice.repository.CategoryRepository;
+import com.cloudshop.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkUpdateServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ProductViewService productViewService;
+
+    @InjectMocks
+    private BulkUpdateService bulkUpdateService;
+
+    @Test
+    void testUpdateProducts_ReportsEachRow() throws Exception {
+        UUID merchantId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        Cache productCache = mock(Cache.class);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("sku")).thenReturn("SKU-1");
+        when(resultSet.getObject("id", UUID.class)).thenReturn(productId);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        when(productRepository.findAllWithVariantsByIdIn(List.of(productId))).thenReturn(List.of());
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+
+        BulkUpdateRequest request = BulkUpdateRequest.builder()
+                .items(List.of(
+                        BulkUpdateItem.builder().sku("SKU-1").price(new BigDecimal("10.00")).build(),
+                        BulkUpdateItem.builder().sku("SKU-2").isActive(false).build(),
+                        BulkUpdateItem.builder().sku("SKU-1").price(new BigDecimal("12.00")).build(),
+                        BulkUpdateItem.builder().sku("SKU-3").build()))
+                .build();
+
+        BulkUpdateResponse response = bulkUpdateService.updateProducts(request, merchantId);
+
+        assertEquals(4, response.getTotalRows());
+        assertEquals(1, response.getUpdatedCount());
+        assertEquals(List.of(Status.UPDATED, Status.NOT_FOUND, Status.INVALID, Status.INVALID),
+                response.getResults().stream().map(BulkUpdateResponse.RowResult::getStatus).toList());
+        assertEquals(productId, response.getResults().get(0).getProductId());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        verify(searchService).updateProductFields(List.of());
+        verify(productCache).evict(productId);
+    }
+}
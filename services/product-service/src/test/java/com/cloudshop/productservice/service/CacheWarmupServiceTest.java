@@ -0,0 +1,126 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class CacheWarmupServiceTest {
+
+    private CategoryService categoryService;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private ProductViewService productViewService;
+    private Cache productCache;
+    private CacheWarmupService warmupService;
+
+    @BeforeEach
+    void setUp() {
+        categoryService = mock(CategoryService.class);
+        productService = mock(ProductService.class);
+        productRepository = mock(ProductRepository.class);
+        productViewService = mock(ProductViewService.class);
+        productCache = mock(Cache.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+        when(productService.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> ProductResponse.builder().id(id).build()).toList();
+        });
+
+        warmupService = new CacheWarmupService(categoryService, productService, productRepository, cacheManager,
+                productViewService);
+        ReflectionTestUtils.setField(warmupService, "enabled", true);
+        ReflectionTestUtils.setField(warmupService, "source", "recent");
+        ReflectionTestUtils.setField(warmupService, "topProducts", 5);
+        ReflectionTestUtils.setField(warmupService, "popularProductIds", List.of());
+        ReflectionTestUtils.setField(warmupService, "batchSize", 2);
+        ReflectionTestUtils.setField(warmupService, "parallelism", 2);
+    }
+
+    @Test
+    void testWarmsCategoriesBeforeProducts() {
+        List<UUID> ids = ids(5);
+        when(productRepository.findRecentlyUpdatedIds(PageRequest.of(0, 5))).thenReturn(ids);
+
+        warmupService.warmUp();
+
+        InOrder order = inOrder(categoryService, productRepository, productService);
+        order.verify(categoryService).getAllCategories();
+        order.verify(categoryService).getCategoryTree();
+        order.verify(productRepository).findRecentlyUpdatedIds(any());
+        order.verify(productService, times(3)).getProductsByIds(anyList());
+        assertEquals(CacheWarmupService.Status.COMPLETED, warmupService.getStatus());
+        assertEquals(5, warmupService.getProgress().get("productsLoaded"));
+        assertEquals(2, warmupService.getProgress().get("categoriesLoaded"));
+        ids.forEach(id -> verify(productCache).put(eq(id), any(ProductResponse.class)));
+        verify(productViewService, times(5)).put(any(ProductResponse.class));
+    }
+
+    @Test
+    void testFailedBatchLeavesOthersWarm() {
+        List<UUID> ids = ids(4);
+        when(productRepository.findRecentlyUpdatedIds(any())).thenReturn(ids);
+        when(productService.getProductsByIds(ids.subList(0, 2))).thenThrow(new IllegalStateException("timeout"));
+
+        warmupService.warmUp();
+
+        assertEquals(CacheWarmupService.Status.COMPLETED, warmupService.getStatus());
+        assertEquals(2, warmupService.getProgress().get("productsLoaded"));
+        assertEquals(4, warmupService.getProgress().get("productsTotal"));
+        verify(productCache, never()).put(eq(ids.get(0)), any());
+    }
+
+    @Test
+    void testCategoryFailureFailsWarmupWithoutLoadingProducts() {
+        when(categoryService.getCategoryTree()).thenThrow(new IllegalStateException("database down"));
+
+        warmupService.warmUp();
+
+        assertEquals(CacheWarmupService.Status.FAILED, warmupService.getStatus());
+        assertEquals("database down", warmupService.getProgress().get("error"));
+        assertNotNull(warmupService.getProgress().get("finishedAt"));
+        verifyNoInteractions(productRepository, productService);
+    }
+
+    @Test
+    void testPopularSourceUsesConfiguredIds() {
+        List<UUID> ids = ids(7);
+        ReflectionTestUtils.setField(warmupService, "source", "popular");
+        ReflectionTestUtils.setField(warmupService, "popularProductIds", ids);
+
+        warmupService.warmUp();
+
+        assertEquals(5, warmupService.getProgress().get("productsTotal"));
+        verify(productRepository, never()).findRecentlyUpdatedIds(any());
+        verify(productService, never()).getProductsByIds(List.of(ids.get(5), ids.get(6)));
+    }
+
+    @Test
+    void testDisabledWarmupReportsDisabled() {
+        ReflectionTestUtils.setField(warmupService, "enabled", false);
+
+        warmupService.onApplicationStarted();
+
+        assertEquals(CacheWarmupService.Status.DISABLED, warmupService.getStatus());
+        verifyNoInteractions(categoryService);
+    }
+
+    private static List<UUID> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+}
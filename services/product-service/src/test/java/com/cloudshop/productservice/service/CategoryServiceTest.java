@@ -0,0 +1,59 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.CategoryResponse;
+import com.cloudshop.productservice.model.Category;
+import com.cloudshop.productservice.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CategoryServiceTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final CategoryService categoryService = new CategoryService(categoryRepository, mock(ProductMapper.class));
+
+    @Test
+    void testGetCategoryTree_NestsChildrenListedBeforeTheirParent() {
+        Category root = category("Clothing", null);
+        Category child = category("Jackets", root);
+        Category grandchild = category("Rain jackets", child);
+        when(categoryRepository.findByIsActive(true)).thenReturn(List.of(grandchild, child, root));
+
+        List<CategoryResponse> tree = categoryService.getCategoryTree();
+
+        assertEquals(1, tree.size());
+        CategoryResponse jackets = tree.get(0).getChildren().get(0);
+        assertEquals("Jackets", jackets.getName());
+        assertEquals(root.getId(), jackets.getParentId());
+        assertEquals("Rain jackets", jackets.getChildren().get(0).getName());
+    }
+
+    @Test
+    void testGetCategoryTree_InactiveCategoryHidesItsSubtree() {
+        Category root = category("Clothing", null);
+        Category inactive = category("Archive", root);
+        inactive.setIsActive(false);
+        Category hidden = category("Old jackets", inactive);
+        // The repository only returns active categories
+        when(categoryRepository.findByIsActive(true)).thenReturn(List.of(root, hidden));
+
+        List<CategoryResponse> tree = categoryService.getCategoryTree();
+
+        assertEquals(1, tree.size());
+        assertEquals("Clothing", tree.get(0).getName());
+        assertTrue(tree.get(0).getChildren().isEmpty());
+    }
+
+    private static Category category(String name, Category parent) {
+        return Category.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .slug(name.toLowerCase().replace(' ', '-'))
+                .parent(parent)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.cloudshop.productservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private ImageService imageService;
+
+    @BeforeEach
+    void setUp() {
+        imageService = new ImageService(new LocalImageStorage(root, "http://cdn.test/images"), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageService.shutdown();
+    }
+
+    @Test
+    void testUploadImages_DeduplicatesIdenticalContent() throws Exception {
+        byte[] png = png(800, 600);
+        List<String> urls = imageService.uploadImages(List.of(
+                new MockMultipartFile("files", "a.png", "image/png", png),
+                new MockMultipartFile("files", "b.png", "image/png", png),
+                new MockMultipartFile("files", "c.png", "image/png", png(300, 300))), UUID.randomUUID());
+
+        assertEquals(3, urls.size());
+        assertEquals(urls.get(0), urls.get(1));
+        assertNotEquals(urls.get(0), urls.get(2));
+        assertTrue(urls.get(0).startsWith("http://cdn.test/images/originals/"));
+        try (Stream<Path> originals = Files.walk(root.resolve("originals"))) {
+            assertEquals(2, originals.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void testUploadImage_WritesDownscaledDerivatives() throws Exception {
+        imageService.uploadImage(new MockMultipartFile("files", "a.png", "image/png", png(800, 600)), UUID.randomUUID());
+
+        List<Path> derivatives;
+        try (Stream<Path> files = Files.walk(root.resolve("derivatives"))) {
+            derivatives = files.filter(Files::isRegularFile).sorted().toList();
+        }
+        assertEquals(3, derivatives.size());
+        BufferedImage small = ImageIO.read(derivatives.stream()
+                .filter(path -> path.getFileName().toString().endsWith("-160.jpg"))
+                .findFirst()
+                .orElseThrow()
+                .toFile());
+        assertEquals(160, small.getWidth());
+        assertEquals(120, small.getHeight());
+        // Never enlarged beyond the original width
+        BufferedImage large = ImageIO.read(derivatives.stream()
+                .filter(path -> path.getFileName().toString().endsWith("-1024.jpg"))
+                .findFirst()
+                .orElseThrow()
+                .toFile());
+        assertEquals(800, large.getWidth());
+    }
+
+    @Test
+    void testUploadImages_RejectsUnsupportedOrCorruptFiles() {
+        UUID productId = UUID.randomUUID();
+        assertThrows(IllegalArgumentException.class, () -> imageService.uploadImages(
+                List.of(new MockMultipartFile("files", "a.txt", "text/plain", new byte[]{1})), productId));
+        assertThrows(IllegalArgumentException.class, () -> imageService.uploadImages(
+                List.of(new MockMultipartFile("files", "a.png", "image/png", new byte[]{1, 2, 3})), productId));
+        assertFalse(Files.exists(root.resolve("originals")));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(width / 2, height / 2, width * 31 + height);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
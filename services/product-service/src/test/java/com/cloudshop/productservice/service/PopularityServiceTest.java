@@ -0,0 +1,175 @@
+package com.cloudshop.productservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PopularityServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PopularityService popularityService;
+
+    private final Instant epoch = Instant.now().minus(Duration.ofDays(70));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(popularityService, "epoch", epoch);
+    }
+
+    @Test
+    void testIncrement_DoublesEveryHalfLife() {
+        Instant yesterday = Instant.now().minus(Duration.ofDays(1));
+
+        double current = popularityService.increment(1.0, yesterday);
+        double weekOld = popularityService.increment(1.0, yesterday.minus(Duration.ofDays(7)));
+        double future = popularityService.increment(1.0, Instant.now().plus(Duration.ofDays(7)));
+        double present = popularityService.increment(1.0, Instant.now());
+
+        assertEquals(2.0, current / weekOld, 1e-9);
+        assertTrue(future <= present);
+    }
+
+    @Test
+    void testFlush_SumsIncrementsPerProduct() throws Exception {
+        UUID productId = UUID.randomUUID();
+        UUID merchantId = UUID.randomUUID();
+        Instant at = Instant.now();
+        epochInDatabase(epoch);
+        popularityService.recordView(productId, at);
+        popularityService.recordOrder(productId, 2, at);
+
+        returnRow(productId, merchantId, 42.0);
+
+        popularityService.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), args.capture());
+        assertEquals(productId.toString(), args.getValue()[0]);
+        double expected = popularityService.increment(21.0, at);
+        assertEquals(expected, (Double) args.getValue()[1], expected * 1e-9);
+        verify(searchService).updatePopularityScores(List.of(new SearchService.PopularityScore(productId, merchantId, 42.0)));
+        assertEquals(0, popularityService.getPendingCount());
+    }
+
+    @Test
+    void testFlush_KeepsIncrementsWhenUpdateFails() {
+        epochInDatabase(epoch);
+        popularityService.recordView(UUID.randomUUID(), Instant.now());
+        doThrow(new QueryTimeoutException("timeout"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        popularityService.flush();
+
+        assertEquals(1, popularityService.getPendingCount());
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void testFlush_AdoptsEpochMovedByAnotherInstance() {
+        Instant at = Instant.now();
+        popularityService.recordView(UUID.randomUUID(), at);
+        Instant moved = epoch.plus(Duration.ofDays(14));
+        epochInDatabase(moved);
+
+        popularityService.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(startsWith("UPDATE products p"), any(RowCallbackHandler.class), args.capture());
+        assertEquals(moved, popularityService.getEpoch());
+        double expected = popularityService.increment(1.0, at);
+        assertEquals(expected, (Double) args.getValue()[1], expected * 1e-9);
+    }
+
+    @Test
+    void testRescale_MovesEpochForwardByWholeHalfLives() throws Exception {
+        Instant old = Instant.now().minus(Duration.ofDays(7 * 70 + 1));
+        ReflectionTestUtils.setField(popularityService, "epoch", old);
+        epochInDatabase(old);
+        UUID productId = UUID.randomUUID();
+        UUID merchantId = UUID.randomUUID();
+        returnRow(productId, merchantId, 3.0);
+
+        popularityService.rescaleIfDue();
+
+        Instant moved = old.plus(Duration.ofDays(7 * 70));
+        verify(jdbcTemplate).update(startsWith("UPDATE popularity_epoch"), eq(OffsetDateTime.ofInstant(moved, ZoneOffset.UTC)));
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(startsWith("UPDATE products SET"), any(RowCallbackHandler.class), args.capture());
+        assertEquals(Math.pow(2, -70), (Double) args.getValue()[0]);
+        verify(searchService).updatePopularityScores(List.of(new SearchService.PopularityScore(productId, merchantId, 3.0)));
+        assertEquals(moved, popularityService.getEpoch());
+        assertTrue(popularityService.increment(1.0, Instant.now()) < 2.0);
+    }
+
+    @Test
+    void testRescale_AdoptsEpochAlreadyMovedElsewhere() {
+        Instant old = Instant.now().minus(Duration.ofDays(7 * 70));
+        ReflectionTestUtils.setField(popularityService, "epoch", old);
+        popularityService.recordView(UUID.randomUUID(), Instant.now());
+        Instant moved = Instant.now().minus(Duration.ofDays(1));
+        epochInDatabase(moved);
+
+        popularityService.rescaleIfDue();
+
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE popularity_epoch"), any(Object[].class));
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        assertEquals(moved, popularityService.getEpoch());
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void testOnApplicationStarted_RejectsNonPositiveHalfLife() {
+        ReflectionTestUtils.setField(popularityService, "halfLife", Duration.ZERO);
+
+        assertThrows(IllegalStateException.class, () -> popularityService.onApplicationStarted());
+    }
+
+    private void epochInDatabase(Instant current) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT epoch"), eq(OffsetDateTime.class)))
+                .thenReturn(OffsetDateTime.ofInstant(current, ZoneOffset.UTC));
+    }
+
+    private void returnRow(UUID productId, UUID merchantId, double score) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getBoolean("is_active")).thenReturn(true);
+        when(resultSet.getObject("id", UUID.class)).thenReturn(productId);
+        when(resultSet.getObject("merchant_id", UUID.class)).thenReturn(merchantId);
+        when(resultSet.getDouble("popularity_score")).thenReturn(score);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+}
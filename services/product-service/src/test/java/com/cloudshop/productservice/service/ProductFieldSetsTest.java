@@ -0,0 +1,71 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductFieldSet;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFieldSetsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ProductFieldSets fieldSets = new ProductFieldSets(objectMapper);
+
+    @Test
+    void testParse_PresetsAndRepeatedParametersAreShared() {
+        ProductFieldSet card = fieldSets.parse("card");
+
+        assertSame(card, fieldSets.parse("card"));
+        assertSame(ProductFieldSet.ALL, fieldSets.parse(" "));
+        assertEquals(List.of("id", "name", "price", "imageUrl"), card.columns());
+        assertTrue(card.isProjectable());
+        assertTrue(card.needsReviewStats());
+
+        ProductFieldSet custom = fieldSets.parse("name, variants");
+        assertSame(custom, fieldSets.parse("name, variants"));
+        assertEquals("id,name,variants", custom.key());
+        assertFalse(custom.isProjectable());
+        assertArrayEquals(new String[]{"id", "name", "variants"}, custom.sourceIncludes());
+        assertEquals("id,name,description,price,imageUrl,averageRating,reviewCount",
+                fieldSets.parse("card,description").key());
+    }
+
+    @Test
+    void testParse_RejectsUnknownFields() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> fieldSets.parse("name,password"));
+        assertTrue(error.getMessage().contains("password"));
+    }
+
+    @Test
+    void testWrite_KeepsOnlySelectedProductProperties() throws Exception {
+        ProductResponse product = ProductResponse.builder()
+                .id(UUID.randomUUID())
+                .name("Lamp")
+                .description("A long description")
+                .price(new BigDecimal("19.99"))
+                .imageUrls(List.of("a.jpg", "b.jpg"))
+                .build();
+        PageResponse<ProductResponse> page = PageResponse.<ProductResponse>builder()
+                .content(List.of(product))
+                .totalElements(1)
+                .build();
+
+        JsonNode json = objectMapper.readTree(fieldSets.write(page, fieldSets.parse("name,price")));
+
+        JsonNode written = json.get("content").get(0);
+        assertEquals(3, written.size());
+        assertEquals("Lamp", written.get("name").asText());
+        assertEquals(product.getId().toString(), written.get("id").asText());
+        assertEquals(1, json.get("totalElements").asInt());
+        // The shared mapper is left untouched
+        assertTrue(objectMapper.valueToTree(product).has("description"));
+    }
+}
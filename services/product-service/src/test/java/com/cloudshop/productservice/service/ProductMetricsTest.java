@@ -0,0 +1,49 @@
+package com.cloudshop.productservice.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProductMetrics productMetrics = new ProductMetrics(registry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testTime_TagsEndpointAndOutcome() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/search");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/products/search");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals("hits", productMetrics.time(ProductMetrics.ELASTICSEARCH_REQUESTS, () -> "hits", "operation", "search"));
+
+        Timer timer = registry.get(ProductMetrics.ELASTICSEARCH_REQUESTS)
+                .tags("endpoint", "/api/v1/products/search", "outcome", ProductMetrics.SUCCESS, "operation", "search")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testTime_RecordsFailuresOutsideRequests() {
+        assertThrows(IllegalStateException.class, () -> productMetrics.run(ProductMetrics.ELASTICSEARCH_REQUESTS, () -> {
+            throw new IllegalStateException("cluster unavailable");
+        }, "operation", "index"));
+
+        Timer timer = registry.get(ProductMetrics.ELASTICSEARCH_REQUESTS)
+                .tags("endpoint", "none", "outcome", ProductMetrics.ERROR, "operation", "index")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -1,24 +1,46 @@
 package com.cloudshop.productservice.service;
 
+import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductChangesResponse;
+import com.cloudshop.productservice.dto.ProductFieldSet;
 import com.cloudshop.productservice.dto.ProductRequest;
 import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductVariantRequest;
 import com.cloudshop.productservice.exception.ResourceNotFoundException;
 import com.cloudshop.productservice.model.Product;
+import com.cloudshop.productservice.model.ProductVariant;
+import com.cloudshop.productservice.repository.ProductChangeView;
 import com.cloudshop.productservice.repository.ProductRepository;
 import com.cloudshop.productservice.repository.ReviewRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +61,21 @@ class ProductServiceTest {
     @Mock
     private SearchService searchService;
 
+    @Mock
+    private ProductViewService productViewService;
+
+    @Mock
+    private SpellingSuggestionService spellingSuggestionService;
+
+    @Mock
+    private SkuFilterService skuFilterService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private ProductMetrics productMetrics = new ProductMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private ProductService productService;
 
@@ -95,6 +132,44 @@ class ProductServiceTest {
         verify(productRepository).findById(productId);
     }
 
+    @Test
+    void testGetProductsByIds_BatchesReviewStatsAndSkipsUnknownIds() {
+        Product unrated = Product.builder().id(UUID.randomUUID()).merchantId(merchantId).build();
+        UUID unknownId = UUID.randomUUID();
+        List<UUID> ids = List.of(productId, unrated.getId(), unknownId);
+        List<Object[]> stats = List.<Object[]>of(new Object[]{productId, 4.5, 10L});
+        when(reviewRepository.findRatingStatsByProductIds(ids)).thenReturn(stats);
+        when(productRepository.findAllWithVariantsByIdIn(ids)).thenReturn(List.of(product, unrated));
+        when(productMapper.toProductResponseWithStats(product, 4.5, 10L)).thenReturn(productResponse);
+        when(productMapper.toProductResponseWithStats(unrated, null, 0L)).thenReturn(new ProductResponse());
+
+        List<ProductResponse> responses = productService.getProductsByIds(ids);
+
+        assertEquals(2, responses.size());
+        verify(reviewRepository, never()).findAverageRatingByProductId(any());
+        assertEquals(List.of(), productService.getProductsByIds(List.of()));
+    }
+
+    @Test
+    void testGetAllProducts_SparseFieldsSelectColumnsAndBatchStats() {
+        ProductFieldSet fields = new ProductFieldSets(new ObjectMapper()).parse("card");
+        Tuple row = mock(Tuple.class);
+        ProductResponse sparse = ProductResponse.builder().id(productId).name("Test Product").build();
+        when(productRepository.findColumns(eq(fields.columns()), eq(Map.of("isActive", true)), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+        when(productMapper.fromColumns(row)).thenReturn(sparse);
+        when(reviewRepository.findRatingStatsByProductIds(List.of(productId)))
+                .thenReturn(List.<Object[]>of(new Object[]{productId, 4.5, 2L}));
+
+        PageResponse<ProductResponse> response = productService.getAllProducts(0, 20, null, "DESC", fields);
+
+        assertEquals(List.of(sparse), response.getContent());
+        assertEquals(new BigDecimal("4.5"), sparse.getAverageRating());
+        assertEquals(2, sparse.getReviewCount());
+        verify(productRepository, never()).findByIsActive(any(), any());
+        verify(reviewRepository, never()).countByProductId(any());
+    }
+
     @Test
     void testGetProductById_NotFound() {
         when(productRepository.findById(productId)).thenReturn(Optional.empty());
@@ -104,26 +179,110 @@ class ProductServiceTest {
 
     @Test
     void testCreateProduct_Success() {
-        when(productRepository.existsBySku(productRequest.getSku())).thenReturn(false);
+        when(skuFilterService.skuExists(productRequest.getSku())).thenReturn(false);
         when(productMapper.toProduct(productRequest)).thenReturn(product);
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
         when(productMapper.toProductResponse(product)).thenReturn(productResponse);
 
         ProductResponse response = productService.createProduct(productRequest, merchantId);
 
         assertNotNull(response);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).saveAndFlush(any(Product.class));
         verify(searchService).indexProduct(any(Product.class));
+        verify(skuFilterService).onSkusAdded(List.of(product.getSku()));
     }
 
     @Test
     void testCreateProduct_DuplicateSku() {
-        when(productRepository.existsBySku(productRequest.getSku())).thenReturn(true);
+        when(skuFilterService.skuExists(productRequest.getSku())).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class, 
                 () -> productService.createProduct(productRequest, merchantId));
     }
 
+    @Test
+    void testCreateProduct_UniqueIndexViolationMissedByFilterIsDuplicateSku() {
+        when(skuFilterService.skuExists(productRequest.getSku())).thenReturn(false);
+        when(productMapper.toProduct(productRequest)).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("duplicate key value violates unique constraint "
+                        + "\"idx_product_sku\" Detail: Key (sku)=(TEST-SKU-001) already exists.")));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> productService.createProduct(productRequest, merchantId));
+
+        assertEquals("Product with SKU TEST-SKU-001 already exists", e.getMessage());
+        verify(searchService, never()).indexProduct(any(Product.class));
+        verify(skuFilterService, never()).onSkusAdded(any());
+    }
+
+    @Test
+    void testCreateProduct_OtherConstraintViolationIsNotDuplicateSku() {
+        when(skuFilterService.skuExists(productRequest.getSku())).thenReturn(false);
+        when(productMapper.toProduct(productRequest)).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("insert or update on table \"products\" violates "
+                        + "foreign key constraint \"fk_category\"")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> productService.createProduct(productRequest, merchantId));
+    }
+
+    @Test
+    void testUpdateProduct_BroadcastsOnlyNewSkus() {
+        product.addVariant(ProductVariant.builder().name("Red").sku("TEST-SKU-001-RED").build());
+        productRequest.setSku("TEST-SKU-002");
+        productRequest.setVariants(List.of(
+                ProductVariantRequest.builder().name("Red").sku("TEST-SKU-001-RED").build(),
+                ProductVariantRequest.builder().name("Blue").sku("TEST-SKU-001-BLUE").build()));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productMapper.toProductVariant(any(ProductVariantRequest.class))).thenAnswer(invocation -> {
+            ProductVariantRequest variant = invocation.getArgument(0);
+            return ProductVariant.builder().name(variant.getName()).sku(variant.getSku()).build();
+        });
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+
+        productService.updateProduct(productId, productRequest, merchantId);
+
+        verify(skuFilterService).onSkusAdded(List.of("TEST-SKU-002", "TEST-SKU-001-BLUE"));
+    }
+
+    @Test
+    void testUpdateProduct_PriceChangeUsesPartialIndexUpdate() {
+        productRequest.setPrice(new BigDecimal("79.99"));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+        when(productMapper.toProductResponse(product)).thenReturn(productResponse);
+
+        productService.updateProduct(productId, productRequest, merchantId);
+
+        verify(searchService).updateProductFields(List.of(product));
+        verify(searchService, never()).indexProduct(any(Product.class));
+    }
+
+    @Test
+    void testUpdateProduct_EvictsProductCachesAfterCommit() {
+        Cache productCache = mock(Cache.class);
+        Cache productsCache = mock(Cache.class);
+        when(cacheManager.getCache("product")).thenReturn(productCache);
+        when(cacheManager.getCache("products")).thenReturn(productsCache);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productService.updateProduct(productId, productRequest, merchantId);
+
+            verifyNoInteractions(productCache, productsCache);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(productCache).evict(productId);
+        verify(productsCache).clear();
+        verify(productViewService).evict(productId);
+    }
+
     @Test
     void testDeleteProduct_Success() {
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
@@ -133,7 +292,55 @@ class ProductServiceTest {
 
         assertFalse(product.getIsActive());
         verify(productRepository).save(product);
-        verify(searchService).removeProduct(productId);
+        verify(searchService).removeProduct(productId, merchantId);
+        verify(productViewService).evict(productId);
     }
-}
 
+    @Test
+    void testCheckCanUpdateProduct_RejectsMissingOrForeignProduct() {
+        UUID missingId = UUID.randomUUID();
+        when(productRepository.findMerchantIdById(productId)).thenReturn(Optional.of(merchantId));
+        when(productRepository.findMerchantIdById(missingId)).thenReturn(Optional.empty());
+
+        productService.checkCanUpdateProduct(productId, merchantId);
+        assertThrows(ResourceNotFoundException.class,
+                () -> productService.checkCanUpdateProduct(missingId, merchantId));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.checkCanUpdateProduct(productId, UUID.randomUUID()));
+    }
+
+    @Test
+    void testGetProductChanges_ResumesFromCursor() {
+        UUID deletedId = UUID.randomUUID();
+        Instant updatedAt = Instant.parse("2024-01-01T00:00:00.123456Z");
+        ProductChangeView changed = changeView(productId, updatedAt, true);
+        ProductChangeView deleted = changeView(deletedId, updatedAt.plusSeconds(1), false);
+        ProductChangeView extra = changeView(UUID.randomUUID(), updatedAt.plusSeconds(2), true);
+
+        Instant databaseNow = Instant.parse("2024-01-01T00:01:00Z");
+        when(productRepository.currentInstant()).thenReturn(databaseNow);
+        when(productRepository.findChangesSince(eq(Instant.EPOCH), any(UUID.class), eq(databaseNow.minusSeconds(5)),
+                any()))
+                .thenReturn(List.of(changed, deleted, extra));
+        when(productRepository.findAllWithVariantsByIdIn(List.of(productId))).thenReturn(List.of(product));
+        when(productMapper.toProductResponseWithStats(product, null, 0L)).thenReturn(productResponse);
+
+        ProductChangesResponse response = productService.getProductChanges(null, 2);
+
+        assertEquals(List.of(productResponse), response.getChanged());
+        assertEquals(List.of(deletedId), response.getDeleted());
+        assertTrue(response.isHasMore());
+
+        ChangeCursor next = ChangeCursor.parse(response.getNextCursor());
+        assertEquals(updatedAt.plusSeconds(1), next.updatedAt());
+        assertEquals(deletedId, next.id());
+    }
+
+    private ProductChangeView changeView(UUID id, Instant updatedAt, boolean active) {
+        ProductChangeView view = mock(ProductChangeView.class);
+        lenient().when(view.getId()).thenReturn(id);
+        lenient().when(view.getUpdatedAt()).thenReturn(updatedAt);
+        lenient().when(view.getIsActive()).thenReturn(active);
+        return view;
+    }
+}
@@ -0,0 +1,157 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductViewServiceTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private final String key = ProductViewService.KEY_PREFIX + productId;
+    private RedisTemplate<String, byte[]> redisTemplate;
+    private HashOperations<String, String, byte[]> hashOperations;
+    private ProductViewService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<String, byte[]>opsForHash()).thenReturn(hashOperations);
+        service = new ProductViewService(redisTemplate, new ObjectMapper(), 3600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testHitIsServedWithoutLoading() {
+        ProductViewService.ProductView view = ProductViewService.ProductView.of("{}".getBytes(StandardCharsets.UTF_8));
+        when(hashOperations.multiGet(eq(key), any())).thenReturn(Arrays.asList(view.json(), view.gzip(),
+                view.etag().getBytes(StandardCharsets.US_ASCII), null));
+
+        ProductViewService.ProductView served = service.getProductView(productId, id -> fail("should not load"));
+
+        assertEquals(view.etag(), served.etag());
+        verify(hashOperations, never()).putAll(any(), anyMap());
+    }
+
+    @Test
+    void testRefillIsKeptWhenGenerationIsUnchanged() {
+        miss(bytes("g1"));
+        when(hashOperations.get(key, "generation")).thenReturn(bytes("g1"));
+
+        service.getProductView(productId, this::load);
+
+        verify(hashOperations).putAll(eq(key), anyMap());
+        verify(hashOperations, never()).delete(eq(key), any(Object[].class));
+    }
+
+    @Test
+    void testRefillRacingAnEvictionIsDropped() {
+        // The product was updated and evicted while this request was loading the old row
+        miss(bytes("g1"));
+        when(hashOperations.get(key, "generation")).thenReturn(bytes("g2"));
+        AtomicInteger loads = new AtomicInteger();
+
+        ProductViewService.ProductView served = service.getProductView(productId, id -> {
+            loads.incrementAndGet();
+            return load(id);
+        });
+
+        assertNotNull(served);
+        assertEquals(1, loads.get());
+        verify(hashOperations).delete(key, "json", "gzip", "etag");
+    }
+
+    @Test
+    void testPutIsDroppedForRecentlyEvictedProduct() {
+        when(hashOperations.get(key, "generation")).thenReturn(null, bytes("g1"));
+
+        service.put(load(productId));
+        service.put(load(productId));
+
+        verify(hashOperations, times(1)).delete(key, "json", "gzip", "etag");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEvictWritesGenerationBeforeDroppingViewAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.evict(productId);
+
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate).executePipelined(callback.capture());
+
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisHashCommands hashCommands = mock(RedisHashCommands.class);
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        callback.getValue().doInRedis(connection);
+
+        byte[] rawKey = bytes(key);
+        InOrder order = inOrder(hashCommands, keyCommands);
+        order.verify(hashCommands).hSet(eq(rawKey), eq(bytes("generation")), any(byte[].class));
+        order.verify(hashCommands).hDel(rawKey, bytes("json"), bytes("gzip"), bytes("etag"));
+        order.verify(keyCommands).pExpire(rawKey, 3_600_000L);
+    }
+
+    @Test
+    void testRenderedViewCompressesOnFirstUse() throws Exception {
+        byte[] json = "{\"name\":\"Jacket\"}".getBytes(StandardCharsets.UTF_8);
+        ProductViewService.ProductView view = ProductViewService.ProductView.of(json);
+
+        byte[] gzip = view.gzip();
+
+        assertSame(gzip, view.gzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+        assertNotEquals(view.etag(), view.gzipEtag());
+    }
+
+    private void miss(byte[] generation) {
+        when(hashOperations.multiGet(eq(key), any())).thenReturn(Arrays.asList(null, null, null, generation));
+    }
+
+    private ProductResponse load(UUID id) {
+        return ProductResponse.builder().id(id).name("Jacket").build();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
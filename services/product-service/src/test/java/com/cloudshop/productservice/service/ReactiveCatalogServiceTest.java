@@ -0,0 +1,228 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.CategoryResponse;
+import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductFieldSet;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductVariantResponse;
+import com.cloudshop.productservice.exception.ResourceNotFoundException;
+import com.cloudshop.productservice.repository.ReactiveProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCatalogServiceTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private ReactiveHashOperations<String, String, byte[]> hashOperations;
+
+    @Mock
+    private ReactiveProductRepository productRepository;
+
+    @Mock
+    private ReactiveElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductViewService productViewService;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private ProductIndexRouter indexRouter;
+
+    @Spy
+    private ProductMapper productMapper = new ProductMapperImpl();
+
+    private final ProductFieldSets productFieldSets = new ProductFieldSets(new ObjectMapper());
+    private final UUID productId = UUID.randomUUID();
+
+    private ReactiveCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.<String, byte[]>opsForHash()).thenReturn(hashOperations);
+        catalogService = new ReactiveCatalogService(redisTemplate, productRepository, elasticsearchOperations,
+                productService, productViewService, searchService, searchResultCache, indexRouter, productFieldSets,
+                productMapper, new ProductMetrics(new SimpleMeterRegistry()), Schedulers.immediate());
+    }
+
+    @Test
+    void testGetProductView_ServesStoredViewsWithoutTheServletPath() {
+        ProductViewService.ProductView view = ProductViewService.ProductView.of("{}".getBytes());
+        when(hashOperations.multiGet(ProductViewService.KEY_PREFIX + productId, ProductViewService.LOOKUP_FIELDS))
+                .thenReturn(Mono.just(Arrays.asList(view.json(), view.gzip(), view.etag().getBytes(), null)));
+
+        ProductViewService.ProductView served = catalogService.getProductView(productId, ProductFieldSet.ALL).block();
+
+        assertEquals(view.etag(), served.etag());
+        verifyNoInteractions(productService, productViewService, productRepository);
+    }
+
+    @Test
+    void testGetProductView_RefillsMissesOverR2dbc() {
+        String key = ProductViewService.KEY_PREFIX + productId;
+        ProductViewService.ProductView view = ProductViewService.ProductView.of("{}".getBytes());
+        when(hashOperations.multiGet(key, ProductViewService.LOOKUP_FIELDS))
+                .thenReturn(Mono.just(Arrays.asList(null, null, null, "g1".getBytes())));
+        stubFullProduct(Map.of("id", productId));
+        when(productViewService.render(any())).thenReturn(view);
+        when(productViewService.getTtl()).thenReturn(Duration.ofHours(1));
+        when(hashOperations.putAll(eq(key), anyMap())).thenReturn(Mono.just(true));
+        when(redisTemplate.expire(key, Duration.ofHours(1))).thenReturn(Mono.just(true));
+        when(hashOperations.get(key, ProductViewService.FIELD_GENERATION)).thenReturn(Mono.just("g1".getBytes()));
+
+        assertSame(view, catalogService.getProductView(productId, ProductFieldSet.ALL).block());
+        verify(productViewService).render(argThat(product -> product.getVariants().size() == 1
+                && product.getCategory() != null && product.getReviewCount() == 0));
+        verify(hashOperations).putAll(eq(key), argThat(hash -> Arrays.equals(view.json(), hash.get("json"))));
+        verify(hashOperations, never()).remove(any(), any());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void testGetProductView_DropsRefillStoredAcrossAnEviction() {
+        String key = ProductViewService.KEY_PREFIX + productId;
+        ProductViewService.ProductView view = ProductViewService.ProductView.of("{}".getBytes());
+        when(hashOperations.multiGet(key, ProductViewService.LOOKUP_FIELDS))
+                .thenReturn(Mono.just(Arrays.asList(null, null, null, "g1".getBytes())));
+        stubFullProduct(Map.of("id", productId));
+        when(productViewService.render(any())).thenReturn(view);
+        when(productViewService.getTtl()).thenReturn(Duration.ofHours(1));
+        when(hashOperations.putAll(eq(key), anyMap())).thenReturn(Mono.just(true));
+        when(redisTemplate.expire(key, Duration.ofHours(1))).thenReturn(Mono.just(true));
+        when(hashOperations.get(key, ProductViewService.FIELD_GENERATION)).thenReturn(Mono.just("g2".getBytes()));
+        when(hashOperations.remove(key, ProductViewService.FIELDS.toArray())).thenReturn(Mono.just(3L));
+
+        assertSame(view, catalogService.getProductView(productId, ProductFieldSet.ALL).block());
+        verify(hashOperations).remove(key, ProductViewService.FIELDS.toArray());
+    }
+
+    @Test
+    void testGetProductView_RendersSelectionsOverR2dbc() {
+        ProductFieldSet fields = productFieldSets.parse("name,variants");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", productId);
+        row.put("name", "Test Product");
+        when(productRepository.findColumns(eq(fields.columns()), eq(Map.of("id", productId)), any()))
+                .thenReturn(Mono.just(new PageImpl<>(new ArrayList<>(List.of(row)))));
+        when(productRepository.findVariantsByProductIds(List.of(productId))).thenReturn(Mono.just(Map.of()));
+
+        String json = new String(catalogService.getProductView(productId, fields).block().json());
+
+        assertTrue(json.contains("\"name\":\"Test Product\""), json);
+        assertTrue(json.contains("\"variants\":[]"), json);
+        assertFalse(json.contains("reviewCount"), json);
+        verify(productRepository, never()).findRatingStatsByProductIds(anyList());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void testGetProductView_MissingProductIsNotFound() {
+        ProductFieldSet fields = productFieldSets.parse("name");
+        when(productRepository.findColumns(eq(fields.columns()), eq(Map.of("id", productId)), any()))
+                .thenReturn(Mono.just(new PageImpl<>(new ArrayList<>())));
+
+        assertThrows(ResourceNotFoundException.class, () -> catalogService.getProductView(productId, fields).block());
+    }
+
+    @Test
+    void testGetAllProducts_ReadsColumnSelectionsOverR2dbc() {
+        ProductFieldSet card = productFieldSets.parse("card");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", productId);
+        row.put("name", "Test Product");
+        when(productRepository.findColumns(eq(card.columns()), eq(Map.of("isActive", true)), any()))
+                .thenReturn(Mono.just(new PageImpl<>(new ArrayList<>(List.of(row)), PageRequest.of(0, 20), 1)));
+        when(productRepository.findRatingStatsByProductIds(List.of(productId)))
+                .thenReturn(Mono.just(List.<Object[]>of(new Object[]{productId, 4.5, 2L})));
+
+        PageResponse<ProductResponse> page = catalogService.getAllProducts(0, 20, null, "DESC", card).block();
+
+        ProductResponse product = page.getContent().get(0);
+        assertEquals("Test Product", product.getName());
+        assertEquals(2, product.getReviewCount());
+        assertEquals(0, product.getAverageRating().compareTo(new BigDecimal("4.5")));
+        assertEquals(1, page.getTotalElements());
+        verify(productService, never()).getAllProducts(0, 20, null, "DESC", card);
+    }
+
+    @Test
+    void testGetAllProducts_LoadsFullProductsWithBatchedAssociations() {
+        stubFullProduct(Map.of("isActive", true));
+
+        PageResponse<ProductResponse> page = catalogService.getAllProducts(0, 20, null, "DESC", ProductFieldSet.ALL)
+                .block();
+
+        ProductResponse product = page.getContent().get(0);
+        assertEquals("Test Product", product.getName());
+        assertEquals("RED-M", product.getVariants().get(0).getSku());
+        assertEquals(List.of(), product.getReviews());
+        assertEquals("Shoes", product.getCategory().getName());
+        assertEquals(0, product.getReviewCount());
+        verifyNoInteractions(productService);
+    }
+
+    /**
+     * One full product with a variant and a category, and no reviews.
+     */
+    private void stubFullProduct(Map<String, Object> equalTo) {
+        UUID categoryId = UUID.randomUUID();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", productId);
+        row.put("name", "Test Product");
+        row.put("categoryId", categoryId);
+        when(productRepository.findColumns(eq(ProductFieldSet.ALL.columns()), eq(equalTo), any()))
+                .thenReturn(Mono.just(new PageImpl<>(new ArrayList<>(List.of(row)))));
+        ProductVariantResponse variant = ProductVariantResponse.builder().sku("RED-M").build();
+        when(productRepository.findVariantsByProductIds(List.of(productId)))
+                .thenReturn(Mono.just(Map.of(productId, new ArrayList<>(List.of(variant)))));
+        when(productRepository.findReviewsByProductIds(List.of(productId))).thenReturn(Mono.just(Map.of()));
+        CategoryResponse category = CategoryResponse.builder().id(categoryId).name("Shoes").build();
+        when(productRepository.findCategoriesByIds(List.of(categoryId)))
+                .thenReturn(Mono.just(Map.of(categoryId, category)));
+        when(productRepository.findRatingStatsByProductIds(List.of(productId))).thenReturn(Mono.just(List.of()));
+    }
+}
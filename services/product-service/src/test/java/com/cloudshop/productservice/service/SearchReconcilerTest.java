@@ -0,0 +1,247 @@
+package com.cloudshop.productservice.service;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import com.cloudshop.productservice.dto.ReconciliationReport;
+import com.cloudshop.productservice.model.Product;
+import com.cloudshop.productservice.model.elasticsearch.ProductDocument;
+import com.cloudshop.productservice.repository.ProductChangeView;
+import com.cloudshop.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SearchReconcilerTest {
+
+    private static final UUID MERCHANT_ID = UUID.randomUUID();
+    private static final Instant SETTLED = Instant.parse("2024-01-01T00:00:00Z");
+
+    private ProductRepository productRepository;
+    private SearchService searchService;
+    private ElasticsearchOperations elasticsearchOperations;
+    private SearchReconciler reconciler;
+    private final List<Object[]> databaseBuckets = new ArrayList<>();
+    private final List<StringTermsBucket> indexBuckets = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        searchService = mock(SearchService.class);
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        ProductIndexRouter indexRouter = mock(ProductIndexRouter.class);
+        when(indexRouter.ensureExists(any())).thenReturn(IndexCoordinates.of("products"));
+        when(searchService.getIdBucketLength()).thenReturn(3);
+        when(productRepository.findActiveBucketChecksums(3)).thenReturn(databaseBuckets);
+        reconciler = new SearchReconciler(productRepository, searchService, elasticsearchOperations, indexRouter,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(reconciler, "settleWindow", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(reconciler, "maxBucketsPerRun", 256);
+
+        // Both the legacy-document query and the checksum aggregation go through search()
+        @SuppressWarnings("unchecked")
+        SearchHits<ProductDocument> hits = mock(SearchHits.class);
+        when(hits.getSearchHits()).thenReturn(List.of());
+        when(hits.getAggregations()).thenAnswer(invocation -> new ElasticsearchAggregations(Map.of("buckets",
+                Aggregate.of(a -> a.sterms(t -> t.buckets(b -> b.array(indexBuckets)).sumOtherDocCount(0L))))));
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductDocument.class), any(IndexCoordinates.class)))
+                .thenReturn(hits);
+    }
+
+    @Test
+    void testBucketBoundCoversEveryIdWithThePrefix() {
+        assertEquals(UUID.fromString("a1f00000-0000-0000-0000-000000000000"), SearchReconciler.bucketBound("a1f", '0'));
+        assertEquals(UUID.fromString("a1ffffff-ffff-ffff-ffff-ffffffffffff"), SearchReconciler.bucketBound("a1f", 'f'));
+        // Prefixes reaching past the first group still land in the right place
+        assertEquals(UUID.fromString("0123abcd-ef00-0000-0000-000000000000"),
+                SearchReconciler.bucketBound("0123abcdef", '0'));
+    }
+
+    @Test
+    void testIdBucketIsTheIdPrefixUsedForBounds() {
+        SearchService service = new SearchService(null, null, null, null, null, null, null, null);
+        UUID id = UUID.fromString("a1f2c3d4-0000-4000-8000-000000000001");
+
+        String bucket = service.idBucketOf(id);
+
+        assertEquals("a1f", bucket);
+        assertTrue(SearchReconciler.bucketBound(bucket, '0').toString().compareTo(id.toString()) <= 0);
+        assertTrue(SearchReconciler.bucketBound(bucket, 'f').toString().compareTo(id.toString()) >= 0);
+    }
+
+    @Test
+    void testMatchingChecksumsAreNotDrilledInto() {
+        bucket("aaa", 2, 1000);
+        bucket("bbb", 1, 500);
+
+        ReconciliationReport report = reconciler.reconcile();
+
+        assertEquals(2, report.getBucketsCompared());
+        assertEquals(List.of(), report.getMismatchedBuckets());
+        verify(productRepository, never()).findSyncStateByIdBetween(any(), any());
+        verify(elasticsearchOperations, never()).searchForStream(any(), any(), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testMismatchedBucketIsRepairedRowByRow() {
+        // Same count, different sum: one document is stale
+        databaseBuckets.add(new Object[]{"aaa", 5L, 5000L, 0L});
+        indexBuckets.add(termsBucket("aaa", 5, 4000, 0L));
+        bucket("bbb", 1, 500);
+
+        UUID inSync = id("aaa", 1);
+        UUID stale = id("aaa", 2);
+        UUID missing = id("aaa", 3);
+        UUID deactivated = id("aaa", 4);
+        UUID recent = id("aaa", 5);
+        UUID orphan = id("aaa", 6);
+        Instant now = Instant.now();
+        List<ProductChangeView> rows = List.of(
+                row(inSync, SETTLED, true),
+                row(stale, SETTLED, true),
+                row(missing, SETTLED, true),
+                row(deactivated, SETTLED, false),
+                row(recent, now, true));
+        when(productRepository.findSyncStateByIdBetween(SearchReconciler.bucketBound("aaa", '0'),
+                SearchReconciler.bucketBound("aaa", 'f'))).thenReturn(rows);
+        SearchHitsIterator<ProductDocument> documents = documents(
+                document(inSync, SETTLED),
+                document(stale, SETTLED.minusSeconds(60)),
+                document(deactivated, SETTLED),
+                document(recent, SETTLED),
+                document(orphan, SETTLED));
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(ProductDocument.class),
+                any(IndexCoordinates.class))).thenReturn(documents);
+        List<Product> reloaded = List.of(Product.builder().id(stale).build(), Product.builder().id(missing).build());
+        when(productRepository.findAllWithVariantsByIdIn(anyList())).thenReturn(reloaded);
+
+        ReconciliationReport report = reconciler.reconcile();
+
+        assertEquals(List.of("aaa"), report.getMismatchedBuckets());
+        assertEquals(1, report.getMissingInIndex());
+        assertEquals(1, report.getStaleInIndex());
+        assertEquals(2, report.getOrphanedInIndex());
+        assertEquals(1, report.getSkippedRecent());
+        verify(productRepository).findSyncStateByIdBetween(any(), any());
+        verify(productRepository).findAllWithVariantsByIdIn(argThat(ids ->
+                ids.size() == 2 && ids.containsAll(List.of(stale, missing))));
+        verify(searchService).reindexProducts(reloaded);
+        verify(searchService).removeProducts(Map.of(deactivated, MERCHANT_ID, orphan, MERCHANT_ID));
+    }
+
+    @Test
+    void testBucketOnlyOnOneSideIsMismatched() {
+        databaseBuckets.add(new Object[]{"ccc", 1L, 1000L, 0L});
+        when(productRepository.findSyncStateByIdBetween(any(), any())).thenReturn(List.of());
+        SearchHitsIterator<ProductDocument> documents = documents();
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(ProductDocument.class),
+                any(IndexCoordinates.class))).thenReturn(documents);
+
+        ReconciliationReport report = reconciler.reconcile();
+
+        assertEquals(List.of("ccc"), report.getMismatchedBuckets());
+        verify(searchService, never()).reindexProducts(anyList());
+        verify(searchService, never()).removeProducts(anyMap());
+    }
+
+    @Test
+    void testSwappedIdsWithEqualTimestampsAreMismatched() {
+        // A missing and an orphaned document with the same updatedAt: count and updatedSum agree
+        UUID missing = UUID.fromString("ddd00001-0000-4000-8000-00000000a001");
+        UUID orphan = UUID.fromString("ddd00002-0000-4000-8000-00000000b002");
+        databaseBuckets.add(new Object[]{"ddd", 1L, SETTLED.toEpochMilli(), SearchService.syncHashOf(missing, SETTLED)});
+        indexBuckets.add(termsBucket("ddd", 1, SETTLED.toEpochMilli(), SearchService.syncHashOf(orphan, SETTLED)));
+        List<ProductChangeView> rows = List.of(row(missing, SETTLED, true));
+        when(productRepository.findSyncStateByIdBetween(any(), any())).thenReturn(rows);
+        SearchHitsIterator<ProductDocument> documents = documents(document(orphan, SETTLED));
+        when(elasticsearchOperations.searchForStream(any(Query.class), eq(ProductDocument.class),
+                any(IndexCoordinates.class))).thenReturn(documents);
+        List<Product> reloaded = List.of(Product.builder().id(missing).build());
+        when(productRepository.findAllWithVariantsByIdIn(List.of(missing))).thenReturn(reloaded);
+
+        ReconciliationReport report = reconciler.reconcile();
+
+        assertEquals(List.of("ddd"), report.getMismatchedBuckets());
+        assertEquals(1, report.getMissingInIndex());
+        assertEquals(1, report.getOrphanedInIndex());
+        verify(searchService).reindexProducts(reloaded);
+        verify(searchService).removeProducts(Map.of(orphan, MERCHANT_ID));
+    }
+
+    @Test
+    void testSyncHashIsTheLowBitsOfIdXorUpdatedAt() {
+        UUID id = UUID.fromString("a1f2c3d4-0000-4000-8000-0000ffff0001");
+        Instant updatedAt = Instant.ofEpochMilli(0x1_0000_0003L);
+
+        assertEquals(0xffff0001L ^ 0x3L, SearchService.syncHashOf(id, updatedAt));
+        assertNull(SearchService.syncHashOf(id, null));
+        // Never negative, so the database side can compute it from the last eight hex digits
+        UUID high = UUID.fromString("a1f2c3d4-0000-4000-8000-0000ffffffff");
+        assertEquals(0xffffffffL, SearchService.syncHashOf(high, Instant.ofEpochMilli(0)));
+    }
+
+    private void bucket(String bucket, long count, long updatedSum) {
+        databaseBuckets.add(new Object[]{bucket, count, updatedSum, 0L});
+        indexBuckets.add(termsBucket(bucket, count, updatedSum, 0L));
+    }
+
+    private static StringTermsBucket termsBucket(String bucket, long count, long updatedSum, long syncSum) {
+        return StringTermsBucket.of(b -> b.key(bucket).docCount(count)
+                .aggregations("updatedSum", Aggregate.of(a -> a.sum(s -> s.value(updatedSum))))
+                .aggregations("syncSum", Aggregate.of(a -> a.sum(s -> s.value(syncSum)))));
+    }
+
+    private static UUID id(String bucket, int n) {
+        return UUID.fromString(bucket + String.format("%05d", n) + "-0000-4000-8000-000000000000");
+    }
+
+    private static ProductChangeView row(UUID id, Instant updatedAt, boolean active) {
+        ProductChangeView view = mock(ProductChangeView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getUpdatedAt()).thenReturn(updatedAt);
+        when(view.getIsActive()).thenReturn(active);
+        return view;
+    }
+
+    private static ProductDocument document(UUID id, Instant updatedAt) {
+        return ProductDocument.builder().id(id).merchantId(MERCHANT_ID).updatedAt(updatedAt).isActive(true).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SearchHitsIterator<ProductDocument> documents(ProductDocument... documents) {
+        List<SearchHit<ProductDocument>> hits = new ArrayList<>();
+        for (ProductDocument document : documents) {
+            SearchHit<ProductDocument> hit = mock(SearchHit.class);
+            when(hit.getContent()).thenReturn(document);
+            hits.add(hit);
+        }
+        Iterator<SearchHit<ProductDocument>> source = hits.iterator();
+        SearchHitsIterator<ProductDocument> iterator = mock(SearchHitsIterator.class);
+        when(iterator.hasNext()).thenAnswer(invocation -> source.hasNext());
+        when(iterator.next()).thenAnswer(invocation -> source.next());
+        doCallRealMethod().when(iterator).forEachRemaining(any());
+        return iterator;
+    }
+}
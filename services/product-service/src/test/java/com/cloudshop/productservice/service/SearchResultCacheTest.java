@@ -0,0 +1,76 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.PageResponse;
+import com.cloudshop.productservice.dto.ProductResponse;
+import com.cloudshop.productservice.dto.ProductSearchRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    @Test
+    void testCanonicalKey_IgnoresCaseWhitespaceAndFilterOrder() {
+        UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+        ProductSearchRequest a = ProductSearchRequest.builder()
+                .query("  running   shoes ")
+                .categoryIds(List.of(second, first))
+                .minPrice(new BigDecimal("10.00"))
+                .build();
+        ProductSearchRequest b = ProductSearchRequest.builder()
+                .query("running shoes")
+                .categoryIds(List.of(first, second))
+                .minPrice(new BigDecimal("10"))
+                .build();
+
+        assertEquals(SearchResultCache.canonicalKey(a, pageable), SearchResultCache.canonicalKey(b, pageable));
+        assertNotEquals(SearchResultCache.canonicalKey(a, pageable),
+                SearchResultCache.canonicalKey(a, PageRequest.of(1, 20, pageable.getSort())));
+    }
+
+    @Test
+    void testCanonicalKey_KeepsCaseForSkuMatch() {
+        ProductSearchRequest lower = ProductSearchRequest.builder().query("sku-001").build();
+        ProductSearchRequest upper = ProductSearchRequest.builder().query("SKU-001").build();
+
+        assertNotEquals(SearchResultCache.canonicalKey(lower, pageable),
+                SearchResultCache.canonicalKey(upper, pageable));
+    }
+
+    @Test
+    void testGet_AdmitsOnSecondSightingAndInvalidatesOnWrite() {
+        SearchResultCache cache = new SearchResultCache(true, Duration.ofMinutes(1), 100, Duration.ofMinutes(5));
+        ProductSearchRequest request = ProductSearchRequest.builder().query("iphone").build();
+        AtomicInteger loads = new AtomicInteger();
+        PageResponse<ProductResponse> page = PageResponse.<ProductResponse>builder().content(List.of()).build();
+
+        for (int i = 0; i < 4; i++) {
+            cache.get(request, pageable, () -> {
+                loads.incrementAndGet();
+                return page;
+            });
+        }
+        // First sighting passes through, the second loads and stores, the rest are hits
+        assertEquals(2, loads.get());
+
+        cache.invalidateAll();
+        cache.get(request, pageable, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+        assertEquals(3, loads.get());
+    }
+}
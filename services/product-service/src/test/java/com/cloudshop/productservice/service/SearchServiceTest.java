@@ -0,0 +1,150 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.dto.ProductSearchRequest;
+import com.cloudshop.productservice.model.Product;
+import com.cloudshop.productservice.model.ProductVariant;
+import com.cloudshop.productservice.model.elasticsearch.ProductDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchServiceTest {
+
+    private final SearchService searchService = new SearchService(null, null, null, null, null, null, null, null);
+
+    @Test
+    void testToProductDocument_PricesAndAttributesComeFromAvailableVariants() {
+        UUID parentId = UUID.randomUUID();
+        Product product = product(new BigDecimal("100"),
+                variant("Navy", "M", "-10", 3, true),
+                variant("navy", "L", "50", 0, true),
+                variant("Red", "S", "-60", 5, false));
+
+        ProductDocument document = searchService.toProductDocument(product, new Object[]{product.getId(), 4.5, 2L},
+                Map.of(product.getCategoryId(), List.of(parentId, product.getCategoryId())));
+
+        assertEquals(0, new BigDecimal("90").compareTo(document.getMinPrice()));
+        assertEquals(0, new BigDecimal("150").compareTo(document.getMaxPrice()));
+        assertEquals(List.of(new BigDecimal("90"), new BigDecimal("150")), document.getVariantPrices());
+        assertTrue(document.getInStock());
+        assertEquals(List.of("navy"), document.getVariantColors());
+        assertEquals(List.of("m", "l"), document.getVariantSizes());
+        assertEquals(List.of("navy|m", "navy|l"), document.getVariantOptions());
+        assertEquals(3, document.getVariants().size());
+        assertEquals(List.of(parentId, product.getCategoryId()), document.getCategoryPath());
+        assertEquals(ProductDocument.CURRENT_VERSION, document.getDocVersion());
+        assertEquals(4.5, document.getAverageRating());
+        assertEquals(2, document.getReviewCount());
+    }
+
+    @Test
+    void testToProductDocument_OutOfStockWhenNoAvailableVariantHasStock() {
+        Product product = product(new BigDecimal("100"),
+                variant("Navy", "M", "0", 0, true),
+                variant("Red", "M", "5", 8, false));
+
+        ProductDocument document = searchService.toProductDocument(product, null, Map.of());
+
+        assertFalse(document.getInStock());
+        assertEquals(List.of("navy"), document.getVariantColors());
+        assertEquals(0, document.getReviewCount());
+    }
+
+    @Test
+    void testToProductDocument_FallsBackToAllVariantsThenBasePrice() {
+        Product unavailable = product(new BigDecimal("100"), variant("Navy", "M", "20", 4, false));
+        Product noVariants = product(new BigDecimal("100"));
+
+        ProductDocument allUnavailable = searchService.toProductDocument(unavailable, null, Map.of());
+        ProductDocument withoutVariants = searchService.toProductDocument(noVariants, null, Map.of());
+
+        assertEquals(List.of(new BigDecimal("120")), allUnavailable.getVariantPrices());
+        assertFalse(allUnavailable.getInStock());
+        assertEquals(List.of(new BigDecimal("100")), withoutVariants.getVariantPrices());
+        assertEquals(new BigDecimal("100"), withoutVariants.getMinPrice());
+        assertTrue(withoutVariants.getInStock());
+        assertEquals(List.of(noVariants.getCategoryId()), withoutVariants.getCategoryPath());
+    }
+
+    @Test
+    void testBuildCriteria_PriceRangeIsOneRangeOnVariantPrices() {
+        // A product with variants at 10 and 100 must not match 40..60 just because the range lies between them
+        Map<String, Criteria> both = byField(searchService.buildCriteria(ProductSearchRequest.builder()
+                .minPrice(new BigDecimal("40")).maxPrice(new BigDecimal("60")).build()));
+        Map<String, Criteria> minOnly = byField(searchService.buildCriteria(ProductSearchRequest.builder()
+                .minPrice(new BigDecimal("40")).build()));
+
+        assertFalse(both.containsKey("minPrice"));
+        assertFalse(both.containsKey("maxPrice"));
+        assertArrayEquals(new Object[]{40.0, 60.0}, between(both.get("variantPrices")));
+        assertArrayEquals(new Object[]{40.0, null}, between(minOnly.get("variantPrices")));
+    }
+
+    @Test
+    void testBuildCriteria_VariantAndStockFilters() {
+        Map<String, Criteria> colorAndSize = byField(searchService.buildCriteria(ProductSearchRequest.builder()
+                .variantColor(" Navy ").variantSize("M").inStock(true).build()));
+        Map<String, Criteria> colorOnly = byField(searchService.buildCriteria(ProductSearchRequest.builder()
+                .variantColor("Navy").build()));
+        Map<String, Criteria> sizeOnly = byField(searchService.buildCriteria(ProductSearchRequest.builder()
+                .variantSize("M").build()));
+
+        // Color and size must hold for the same variant, so they are matched as one pair
+        assertEquals("navy|m", value(colorAndSize.get("variantOptions")));
+        assertFalse(colorAndSize.containsKey("variantColors"));
+        assertEquals(true, value(colorAndSize.get("inStock")));
+        assertEquals("navy", value(colorOnly.get("variantColors")));
+        assertEquals("m", value(sizeOnly.get("variantSizes")));
+        assertFalse(sizeOnly.containsKey("inStock"));
+    }
+
+    private static Product product(BigDecimal price, ProductVariant... variants) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .merchantId(UUID.randomUUID())
+                .categoryId(UUID.randomUUID())
+                .name("Jacket")
+                .sku("JACKET-1")
+                .price(price)
+                .isActive(true)
+                .variants(List.of(variants))
+                .build();
+    }
+
+    private static ProductVariant variant(String color, String size, String adjustment, int stock, boolean available) {
+        return ProductVariant.builder()
+                .sku("JACKET-1-" + color + "-" + size)
+                .name(color + " " + size)
+                .color(color)
+                .size(size)
+                .priceAdjustment(new BigDecimal(adjustment))
+                .stockQuantity(stock)
+                .isAvailable(available)
+                .build();
+    }
+
+    private static Map<String, Criteria> byField(Criteria criteria) {
+        return criteria.getCriteriaChain().stream()
+                .filter(link -> link.getField() != null)
+                .collect(Collectors.toMap(link -> link.getField().getName(), link -> link));
+    }
+
+    private static Object[] between(Criteria criteria) {
+        Criteria.CriteriaEntry entry = criteria.getQueryCriteriaEntries().iterator().next();
+        assertEquals(Criteria.OperationKey.BETWEEN, entry.getKey());
+        return (Object[]) entry.getValue();
+    }
+
+    private static Object value(Criteria criteria) {
+        Criteria.CriteriaEntry entry = criteria.getQueryCriteriaEntries().iterator().next();
+        assertEquals(Criteria.OperationKey.EQUALS, entry.getKey());
+        return entry.getValue();
+    }
+}
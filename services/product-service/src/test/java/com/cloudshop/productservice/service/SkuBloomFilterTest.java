@@ -0,0 +1,49 @@
+package com.cloudshop.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkuBloomFilterTest {
+
+    @Test
+    void testMightContain_NoFalseNegatives() {
+        SkuBloomFilter filter = new SkuBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("SKU-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("SKU-" + i));
+        }
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateNearTarget() {
+        SkuBloomFilter filter = new SkuBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("SKU-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("OTHER-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_500, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void testSizing() {
+        SkuBloomFilter filter = new SkuBloomFilter(1_000_000, 0.01);
+
+        // About 9.6 bits and 7 hashes per SKU for 1%
+        assertEquals(7, filter.getHashCount());
+        assertEquals(1_198_160, filter.getMemoryBytes(), 100);
+        assertEquals(0, filter.getBitsSet());
+        assertThrows(IllegalArgumentException.class, () -> new SkuBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new SkuBloomFilter(10, 1));
+    }
+}
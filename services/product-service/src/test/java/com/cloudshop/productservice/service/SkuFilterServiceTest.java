@@ -0,0 +1,118 @@
+package com.cloudshop.productservice.service;
+
+import com.cloudshop.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SkuFilterServiceTest {
+
+    private ProductRepository productRepository;
+    private StringRedisTemplate redisTemplate;
+    private SkuFilterService service;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        service = new SkuFilterService(productRepository, mock(PlatformTransactionManager.class), redisTemplate,
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testChecksDatabaseUntilFirstBuild() {
+        service.skuExists("A");
+
+        verify(productRepository).existsBySku("A");
+    }
+
+    @Test
+    void testRebuiltFilterSkipsDatabaseOnlyForUnknownSkus() {
+        when(productRepository.streamAllSkus()).thenReturn(Stream.of("A"));
+        when(productRepository.streamAllVariantSkus()).thenReturn(Stream.of("A-RED"));
+        service.rebuild();
+
+        assertFalse(service.skuExists("UNKNOWN"));
+        verify(productRepository, never()).existsBySku("UNKNOWN");
+
+        service.skuExists("A");
+        service.skuExists("A-RED");
+        verify(productRepository).existsBySku("A");
+        verify(productRepository).existsBySku("A-RED");
+    }
+
+    @Test
+    void testSkuAddedDuringRebuildSurvivesSwap() {
+        when(productRepository.streamAllSkus()).thenReturn(Stream.of("A"));
+        service.rebuild();
+        // Created on another instance after the snapshot was read, before the new filter is swapped in
+        when(productRepository.streamAllSkus()).thenAnswer(invocation -> {
+            service.onMessage(new DefaultMessage("product-service:sku-added".getBytes(StandardCharsets.UTF_8),
+                    "B".getBytes(StandardCharsets.UTF_8)), null);
+            return Stream.of("A");
+        });
+        when(productRepository.streamAllVariantSkus()).thenReturn(Stream.empty());
+
+        service.rebuild();
+        service.skuExists("B");
+
+        verify(productRepository).existsBySku("B");
+    }
+
+    @Test
+    void testFailedRebuildKeepsPreviousFilter() {
+        when(productRepository.streamAllSkus()).thenReturn(Stream.of("A"));
+        service.rebuild();
+        when(productRepository.streamAllSkus()).thenThrow(new IllegalStateException("database down"));
+
+        service.rebuild();
+        service.skuExists("A");
+        service.skuExists("UNKNOWN");
+
+        verify(productRepository).existsBySku("A");
+        verify(productRepository, never()).existsBySku("UNKNOWN");
+    }
+
+    @Test
+    void testBroadcastWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.onSkusAdded(List.of("A"));
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate).convertAndSend("product-service:sku-added", "A");
+    }
+
+    @Test
+    void testRecognisesSkuUniqueIndexViolation() {
+        assertTrue(SkuFilterService.isSkuConflict(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("duplicate key value violates unique constraint \"idx_product_sku\""))));
+        assertFalse(SkuFilterService.isSkuConflict(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("null value in column \"name\" violates not-null constraint"))));
+    }
+}
@@ -0,0 +1,62 @@
+package com.cloudshop.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpellingIndexTest {
+
+    @Test
+    void testLookup_RanksByDistanceThenFrequency() {
+        SpellingIndex index = new SpellingIndex(2, 7);
+        index.addText("Wireless Headphones");
+        index.addText("Copper Wires");
+        index.addText("Wireless Keyboard");
+        index.addText("Wired Headset");
+        index.addText("Speaker Wires");
+
+        List<SpellingIndex.Suggestion> suggestions = index.lookup("wiret", 3);
+
+        assertEquals(List.of("wires", "wired"), suggestions.stream().map(SpellingIndex.Suggestion::term).toList());
+        assertEquals(2, suggestions.get(0).count());
+        assertEquals(1, suggestions.get(1).distance());
+        assertEquals("wireless", index.lookup("wirless", 3).get(0).term());
+    }
+
+    @Test
+    void testLookup_HandlesTranspositionsAndLongWords() {
+        SpellingIndex index = new SpellingIndex(2, 7);
+        index.addText("Mechanical keyboard");
+
+        assertEquals("keyboard", index.lookup("keybaord", 1).get(0).term());
+        assertEquals("mechanical", index.lookup("mechanicle", 1).get(0).term());
+        assertTrue(index.lookup("banana", 1).isEmpty());
+    }
+
+    @Test
+    void testRemoveText_HidesUnusedTerms() {
+        SpellingIndex index = new SpellingIndex(2, 7);
+        index.addText("Leather Jacket");
+        index.removeText("Leather Jacket");
+
+        assertEquals(0, index.getCount("jacket"));
+        assertTrue(index.lookup("jaket", 1).isEmpty());
+
+        index.addText("Denim Jacket");
+        assertEquals("jacket", index.lookup("jaket", 1).get(0).term());
+    }
+
+    @Test
+    void testTokenize_SkipsShortWordsAndNumbers() {
+        assertEquals(List.of("usb", "cable", "4k2"), SpellingIndex.tokenize("USB-C cable, 2m 100 4K2"));
+    }
+
+    @Test
+    void testDistance() {
+        assertEquals(1, SpellingIndex.distance("ab", "ba", 2));
+        assertEquals(2, SpellingIndex.distance("kitten", "sittin", 2));
+        assertEquals(3, SpellingIndex.distance("kitten", "sitting", 2));
+    }
+}